@@ -51,6 +51,8 @@ dependencies {
     implementation(libs.room.runtime)
     implementation(libs.room.ktx)
     annotationProcessor(libs.room.compiler)  // Para Java
+    // PagingSource generado por Room para el historial
+    implementation(libs.room.paging)
     // Si usas Kotlin, usa kapt en lugar de annotationProcessor:
     // kapt(libs.room.compiler)
 
@@ -59,11 +61,16 @@ dependencies {
     implementation(libs.lifecycle.livedata)
     implementation(libs.lifecycle.common)
 
+    // Paging 3 (historial paginado)
+    implementation(libs.paging.runtime)
+
     // Coroutines (para operaciones asíncronas)
     implementation(libs.coroutines.android)
 
     // Testing
     testImplementation(libs.junit)
+    // org.json real para comparar el parser antiguo en tests JVM (android.jar solo trae stubs)
+    testImplementation("org.json:json:20231013")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
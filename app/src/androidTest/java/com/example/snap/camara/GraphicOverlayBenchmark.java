@@ -0,0 +1,84 @@
+package com.example.snap.camara;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Debug;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark del overlay: dibuja 100 bloques en un Canvas de software e informa del tiempo
+ * y de las reservas de memoria por frame. Tras el calentamiento no debe reservar nada.
+ * Se ejecuta en dispositivo: ./gradlew connectedAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class GraphicOverlayBenchmark {
+
+    private static final String TAG = "GraphicOverlayBench";
+    private static final int BLOCKS = 100;
+    private static final int WARMUP_FRAMES = 50;
+    private static final int FRAMES = 500;
+
+    @Test
+    @SuppressWarnings("deprecation") // Los contadores de Debug siguen siendo la forma simple de contar reservas
+    public void draw100Blocks() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        GraphicOverlay overlay = new GraphicOverlay(context, null);
+        overlay.setDrawBlocks(true);
+        overlay.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+        overlay.layout(0, 0, 1080, 1920);
+
+        List<GraphicOverlay.Item> items = new ArrayList<>(BLOCKS);
+        for (int i = 0; i < BLOCKS; i++) {
+            int top = (i % 25) * 50;
+            int left = (i / 25) * 180;
+            items.add(new GraphicOverlay.Item(new Rect(left, top, left + 170, top + 40),
+                    "Texto " + i, "Traducción " + i));
+        }
+        overlay.setImageSourceInfo(720, 1280, false);
+        overlay.setItems(items);
+        assertEquals(BLOCKS, overlay.getGraphicCount());
+
+        Bitmap bitmap = Bitmap.createBitmap(1080, 1920, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        // Calentamiento: la primera pasada calcula la geometría de cada bloque
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            overlay.draw(canvas);
+        }
+
+        Debug.startAllocCounting();
+        Debug.resetThreadAllocCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            overlay.draw(canvas);
+        }
+        long elapsedNs = System.nanoTime() - start;
+        int allocations = Debug.getThreadAllocCount();
+        long allocatedBytes = Debug.getThreadAllocSize();
+        Debug.stopAllocCounting();
+
+        String report = String.format(java.util.Locale.US,
+                "%d bloques: %.1f us/frame, %.2f reservas/frame, %.1f B/frame",
+                BLOCKS, elapsedNs / 1000.0 / FRAMES, (double) allocations / FRAMES,
+                (double) allocatedBytes / FRAMES);
+        Log.i(TAG, report);
+        bitmap.recycle();
+
+        assertEquals(report, 0, allocations);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.snap.data;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.snap.data.dao.FavoriteDao;
+import com.example.snap.data.dao.TranslationHistoryDao;
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.database.FtsQuery;
+import com.example.snap.data.entities.Favorite;
+import com.example.snap.data.entities.TranslationHistory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Búsqueda de texto completo: resultados (prefijo, frase, orden, usuario) y tiempo con 100.000
+ * filas de historial frente a un LIKE que recorre la tabla.
+ * Se ejecuta en dispositivo: ./gradlew connectedAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class FtsSearchBenchmark {
+
+    private static final String TAG = "FtsSearchBench";
+    private static final String USER = "bench@snap.test";
+    private static final int ROWS = 100_000;
+    private static final int RUNS = 10;
+
+    private static final String[] WORDS = {"casa", "perro", "gato", "mesa", "coche", "libro", "agua",
+            "ciudad", "tiempo", "camino", "ventana", "puerta", "escuela", "trabajo", "mañana", "noche"};
+
+    private AppDatabase db;
+    private TranslationHistoryDao historyDao;
+    private FavoriteDao favoriteDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        historyDao = db.translationHistoryDao();
+        favoriteDao = db.favoriteDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void prefixPhraseAndRanking() {
+        insert(USER, "Buenos días, amigo", "Good morning, friend", 1_000);
+        insert(USER, "Días de lluvia", "Rainy days", 2_000);
+        insert(USER, "Amigo mío, amigo del alma", "My friend, soulmate", 500);
+        insert("otro@snap.test", "Buenos días", "Good morning", 4_000);
+
+        // Prefijo y sin tildes ni mayúsculas
+        assertEquals(2, search("dias").size());
+        // Una palabra entre comillas es exacta, sin prefijo
+        assertEquals(2, search("\"dias\"").size());
+        assertEquals(0, search("\"dia\"").size());
+        // Frase exacta: "buenos días" sí, "días de" no
+        List<TranslationHistory> phrase = search("\"buenos dias\"");
+        assertEquals(1, phrase.size());
+        assertEquals("Buenos días, amigo", phrase.get(0).getSourceText());
+        // Más coincidencias primero, aunque sea la más antigua
+        List<TranslationHistory> ranked = search("amig");
+        assertEquals("Amigo mío, amigo del alma", ranked.get(0).getSourceText());
+        // Busca también en la traducción
+        assertEquals(1, search("rain").size());
+        // Las bajas salen del índice (triggers de Room)
+        historyDao.delete(ranked.get(0));
+        assertEquals(1, search("amig").size());
+
+        favoriteDao.insert(new Favorite(USER, "Hasta luego", "See you later", "es", "en", true));
+        assertEquals(1, favoriteDao.searchFavoritesSync(USER, FtsQuery.build("LATER"), 10).size());
+        assertEquals(0, favoriteDao.searchFavoritesSync("otro@snap.test", FtsQuery.build("later"), 10).size());
+    }
+
+    @Test
+    public void search100kRows() {
+        SupportSQLiteDatabase sql = db.getOpenHelper().getWritableDatabase();
+        db.runInTransaction(() -> {
+            SupportSQLiteStatement insert = sql.compileStatement(
+                    "INSERT INTO translation_history (userId, sourceText, translatedText, sourceLanguage, "
+                            + "targetLanguage, timestamp, inputMethod, isFavorite) VALUES (?, ?, ?, 'es', 'en', ?, 'TEXT', 0)");
+            for (int i = 0; i < ROWS; i++) {
+                insert.clearBindings();
+                insert.bindString(1, USER);
+                insert.bindString(2, WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length]
+                        + " " + WORDS[(i / 49) % WORDS.length] + " " + i);
+                insert.bindString(3, "text " + i);
+                insert.bindLong(4, i);
+                insert.executeInsert();
+            }
+        });
+
+        String query = FtsQuery.build("ventana puert");
+        int expected = historyDao.searchHistorySync(USER, query, ROWS).size();
+        assertTrue(expected > 0);
+
+        long ftsNs = Long.MAX_VALUE;
+        long likeNs = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            List<TranslationHistory> page = historyDao.searchHistorySync(USER, query, 30);
+            ftsNs = Math.min(ftsNs, System.nanoTime() - start);
+            assertEquals(Math.min(30, expected), page.size());
+
+            start = System.nanoTime();
+            try (Cursor cursor = sql.query("SELECT * FROM translation_history WHERE userId = ? "
+                            + "AND (sourceText LIKE '%ventana%' OR translatedText LIKE '%ventana%') "
+                            + "AND (sourceText LIKE '%puert%' OR translatedText LIKE '%puert%') "
+                            + "ORDER BY timestamp DESC LIMIT 30",
+                    new Object[]{USER})) {
+                while (cursor.moveToNext()) { /* leer la página */ }
+            }
+            likeNs = Math.min(likeNs, System.nanoTime() - start);
+        }
+
+        String report = String.format(Locale.US, "%d filas, %d resultados: FTS %.2f ms, LIKE %.2f ms",
+                ROWS, expected, ftsNs / 1e6, likeNs / 1e6);
+        Log.i(TAG, report);
+    }
+
+    private void insert(String userId, String source, String translated, long timestamp) {
+        TranslationHistory history = new TranslationHistory(userId, source, translated, "es", "en", "TEXT");
+        history.setTimestamp(timestamp);
+        historyDao.insert(history);
+    }
+
+    private List<TranslationHistory> search(String text) {
+        return historyDao.searchHistorySync(USER, FtsQuery.build(text), 50);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.snap.data;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.snap.data.dao.TranslationHistoryDao;
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.database.ContentHash;
+import com.example.snap.data.entities.TranslationHistory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Duplicados recientes por huella: la consulta respeta la ventana de tiempo y SQLite la
+ * resuelve solo con el índice (contentHash, timestamp), sin leer la tabla.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistoryDedupTest {
+
+    private AppDatabase db;
+    private TranslationHistoryDao dao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        dao = db.translationHistoryDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void existsRecentHonorsWindow() {
+        String hash = ContentHash.of("u", "hola", "hello", "es", "en");
+        TranslationHistory history = new TranslationHistory("u", "hola", "hello", "es", "en", "CAMERA");
+        history.setTimestamp(10_000);
+        history.setContentHash(hash);
+        dao.insert(history);
+
+        assertTrue(dao.existsRecent(hash, 9_000));
+        assertFalse(dao.existsRecent(hash, 10_000));
+        assertFalse(dao.existsRecent(ContentHash.of("u", "hola", "hello", "es", "fr"), 0));
+    }
+
+    @Test
+    public void existsRecentUsesCoveringIndex() {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase().query(
+                "EXPLAIN QUERY PLAN SELECT EXISTS(SELECT 1 FROM translation_history "
+                        + "WHERE contentHash = ? AND timestamp > ?)", new Object[]{"x", 0L})) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) plan.append(cursor.getString(detail)).append('\n');
+        }
+        assertTrue(plan.toString(), plan.toString().contains("COVERING INDEX index_translation_history_hash_time"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.snap.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.snap.data.dao.TranslationHistoryDao;
+import com.example.snap.data.dao.TranslationStatsDao;
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark de la pantalla de estadísticas con 100.000 filas de historial: carga de los tres
+ * agregados calculados sobre translation_history (antes) frente a la tabla resumen
+ * translation_stats (después). También comprueba que ambos dan lo mismo.
+ * Se ejecuta en dispositivo: ./gradlew connectedAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatsRollupBenchmark {
+
+    private static final String TAG = "StatsRollupBench";
+    private static final String USER = "bench@snap.test";
+    private static final int ROWS = 100_000;
+    private static final int OTHER_USER_ROWS = 20_000;
+    private static final int RUNS = 5;
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String[] LANGS = {"es", "en", "fr", "de", "it", "pt", "zh", "ja", "ko"};
+    private static final String[] METHODS = {"TEXT", "CAMERA", "VOICE"};
+
+    private AppDatabase db;
+    private TranslationHistoryDao historyDao;
+    private TranslationStatsDao statsDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        historyDao = db.translationHistoryDao();
+        statsDao = db.translationStatsDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void statisticsScreenLoad100kRows() throws Exception {
+        long now = System.currentTimeMillis();
+        insertHistory(USER, ROWS, now);
+        insertHistory("otro@snap.test", OTHER_USER_ROWS, now);
+
+        // Trabajo de reconstrucción (lo que hace el repositorio con datos anteriores a la tabla)
+        long rebuildStart = System.nanoTime();
+        db.runInTransaction(() -> {
+            statsDao.deleteAll();
+            statsDao.insertFromHistory();
+        });
+        long rebuildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - rebuildStart);
+        assertEquals(historyDao.getTotalCount(), statsDao.getTotalCount());
+
+        long since = now - 6 * DAY_MS;
+        String sinceDay = Instant.ofEpochMilli(since).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+
+        // Misma respuesta antes y después
+        assertPairsEqual(await(historyDao.getTopLanguagePairs(USER, 3)), await(statsDao.getTopLanguagePairs(USER, 3)));
+        assertDaysEqual(await(historyDao.getDailyCounts(USER, startOfDay(since))),
+                await(statsDao.getDailyCounts(USER, sinceDay)));
+        assertMethodsEqual(await(historyDao.getInputMethodCounts(USER)), await(statsDao.getInputMethodCounts(USER)));
+
+        long beforeNs = Long.MAX_VALUE;
+        long afterNs = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            await(historyDao.getTopLanguagePairs(USER, 3));
+            await(historyDao.getDailyCounts(USER, startOfDay(since)));
+            await(historyDao.getInputMethodCounts(USER));
+            beforeNs = Math.min(beforeNs, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            await(statsDao.getTopLanguagePairs(USER, 3));
+            await(statsDao.getDailyCounts(USER, sinceDay));
+            await(statsDao.getInputMethodCounts(USER));
+            afterNs = Math.min(afterNs, System.nanoTime() - start);
+        }
+
+        String report = String.format(Locale.US,
+                "%d filas: historial %.1f ms, resumen %.1f ms (x%.0f), reconstrucción %d ms",
+                ROWS, beforeNs / 1e6, afterNs / 1e6, (double) beforeNs / Math.max(1, afterNs), rebuildMs);
+        Log.i(TAG, report);
+    }
+
+    // Inserción masiva directa en SQL (mucho más rápida que entidad a entidad)
+    private void insertHistory(String userId, int rows, long now) {
+        SupportSQLiteDatabase sql = db.getOpenHelper().getWritableDatabase();
+        db.runInTransaction(() -> {
+            SupportSQLiteStatement insert = sql.compileStatement(
+                    "INSERT INTO translation_history (userId, sourceText, translatedText, sourceLanguage, "
+                            + "targetLanguage, timestamp, inputMethod, isFavorite) VALUES (?, ?, ?, ?, ?, ?, ?, 0)");
+            for (int i = 0; i < rows; i++) {
+                String source = LANGS[i % LANGS.length];
+                String target = LANGS[(i / LANGS.length + 1 + i) % LANGS.length];
+                insert.clearBindings();
+                insert.bindString(1, userId);
+                insert.bindString(2, "texto " + i);
+                insert.bindString(3, "text " + i);
+                insert.bindString(4, source);
+                insert.bindString(5, target);
+                // Un año de historial
+                insert.bindLong(6, now - (i % 365) * DAY_MS - (i % 1000) * 1000L);
+                insert.bindString(7, METHODS[i % METHODS.length]);
+                insert.executeInsert();
+            }
+        });
+    }
+
+    private static long startOfDay(long millis) {
+        java.util.Calendar calendar = java.util.Calendar.getInstance();
+        calendar.setTimeInMillis(millis);
+        calendar.set(java.util.Calendar.HOUR_OF_DAY, 0);
+        calendar.set(java.util.Calendar.MINUTE, 0);
+        calendar.set(java.util.Calendar.SECOND, 0);
+        calendar.set(java.util.Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static <T> T await(LiveData<T> liveData) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = result -> {
+            value.set(result);
+            latch.countDown();
+        };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.observeForever(observer));
+        assertTrue("La consulta no respondió", latch.await(60, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.removeObserver(observer));
+        return value.get();
+    }
+
+    private static void assertPairsEqual(List<LanguagePairCount> expected, List<LanguagePairCount> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getCount(), actual.get(i).getCount());
+        }
+    }
+
+    private static void assertDaysEqual(List<DailyCount> expected, List<DailyCount> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDay(), actual.get(i).getDay());
+            assertEquals(expected.get(i).getCount(), actual.get(i).getCount());
+        }
+    }
+
+    private static void assertMethodsEqual(List<InputMethodCount> expected, List<InputMethodCount> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getInputMethod(), actual.get(i).getInputMethod());
+            assertEquals(expected.get(i).getCount(), actual.get(i).getCount());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.snap.data.database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.snap.data.entities.TranslationHistory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Migración de una base de datos de la versión 3 (la última antes de la caché, el resumen, la
+ * búsqueda y la huella) a la actual: Room valida el esquema al abrir y los datos que había
+ * aparecen en el resumen, en el índice de texto completo y con su huella.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationTest {
+
+    private static final String DB_NAME = "migration-test.db";
+    private static final String USER = "migra@snap.test";
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) db.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void migratesVersion3WithData() {
+        createVersion3();
+
+        db = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addMigrations(AppDatabase.MIGRATIONS)
+                .build();
+
+        // Resumen: mismo total que el historial
+        assertEquals(db.translationHistoryDao().getTotalCount(), db.translationStatsDao().getTotalCount());
+        assertEquals(3, db.translationStatsDao().getTotalCount());
+
+        // Índice de texto completo con las filas antiguas, y los triggers activos para las nuevas
+        assertEquals(2, db.translationHistoryDao().searchHistorySync(USER, FtsQuery.build("buenos"), 10).size());
+        assertEquals(1, db.favoriteDao().searchFavoritesSync(USER, FtsQuery.build("later"), 10).size());
+        TranslationHistory added = new TranslationHistory(USER, "Buenos días otra vez", "Good morning again",
+                "es", "en", "TEXT");
+        db.translationHistoryDao().insert(added);
+        assertEquals(3, db.translationHistoryDao().searchHistorySync(USER, FtsQuery.build("buenos"), 10).size());
+
+        // Huella calculada como al insertar
+        List<TranslationHistory> hola = db.translationHistoryDao().searchHistorySync(USER, FtsQuery.build("hola"), 10);
+        assertEquals(1, hola.size());
+        assertEquals(ContentHash.of(USER, "Hola", "Hello", "es", "en"), hola.get(0).getContentHash());
+    }
+
+    // Esquema de la versión 3 tal como lo creaba Room, con unas filas
+    private void createVersion3() {
+        try (SQLiteDatabase old = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DB_NAME), null)) {
+            old.execSQL("CREATE TABLE IF NOT EXISTS `users` (`id` TEXT NOT NULL, `name` TEXT, `email` TEXT NOT NULL, "
+                    + "`password` TEXT, `createdAt` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+            old.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_users_email` ON `users` (`email`)");
+            old.execSQL("CREATE TABLE IF NOT EXISTS `translation_history` (`id` INTEGER PRIMARY KEY AUTOINCREMENT "
+                    + "NOT NULL, `userId` TEXT, `sourceText` TEXT, `translatedText` TEXT, `sourceLanguage` TEXT, "
+                    + "`targetLanguage` TEXT, `timestamp` INTEGER NOT NULL, `inputMethod` TEXT, "
+                    + "`isFavorite` INTEGER NOT NULL DEFAULT 0, `category` TEXT)");
+            old.execSQL("CREATE TABLE IF NOT EXISTS `favorites` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`userId` TEXT, `originalText` TEXT, `translatedText` TEXT, `sourceLang` TEXT, "
+                    + "`targetLang` TEXT, `addedDate` INTEGER NOT NULL, `isExpression` INTEGER NOT NULL)");
+
+            insertHistory(old, "Hola", "Hello", 1_000);
+            insertHistory(old, "Buenos días", "Good morning", 2_000);
+            insertHistory(old, "Buenos días, amigo", "Good morning, friend", 3_000);
+            old.execSQL("INSERT INTO favorites (userId, originalText, translatedText, sourceLang, targetLang, "
+                    + "addedDate, isExpression) VALUES (?, 'Hasta luego', 'See you later', 'es', 'en', 0, 0)",
+                    new Object[]{USER});
+            old.setVersion(3);
+        }
+    }
+
+    private static void insertHistory(SQLiteDatabase old, String source, String translated, long timestamp) {
+        old.execSQL("INSERT INTO translation_history (userId, sourceText, translatedText, sourceLanguage, "
+                        + "targetLanguage, timestamp, inputMethod) VALUES (?, ?, ?, 'es', 'en', ?, 'TEXT')",
+                new Object[]{USER, source, translated, timestamp});
+    }
+}
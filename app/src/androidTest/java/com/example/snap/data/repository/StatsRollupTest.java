@@ -0,0 +1,141 @@
+package com.example.snap.data.repository;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.entities.TranslationHistory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * La tabla resumen sigue al historial en altas, bajas, deshacer y borrado completo: tras cada
+ * operación del repositorio, translation_stats coincide fila a fila con el agregado calculado
+ * sobre translation_history.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatsRollupTest {
+
+    private static final String USER = "stats@snap.test";
+    private static final String OTHER = "otro@snap.test";
+
+    private static final String HISTORY_AGGREGATE = "SELECT IFNULL(userId, ''), IFNULL(sourceLanguage, ''), "
+            + "IFNULL(targetLanguage, ''), strftime('%Y-%m-%d', timestamp / 1000, 'unixepoch', 'localtime'), "
+            + "IFNULL(inputMethod, ''), COUNT(*) FROM translation_history GROUP BY 1, 2, 3, 4, 5 ORDER BY 1, 2, 3, 4, 5";
+    private static final String STATS_ROWS = "SELECT userId, sourceLanguage, targetLanguage, day, inputMethod, count "
+            + "FROM translation_stats ORDER BY 1, 2, 3, 4, 5";
+
+    private AppDatabase db;
+    private ExecutorService executor;
+    private TranslationHistoryRepository repository;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        executor = Executors.newSingleThreadExecutor();
+        repository = new TranslationHistoryRepository(db, executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        db.close();
+    }
+
+    @Test
+    public void rollupFollowsInsertDeleteUndoAndClear() throws Exception {
+        TranslationHistory hola = history(USER, "hola", "hello", "en", "TEXT");
+        repository.insert(hola);
+        repository.insert(history(USER, "adiós", "bye", "en", "VOICE"));
+        repository.insert(history(USER, "gato", "chat", "fr", "CAMERA"));
+        repository.insert(history(OTHER, "perro", "dog", "en", "TEXT"));
+        awaitRepository();
+        assertRollupMatchesHistory();
+        assertEquals(4, db.translationStatsDao().getTotalCount());
+
+        // Borrar y deshacer (vuelve a insertarse la misma fila)
+        TranslationHistory stored = db.translationHistoryDao().searchHistorySync(USER, "hola*", 1).get(0);
+        repository.delete(stored);
+        awaitRepository();
+        assertRollupMatchesHistory();
+        assertEquals(3, db.translationStatsDao().getTotalCount());
+
+        repository.insert(stored);
+        awaitRepository();
+        assertRollupMatchesHistory();
+        assertEquals(4, db.translationStatsDao().getTotalCount());
+
+        // Borrar una fila que ya no existe no descuenta nada
+        repository.delete(stored);
+        repository.delete(stored);
+        awaitRepository();
+        assertRollupMatchesHistory();
+
+        repository.clearAllHistory(USER);
+        awaitRepository();
+        assertRollupMatchesHistory();
+        assertEquals(1, db.translationStatsDao().getTotalCount());
+    }
+
+    @Test
+    public void mismatchBetweenUsersIsRebuilt() throws Exception {
+        repository.insert(history(USER, "hola", "hello", "en", "TEXT"));
+        repository.insert(history(OTHER, "perro", "dog", "en", "TEXT"));
+        awaitRepository();
+
+        // El total global sigue cuadrando, pero cada usuario tiene la cuenta del otro
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE translation_stats SET count = count + 1 WHERE userId = ?", new Object[]{USER});
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE translation_stats SET count = count - 1 WHERE userId = ?", new Object[]{OTHER});
+        assertEquals(db.translationHistoryDao().getTotalCount(), db.translationStatsDao().getTotalCount());
+        assertTrue(db.translationStatsDao().isOutOfSync());
+
+        repository.rebuildStatsIfNeeded();
+        assertFalse(db.translationStatsDao().isOutOfSync());
+        assertRollupMatchesHistory();
+    }
+
+    private static TranslationHistory history(String userId, String source, String translated, String targetLanguage,
+                                              String inputMethod) {
+        return new TranslationHistory(userId, source, translated, "es", targetLanguage, inputMethod);
+    }
+
+    // Espera a que el executor del repositorio termine lo encolado
+    private void awaitRepository() throws Exception {
+        executor.submit(() -> { }).get();
+    }
+
+    private void assertRollupMatchesHistory() {
+        assertEquals(rows(HISTORY_AGGREGATE), rows(STATS_ROWS));
+    }
+
+    private List<String> rows(String sql) {
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = db.getOpenHelper().getReadableDatabase().query(sql)) {
+            while (cursor.moveToNext()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    row.append(cursor.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+}
@@ -15,6 +15,9 @@ public class SettingsActivity extends BaseActivity {
     public static final String KEY_DEFAULT_SOURCE_LANG = "default_source_lang";
     public static final String KEY_DEFAULT_TARGET_LANG = "default_target_lang";
     public static final String KEY_APP_LANGUAGE = "app_language";
+    // Cámara en vivo: zona de OCR ("auto", "center", "full") y lado largo del frame de análisis
+    public static final String KEY_OCR_REGION_MODE = "ocr_region_mode";
+    public static final String KEY_ANALYSIS_RESOLUTION = "analysis_resolution";
 
     private SwitchMaterial switchAutoTts;
     private SwitchMaterial switchSaveHistory;
@@ -6,6 +6,8 @@ import android.content.SharedPreferences;
 import android.content.res.Configuration;
 import android.content.res.Resources;
 
+import com.example.snap.services.TranslatorPool;
+
 public class SnapLinguaApplication extends Application {
     
     private static SnapLinguaApplication instance;
@@ -30,6 +32,18 @@ public class SnapLinguaApplication extends Application {
         super.onCreate();
         instance = this;
         android.util.Log.d("SnapLinguaApp", "Application onCreate");
+
+        // Precargar el traductor del par por defecto para cámara y voz
+        TranslatorPool.getInstance().warmUp(this);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            // Liberar la memoria nativa de los traductores que no se están usando
+            TranslatorPool.getInstance().trimIdle();
+        }
     }
     
     @Override
@@ -14,15 +14,18 @@ import com.google.android.material.snackbar.Snackbar;
 
 import com.example.snap.data.entities.Favorite;
 import com.example.snap.data.entities.TranslationHistory;
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
 import com.example.snap.ui.base.BaseActivity;
 import com.example.snap.ui.components.BottomNavigationComponent;
 import com.example.snap.ui.components.FavoritesAdapter;
 import com.example.snap.ui.components.HistoryAdapter;
+import com.example.snap.ui.components.HistoryPagingAdapter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Calendar;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Actividad de estadísticas refactorizada.
@@ -30,13 +33,20 @@ import java.util.Map;
  */
 public class StatisticsActivity extends BaseActivity {
 
-    private TextView tvUserEmail, tvFavoriteLangs;
+    // Días que cubre el resumen de actividad reciente
+    private static final int RECENT_DAYS = 7;
+
+    private TextView tvUserEmail, tvFavoriteLangs, tvActivityStats;
     private RecyclerView rvHistory, rvFavorites;
     private Button btnLogout, btnClearHistory, btnClearFavorites;
-    private HistoryAdapter historyAdapter;
+    private HistoryPagingAdapter historyAdapter;
     private FavoritesAdapter favoritesAdapter;
     private BottomNavigationComponent bottomNavigation;
 
+    // Últimos agregados recibidos (cada uno llega por su propio LiveData)
+    private List<DailyCount> dailyCounts;
+    private List<InputMethodCount> inputMethodCounts;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -55,6 +65,7 @@ public class StatisticsActivity extends BaseActivity {
     private void initializeViews() {
         tvUserEmail = findViewById(R.id.tvUserEmail);
         tvFavoriteLangs = findViewById(R.id.tvFavoriteLangs);
+        tvActivityStats = findViewById(R.id.tvActivityStats);
         rvHistory = findViewById(R.id.rvHistory);
         rvFavorites = findViewById(R.id.rvFavorites);
         btnLogout = findViewById(R.id.btnLogout);
@@ -77,7 +88,8 @@ public class StatisticsActivity extends BaseActivity {
 
     private void setupComponents() {
         // RecyclerViews
-        historyAdapter = new HistoryAdapter(new ArrayList<>());
+        // Historial paginado: solo se cargan las filas que se van viendo
+        historyAdapter = new HistoryPagingAdapter();
         rvHistory.setLayoutManager(new LinearLayoutManager(this));
         rvHistory.setAdapter(historyAdapter);
 
@@ -151,19 +163,20 @@ public class StatisticsActivity extends BaseActivity {
     private void loadStatistics() {
         String userId = getCurrentUser();
 
-        viewModel.getHistoryByUserId(userId).observe(this, historyList -> {
-            if (historyList != null && !historyList.isEmpty()) {
-                List<TranslationHistory> last10 = historyList.size() > 10
-                        ? historyList.subList(0, 10)
-                        : historyList;
-                historyAdapter.updateData(last10);
+        viewModel.getHistoryPaged(userId).observe(this, pagingData ->
+                historyAdapter.submitData(getLifecycle(), pagingData));
 
-                // También actualizar los idiomas favoritos con el mismo historial
-                displayFavoriteLanguages(historyList);
-            } else {
-                historyAdapter.updateData(new ArrayList<>());
-                tvFavoriteLangs.setText(R.string.sin_traducciones);
-            }
+        // Estadísticas agregadas en SQL: cada consulta devuelve solo unas pocas filas
+        viewModel.getTopLanguagePairs(userId, 3).observe(this, this::displayFavoriteLanguages);
+
+        viewModel.getDailyCounts(userId, startOfRecentDays()).observe(this, counts -> {
+            dailyCounts = counts;
+            displayActivityStats();
+        });
+
+        viewModel.getInputMethodCounts(userId).observe(this, counts -> {
+            inputMethodCounts = counts;
+            displayActivityStats();
         });
 
         viewModel.getFavoritesByUser(userId).observe(this, favorites -> {
@@ -179,33 +192,71 @@ public class StatisticsActivity extends BaseActivity {
         }
     }
 
-    private void displayFavoriteLanguages(List<TranslationHistory> historyList) {
-        if (historyList != null && !historyList.isEmpty()) {
-            Map<String, Integer> langCount = new HashMap<>();
+    private void displayFavoriteLanguages(List<LanguagePairCount> pairs) {
+        if (pairs == null || pairs.isEmpty()) {
+            tvFavoriteLangs.setText(R.string.sin_traducciones);
+            return;
+        }
 
-            for (TranslationHistory history : historyList) {
-                String pair = history.getSourceLanguage() + " → " + history.getTargetLanguage();
-                langCount.put(pair, langCount.getOrDefault(pair, 0) + 1);
-            }
+        // Ya vienen ordenados y limitados desde la consulta
+        StringBuilder sb = new StringBuilder();
+        for (LanguagePairCount pair : pairs) {
+            sb.append(pair.getSourceLanguage())
+                    .append(" → ")
+                    .append(pair.getTargetLanguage())
+                    .append(" (")
+                    .append(pair.getCount())
+                    .append(" veces)\n");
+        }
+        tvFavoriteLangs.setText(sb.toString().trim());
+    }
 
-            List<Map.Entry<String, Integer>> sortedList = new ArrayList<>(langCount.entrySet());
-            sortedList.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+    private void displayActivityStats() {
+        StringBuilder sb = new StringBuilder();
 
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < Math.min(3, sortedList.size()); i++) {
-                Map.Entry<String, Integer> entry = sortedList.get(i);
-                sb.append(entry.getKey())
-                        .append(" (")
-                        .append(entry.getValue())
-                        .append(" veces)\n");
+        if (dailyCounts != null && !dailyCounts.isEmpty()) {
+            int total = 0;
+            for (DailyCount day : dailyCounts) {
+                total += day.getCount();
             }
+            sb.append("Últimos ").append(RECENT_DAYS).append(" días: ")
+                    .append(total).append(" traducciones en ")
+                    .append(dailyCounts.size()).append(dailyCounts.size() == 1 ? " día" : " días");
+        }
 
-            tvFavoriteLangs.setText(sb.toString().isEmpty()
-                    ? getString(R.string.sin_traducciones)
-                    : sb.toString().trim());
-        } else {
-            tvFavoriteLangs.setText(R.string.sin_traducciones);
+        if (inputMethodCounts != null && !inputMethodCounts.isEmpty()) {
+            if (sb.length() > 0) sb.append('\n');
+            for (int i = 0; i < inputMethodCounts.size(); i++) {
+                InputMethodCount method = inputMethodCounts.get(i);
+                if (i > 0) sb.append(" · ");
+                sb.append(inputMethodLabel(method.getInputMethod())).append(": ").append(method.getCount());
+            }
         }
+
+        tvActivityStats.setText(sb.toString());
+        tvActivityStats.setVisibility(sb.length() > 0 ? View.VISIBLE : View.GONE);
+    }
+
+    private static String inputMethodLabel(String inputMethod) {
+        // Sin método registrado (la tabla resumen lo guarda como "")
+        if (inputMethod == null || inputMethod.isEmpty()) return "Otros";
+        switch (inputMethod) {
+            case "TEXT": return "Texto";
+            case "CAMERA": return "Cámara";
+            case "VOICE": return "Voz";
+            default: return inputMethod;
+        }
+    }
+
+    // Medianoche local del primer día del resumen
+    private static long startOfRecentDays() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DAY_OF_YEAR, -(RECENT_DAYS - 1));
+        return calendar.getTimeInMillis();
     }
 
     private void showLoginPrompt() {
@@ -249,8 +300,8 @@ public class StatisticsActivity extends BaseActivity {
                 .setTitle(R.string.borrar_historial_titulo)
                 .setMessage(R.string.borrar_historial_mensaje)
                 .setPositiveButton(R.string.si, (dialog, which) -> {
+                    // La lista paginada se refresca sola al cambiar la tabla
                     viewModel.clearAllHistory(userId);
-                    historyAdapter.updateData(new ArrayList<>());
 
                     // Mostrar Snackbar con opción de deshacer
                     Snackbar.make(findViewById(android.R.id.content),
@@ -6,6 +6,9 @@ import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.speech.RecognizerIntent;
 import android.speech.tts.TextToSpeech;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
 import android.util.Log;
 import android.view.View;
 import android.widget.ImageButton;
@@ -16,6 +19,12 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.core.content.ContextCompat;
 
+import com.example.snap.services.CachedSpeechPlayer;
+import com.example.snap.services.ChunkedSpeaker;
+import com.example.snap.services.IncrementalTranslator;
+import com.example.snap.services.SpeechAudioCache;
+import com.example.snap.services.StreamingSpeechRecognizer;
+import com.example.snap.services.TranslationRouter;
 import com.example.snap.ui.base.BaseActivity;
 import com.example.snap.ui.components.BottomNavigationComponent;
 import com.example.snap.ui.components.LanguageSelector;
@@ -23,6 +32,8 @@ import com.example.snap.utils.LanguageHelper;
 
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitListener {
 
@@ -41,11 +52,23 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
     // TTS
     private TextToSpeech tts;
     private boolean isTtsReady = false;
+    // Frases ya sintetizadas: se reproducen sin volver a pasar por el motor
+    private CachedSpeechPlayer cachedPlayer;
+    // Textos largos: se leen frase a frase
+    private ChunkedSpeaker speaker;
+    private String spokenText;
 
     // Estado
     private String sourceLang = "es";
     private String targetLang = "en";
 
+    // Modo continuo: parciales del reconocedor traducidas según se habla
+    private StreamingSpeechRecognizer streamingRecognizer;
+    private IncrementalTranslator liveTranslator;
+    private final ScheduledExecutorService liveScheduler = Executors.newSingleThreadScheduledExecutor();
+    // La escucha se corta porque la pantalla se va: no traducir ni guardar lo reconocido
+    private boolean stoppingForPause;
+
     // Launchers
     private final ActivityResultLauncher<Intent> speechLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(), result -> {
@@ -79,6 +102,26 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
         setupObservers();
 
         tts = new TextToSpeech(this, this);
+        cachedPlayer = new CachedSpeechPlayer(this);
+        speaker = new ChunkedSpeaker(tts, new ChunkedSpeaker.Listener() {
+            @Override
+            public void onChunkStarted(int index, int count, int start, int end) {
+                highlightSpokenChunk(start, end);
+            }
+
+            @Override
+            public void onFinished() {
+                highlightSpokenChunk(-1, -1);
+            }
+
+            @Override
+            public void onError() {
+                highlightSpokenChunk(-1, -1);
+            }
+        });
+
+        // Tener listo el audio de los favoritos para reproducirlos al instante
+        SpeechAudioCache.getInstance(this).prefetchFavorites(getCurrentUser());
         showWelcomeMessage();
     }
 
@@ -118,16 +161,27 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
 
             Log.d(TAG, "Idiomas cambiados: " + srcCode + " -> " + tgtCode);
 
+            // Las traducciones parciales guardadas son del par anterior
+            resetLiveTranslator();
+
             // Re-traducir si ya hay texto
             String text = tvInput.getText().toString();
-            if (!text.isEmpty() && !text.equals("El texto reconocido aparecerá aquí...")) {
+            if (!text.isEmpty() && !text.equals("El texto reconocido aparecerá aquí...")
+                    && !text.equals("Escuchando...")) {
                 translateText(text);
             }
         });
     }
 
     private void setupListeners() {
-        btnRecord.setOnClickListener(v -> checkPermissionAndStartVoice());
+        btnRecord.setOnClickListener(v -> {
+            // En modo continuo el mismo botón sirve para dejar de escuchar
+            if (streamingRecognizer != null && streamingRecognizer.isListening()) {
+                streamingRecognizer.stop();
+            } else {
+                checkPermissionAndStartVoice();
+            }
+        });
         btnPlay.setOnClickListener(v -> speakTranslatedText());
     }
 
@@ -148,6 +202,8 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
                 // Si no es mensaje de error ni "Traduciendo...", lo leemos automáticamente
                 // PERO solo si la preferencia está activada
                 if (!translatedText.startsWith("Error") && !translatedText.equals("Traduciendo...")) {
+                    // Pre-sintetizar la última traducción para repetirla al instante
+                    SpeechAudioCache.getInstance(this).prefetch(translatedText, new Locale(targetLang));
 
                     String currentUser = getCurrentUser();
                     if (currentUser == null)
@@ -179,6 +235,12 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
     }
 
     private void startVoiceRecognition() {
+        if (StreamingSpeechRecognizer.isAvailable(this)) {
+            startStreamingRecognition();
+            return;
+        }
+
+        // Sin reconocedor en el dispositivo: diálogo de reconocimiento de una sola frase
         Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
         // Usamos LanguageHelper para obtener el locale (reutilización)
         intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, LanguageHelper.getSpeechLocale(sourceLang));
@@ -193,6 +255,86 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
         }
     }
 
+    /**
+     * Reconocimiento continuo: la traducción se actualiza mientras se habla y, al terminar,
+     * el texto completo pasa por el ViewModel (historial y lectura automática) como antes.
+     */
+    private void startStreamingRecognition() {
+        if (sourceLang.equals(targetLang)) {
+            showMessage(getString(R.string.idiomas_introducidos_iguales));
+            return;
+        }
+
+        if (streamingRecognizer == null) {
+            streamingRecognizer = new StreamingSpeechRecognizer(this, new StreamingSpeechRecognizer.Callback() {
+                @Override
+                public void onTranscript(String transcript, boolean utteranceFinished) {
+                    tvInput.setText(transcript);
+                    if (utteranceFinished) {
+                        getLiveTranslator().onFinal(transcript);
+                    } else {
+                        getLiveTranslator().onPartial(transcript);
+                    }
+                }
+
+                @Override
+                public void onStopped(String transcript) {
+                    btnRecord.setActivated(false);
+                    resetLiveTranslator();
+                    if (!transcript.isEmpty()) {
+                        tvInput.setText(transcript);
+                        if (!stoppingForPause) {
+                            viewModel.translateText(transcript, sourceLang, targetLang, getCurrentUser());
+                        }
+                    }
+                }
+
+                @Override
+                public void onError(int error) {
+                    showMessage(getString(R.string.error_iniciar_voz, String.valueOf(error)));
+                }
+            });
+        }
+
+        resetLiveTranslator();
+        tvInput.setText("Escuchando...");
+        tvResult.setText("");
+        btnRecord.setActivated(true);
+        streamingRecognizer.start(LanguageHelper.getSpeechLocale(sourceLang));
+    }
+
+    private IncrementalTranslator getLiveTranslator() {
+        if (liveTranslator == null) {
+            // Los idiomas quedan fijados: al cambiarlos se crea otro traductor
+            String source = sourceLang;
+            String target = targetLang;
+            liveTranslator = new IncrementalTranslator(
+                    segment -> TranslationRouter.getInstance(getApplicationContext())
+                            .translate(segment, source, target)
+                            .thenApply(result -> result.getTranslatedText()),
+                    new IncrementalTranslator.Listener() {
+                        @Override
+                        public void onTranslation(String sourceText, String translated, boolean isFinal) {
+                            runOnUiThread(() -> tvResult.setText(translated));
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            Log.w(TAG, "Error en la traducción en vivo", error);
+                        }
+                    },
+                    liveScheduler, IncrementalTranslator.DEFAULT_DEBOUNCE_MS);
+        }
+        return liveTranslator;
+    }
+
+    private void resetLiveTranslator() {
+        if (liveTranslator != null) {
+            liveTranslator.reset();
+            liveTranslator = null;
+        }
+    }
+
     private void translateText(String text) {
         if (sourceLang.equals(targetLang)) {
             showMessage(getString(R.string.idiomas_introducidos_iguales));
@@ -207,11 +349,6 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
     }
 
     private void speakTranslatedText() {
-        if (!isTtsReady) {
-            showMessage(getString(R.string.motor_voz_no_disponible));
-            return;
-        }
-
         String text = tvResult.getText().toString();
         if (text.isEmpty() || text.equals("La traducción aparecerá aquí...") ||
                 text.equals("Traduciendo...") || text.startsWith("Error")) {
@@ -219,15 +356,40 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
         }
 
         Locale locale = new Locale(targetLang);
+
+        // Si ya está sintetizada suena al momento, aunque el motor no esté listo
+        speaker.stop();
+        if (cachedPlayer.play(text, locale)) {
+            return;
+        }
+
+        if (!isTtsReady) {
+            showMessage(getString(R.string.motor_voz_no_disponible));
+            return;
+        }
+
         int result = tts.setLanguage(locale);
 
         if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
             showMessage(getString(R.string.idioma_no_soportado_tts));
         } else {
-            tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, null);
+            spokenText = text;
+            // La traducción ya se pre-sintetizó al llegar (setupObservers)
+            speaker.speak(text, locale);
         }
     }
 
+    // Resalta la frase que se está leyendo (start < 0 quita el resaltado)
+    private void highlightSpokenChunk(int start, int end) {
+        if (spokenText == null || !tvResult.getText().toString().equals(spokenText)) return;
+
+        SpannableString styled = new SpannableString(spokenText);
+        if (start >= 0 && end <= spokenText.length()) {
+            styled.setSpan(new BackgroundColorSpan(0x4400BCD4), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        tvResult.setText(styled);
+    }
+
     @Override
     public void onInit(int status) {
         isTtsReady = status == TextToSpeech.SUCCESS;
@@ -267,8 +429,28 @@ public class VoiceActivity extends BaseActivity implements TextToSpeech.OnInitLi
         toast.show();
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // No seguir escuchando el micrófono en segundo plano
+        if (streamingRecognizer != null) {
+            // stop() llama a onStopped en el acto
+            stoppingForPause = true;
+            streamingRecognizer.stop();
+            stoppingForPause = false;
+        }
+    }
+
     @Override
     protected void onDestroy() {
+        if (streamingRecognizer != null) {
+            streamingRecognizer.destroy();
+        }
+        resetLiveTranslator();
+        liveScheduler.shutdownNow();
+        if (cachedPlayer != null) {
+            cachedPlayer.stop();
+        }
         if (tts != null) {
             tts.stop();
             tts.shutdown();
@@ -6,6 +6,9 @@ import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.speech.RecognizerIntent;
 import android.speech.tts.TextToSpeech;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.BackgroundColorSpan;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -21,18 +24,20 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
+import com.example.snap.services.CachedSpeechPlayer;
+import com.example.snap.services.ChunkedSpeaker;
+import com.example.snap.services.IncrementalTranslator;
+import com.example.snap.services.SpeechAudioCache;
+import com.example.snap.services.StreamingSpeechRecognizer;
+import com.example.snap.services.TranslationRouter;
 import com.example.snap.ui.components.BottomNavigationComponent;
 import com.example.snap.ui.components.LanguageSelector;
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.example.snap.utils.SessionManager;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static android.app.Activity.RESULT_OK;
 
@@ -51,14 +56,23 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
     // TTS
     private TextToSpeech tts;
     private boolean isTtsReady = false;
-
-    // Traducciones
-    private final Map<String, Translator> translatorCache = new HashMap<>();
+    // Frases ya sintetizadas: se reproducen sin volver a pasar por el motor
+    private CachedSpeechPlayer cachedPlayer;
+    // Textos largos: se leen frase a frase
+    private ChunkedSpeaker speaker;
+    private String spokenText;
 
     // Idiomas actuales
     private String currentSourceCode = "es";
     private String currentTargetCode = "en";
 
+    // Modo continuo: parciales del reconocedor traducidas según se habla
+    private StreamingSpeechRecognizer streamingRecognizer;
+    private IncrementalTranslator liveTranslator;
+    private final ScheduledExecutorService liveScheduler = Executors.newSingleThreadScheduledExecutor();
+    // La escucha se corta porque la pantalla se va: no traducir lo reconocido
+    private boolean stoppingForPause;
+
     // Launchers
     private final ActivityResultLauncher<Intent> speechLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(), result -> {
@@ -97,6 +111,27 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
         setupNavigation();
 
         tts = new TextToSpeech(requireContext(), this);
+        cachedPlayer = new CachedSpeechPlayer(requireContext());
+        speaker = new ChunkedSpeaker(tts, new ChunkedSpeaker.Listener() {
+            @Override
+            public void onChunkStarted(int index, int count, int start, int end) {
+                highlightSpokenChunk(start, end);
+            }
+
+            @Override
+            public void onFinished() {
+                highlightSpokenChunk(-1, -1);
+            }
+
+            @Override
+            public void onError() {
+                highlightSpokenChunk(-1, -1);
+            }
+        });
+
+        // Tener listo el audio de los favoritos para reproducirlos al instante
+        SpeechAudioCache.getInstance(requireContext())
+                .prefetchFavorites(new SessionManager(requireContext()).getActiveUser());
     }
 
 //Inicializa todas las vistas
@@ -122,9 +157,13 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
 
             Log.d(TAG, "Idiomas cambiados: " + srcCode + " -> " + tgtCode);
 
+            // Las traducciones parciales guardadas son del par anterior
+            resetLiveTranslator();
+
             // Re-traducir si ya hay texto
             String text = inputText.getText().toString();
-            if (!text.isEmpty() && !text.equals("El texto reconocido aparecerá aquí...")) {
+            if (!text.isEmpty() && !text.equals("El texto reconocido aparecerá aquí...")
+                    && !text.equals("Escuchando...")) {
                 translateText(text);
             }
         });
@@ -134,7 +173,14 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
 
 
     private void setupButtons() {
-        recordButton.setOnClickListener(v -> checkPermissionAndStartVoice());
+        recordButton.setOnClickListener(v -> {
+            // En modo continuo el mismo botón sirve para dejar de escuchar
+            if (streamingRecognizer != null && streamingRecognizer.isListening()) {
+                streamingRecognizer.stop();
+            } else {
+                checkPermissionAndStartVoice();
+            }
+        });
         speakButton.setOnClickListener(v -> speakTranslatedText());
     }
 
@@ -164,6 +210,12 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
 
 
     private void startVoiceRecognition() {
+        if (StreamingSpeechRecognizer.isAvailable(requireContext())) {
+            startStreamingRecognition();
+            return;
+        }
+
+        // Sin reconocedor en el dispositivo: diálogo de reconocimiento de una sola frase
         Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
         intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, getSpeechLocale(currentSourceCode));
         intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL,
@@ -177,10 +229,10 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
         }
     }
 
-//Traduce el texto reconocido
+//Inicia el reconocimiento continuo con traducción en vivo
 
 
-    private void translateText(String text) {
+    private void startStreamingRecognition() {
         if (currentSourceCode.equals(currentTargetCode)) {
             Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
                     R.string.idiomas_iguales,
@@ -188,36 +240,113 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
             return;
         }
 
-        inputText.setText(text);
-        translatedText.setText("Traduciendo...");
+        if (streamingRecognizer == null) {
+            streamingRecognizer = new StreamingSpeechRecognizer(requireContext(),
+                    new StreamingSpeechRecognizer.Callback() {
+                        @Override
+                        public void onTranscript(String transcript, boolean utteranceFinished) {
+                            inputText.setText(transcript);
+                            if (utteranceFinished) {
+                                getLiveTranslator().onFinal(transcript);
+                            } else {
+                                getLiveTranslator().onPartial(transcript);
+                            }
+                        }
+
+                        @Override
+                        public void onStopped(String transcript) {
+                            recordButton.setActivated(false);
+                            // Los segmentos solo sirven para los parciales: el texto final va en
+                            // una sola petición para que la traducción tenga todo el contexto
+                            resetLiveTranslator();
+                            if (!transcript.isEmpty() && !stoppingForPause) {
+                                translateText(transcript);
+                            }
+                        }
+
+                        @Override
+                        public void onError(int error) {
+                            Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
+                                    "Error de reconocimiento (" + error + ")", Toast.LENGTH_SHORT).show();
+                        }
+                    });
+        }
 
-        String key = currentSourceCode + "-" + currentTargetCode;
-        Translator translator = translatorCache.get(key);
+        resetLiveTranslator();
+        inputText.setText("Escuchando...");
+        translatedText.setText("");
+        recordButton.setActivated(true);
+        streamingRecognizer.start(getSpeechLocale(currentSourceCode));
+    }
 
-        if (translator == null) {
-            TranslatorOptions options = new TranslatorOptions.Builder()
-                    .setSourceLanguage(getMLKitLanguage(currentSourceCode))
-                    .setTargetLanguage(getMLKitLanguage(currentTargetCode))
-                    .build();
+    private IncrementalTranslator getLiveTranslator() {
+        if (liveTranslator == null) {
+            // Los idiomas quedan fijados: al cambiarlos se crea otro traductor
+            String source = currentSourceCode;
+            String target = currentTargetCode;
+            android.content.Context appContext = requireContext().getApplicationContext();
+            liveTranslator = new IncrementalTranslator(
+                    segment -> TranslationRouter.getInstance(appContext)
+                            .translate(segment, source, target)
+                            .thenApply(result -> result.getTranslatedText()),
+                    new IncrementalTranslator.Listener() {
+                        @Override
+                        public void onTranslation(String sourceText, String translated, boolean isFinal) {
+                            if (!isAdded()) return;
+                            requireActivity().runOnUiThread(() -> translatedText.setText(translated));
+                            if (isFinal) {
+                                SpeechAudioCache.getInstance(appContext).prefetch(translated, new Locale(target));
+                            }
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            Log.w(TAG, "Error en la traducción en vivo", error);
+                        }
+                    },
+                    liveScheduler, IncrementalTranslator.DEFAULT_DEBOUNCE_MS);
+        }
+        return liveTranslator;
+    }
 
-            translator = Translation.getClient(options);
-            translatorCache.put(key, translator);
+    private void resetLiveTranslator() {
+        if (liveTranslator != null) {
+            liveTranslator.reset();
+            liveTranslator = null;
         }
+    }
 
-        Translator finalTranslator = translator;
-        translator.downloadModelIfNeeded(new DownloadConditions.Builder().build())
-                .addOnSuccessListener(v -> finalTranslator.translate(text)
-                        .addOnSuccessListener(result -> {
-                            translatedText.setText(result);
+//Traduce el texto reconocido
+
+
+    private void translateText(String text) {
+        if (currentSourceCode.equals(currentTargetCode)) {
+            Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
+                    R.string.idiomas_iguales,
+                    Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        inputText.setText(text);
+        translatedText.setText("Traduciendo...");
+
+        // El router elige ML Kit (on-device) o la red según latencia y soporte del par
+        TranslationRouter.getInstance(requireContext())
+                .translate(text, currentSourceCode, currentTargetCode)
+                .whenComplete((result, error) -> {
+                    if (!isAdded()) return;
+                    requireActivity().runOnUiThread(() -> {
+                        if (error == null) {
+                            translatedText.setText(result.getTranslatedText());
+                            // Pre-sintetizar la última traducción para el botón de reproducir
+                            SpeechAudioCache.getInstance(requireContext())
+                                    .prefetch(result.getTranslatedText(), new Locale(currentTargetCode));
                             showCustomToast("Traducción completada", android.R.drawable.ic_input_add);
-                        })
-                        .addOnFailureListener(e -> {
+                        } else {
                             translatedText.setText("Error al traducir");
                             showCustomToast("Error al traducir", android.R.drawable.ic_delete);
-                        }))
-                .addOnFailureListener(e -> {
-                    translatedText.setText("Error de modelo");
-                    showCustomToast("Error de modelo", android.R.drawable.ic_dialog_alert);
+                        }
+                    });
                 });
     }
 
@@ -225,13 +354,6 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
 
 
     private void speakTranslatedText() {
-        if (!isTtsReady) {
-            Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
-                    R.string.motor_voz_no_disponible,
-                    Toast.LENGTH_SHORT).show();
-            return;
-        }
-
         String text = translatedText.getText().toString();
         if (text.isEmpty() || text.equals("La traducción aparecerá aquí...") ||
                 text.equals("Traduciendo...")) {
@@ -243,8 +365,24 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
 
         Locale locale = new Locale(currentTargetCode);
 
+        // Si ya está sintetizada suena al momento, aunque el motor no esté listo
+        speaker.stop();
+        if (cachedPlayer.play(text, locale)) {
+            return;
+        }
+
+        if (!isTtsReady) {
+            Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
+                    R.string.motor_voz_no_disponible,
+                    Toast.LENGTH_SHORT).show();
+            return;
+        }
+
         if (tts.setLanguage(locale) >= TextToSpeech.LANG_AVAILABLE) {
-            tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, null);
+            spokenText = text;
+            speaker.speak(text, locale);
+            // La próxima vez se reproducirá desde la caché
+            SpeechAudioCache.getInstance(requireContext()).prefetch(text, locale);
         } else {
             Toast.makeText(SnapLinguaApplication.getLanguageContext(requireContext()),
                     R.string.idioma_no_disponible_tts,
@@ -252,22 +390,21 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
         }
     }
 
-//Convierte código ISO a formato ML Kit
+    //Resalta la frase que se está leyendo (start < 0 quita el resaltado)
 
 
-    private String getMLKitLanguage(String isoCode) {
-        switch (isoCode) {
-            case "es": return TranslateLanguage.SPANISH;
-            case "en": return TranslateLanguage.ENGLISH;
-            case "fr": return TranslateLanguage.FRENCH;
-            case "de": return TranslateLanguage.GERMAN;
-            case "it": return TranslateLanguage.ITALIAN;
-            case "pt": return TranslateLanguage.PORTUGUESE;
-            case "zh": return TranslateLanguage.CHINESE;
-            case "ja": return TranslateLanguage.JAPANESE;
-            default: return TranslateLanguage.ENGLISH;
+    private void highlightSpokenChunk(int start, int end) {
+        if (!isAdded() || spokenText == null) return;
+        // Si la traducción ya cambió no se toca
+        if (!translatedText.getText().toString().equals(spokenText)) return;
+
+        SpannableString styled = new SpannableString(spokenText);
+        if (start >= 0 && end <= spokenText.length()) {
+            styled.setSpan(new BackgroundColorSpan(0x4400BCD4), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
         }
+        translatedText.setText(styled);
     }
+
     //Obtiene el locale para reconocimiento de voz
 
 
@@ -321,17 +458,32 @@ public class VoiceFragment extends Fragment implements TextToSpeech.OnInitListen
         }
     }
 
+    @Override
+    public void onPause() {
+        super.onPause();
+        // No seguir escuchando el micrófono en segundo plano
+        if (streamingRecognizer != null) {
+            // stop() llama a onStopped en el acto
+            stoppingForPause = true;
+            streamingRecognizer.stop();
+            stoppingForPause = false;
+        }
+    }
+
     @Override
     public void onDestroy() {
         super.onDestroy();
 
-        // Limpiar traductores
-        for (Translator t : translatorCache.values()) {
-            t.close();
+        if (streamingRecognizer != null) {
+            streamingRecognizer.destroy();
         }
-        translatorCache.clear();
+        resetLiveTranslator();
+        liveScheduler.shutdownNow();
 
         // Cerrar TTS
+        if (cachedPlayer != null) {
+            cachedPlayer.stop();
+        }
         if (tts != null) {
             tts.shutdown();
         }
@@ -1,15 +1,19 @@
 package com.example.snap.api;
 
+import android.content.Context;
 import android.util.Log;
 
+import com.example.snap.services.ApiClient;
+import com.example.snap.services.TranslationEngine;
+
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
 
 public class TranslateApiClient {
     /**
@@ -22,23 +26,44 @@ public class TranslateApiClient {
 
     private static final String TAG = "TranslateApiClient";
 
-    private static final String TRANSLATE_URL =
+    private static final String DEFAULT_TRANSLATE_URL =
             "https://TU_ENDPOINT_CLOUD/translate";
 
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
     private static TranslateApiClient instance;
 
+    private volatile String translateUrl = DEFAULT_TRANSLATE_URL;
+    private TranslationEngine engine;
+
     private TranslateApiClient() {}
 
     /**
      * Patron Singleton
      * @return
      */
-    public static synchronized TranslateApiClient getInstance() {
+    public static synchronized TranslateApiClient getInstance(Context context) {
         if (instance == null) {
             instance = new TranslateApiClient();
+            instance.engine = TranslationEngine.getInstance(context);
         }
         return instance;
     }
+
+    /**
+     * Cambia el endpoint (p. ej. el real en producción o un servidor local en pruebas)
+     */
+    public void setEndpoint(String url) {
+        this.translateUrl = url;
+    }
+
+    /**
+     * Si hay un endpoint real configurado (no el marcador por defecto)
+     */
+    public boolean isConfigured() {
+        return translateUrl != null && !translateUrl.equals(DEFAULT_TRANSLATE_URL);
+    }
+
     // MÉTODO PÚBLICO
 
     /**
@@ -54,59 +79,46 @@ public class TranslateApiClient {
             String targetLang,
             Callback callback
     ) {
+        translateAsync(text, sourceLang, targetLang).whenComplete((translatedText, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Error API", error);
+                callback.onError(TranslationEngine.describe(error));
+            } else {
+                callback.onSuccess(translatedText);
+            }
+        });
+    }
 
+    /**
+     * Realiza la traducción a través de TranslationEngine: comparte sus límites de peticiones
+     * simultáneas, su timeout y su single-flight. Cancelar el future cancela la llamada HTTP.
+     */
+    public CompletableFuture<String> translateAsync(String text, String sourceLang, String targetLang) {
         if (text == null || text.trim().isEmpty()) {
-            callback.onSuccess("");
-            return;
+            return CompletableFuture.completedFuture("");
         }
-
-        new Thread(() -> {
-            HttpURLConnection connection = null;
+        String url = translateUrl;
+        String key = "custom|" + url + "|" + sourceLang + "|" + targetLang + "|" + text;
+        return engine.execute(key, () -> {
             try {
-                URL url = new URL(TRANSLATE_URL);
-                connection = (HttpURLConnection) url.openConnection();
-
-                connection.setRequestMethod("POST");
-                connection.setConnectTimeout(8000);
-                connection.setReadTimeout(8000);
-                connection.setDoOutput(true);
-                connection.setRequestProperty("Content-Type", "application/json");
-
                 // JSON BODY
                 JSONObject body = new JSONObject();
                 body.put("q", text);
                 body.put("source", sourceLang);
                 body.put("target", targetLang);
 
-                OutputStream os = connection.getOutputStream();
-                os.write(body.toString().getBytes("UTF-8"));
-                os.close();
-
-                int responseCode = connection.getResponseCode();
-                InputStream is = responseCode >= 200 && responseCode < 300
-                        ? connection.getInputStream()
-                        : connection.getErrorStream();
-
-                BufferedReader reader = new BufferedReader(new InputStreamReader(is));
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
-
-                //Ajusta según la respuesta de tu API
-                JSONObject jsonResponse = new JSONObject(response.toString());
-                String translatedText = jsonResponse.getString("translatedText");
-
-                callback.onSuccess(translatedText);
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error API", e);
-                callback.onError(e.getMessage());
-            } finally {
-                if (connection != null) connection.disconnect();
+                Request request = new Request.Builder()
+                        .url(url)
+                        .post(RequestBody.create(body.toString(), JSON))
+                        .build();
+                return ApiClient.getHttpClient().newCall(request);
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
             }
-        }).start();
+        }, responseBody -> {
+            //Ajusta según la respuesta de tu API
+            JSONObject jsonResponse = new JSONObject(responseBody.string());
+            return jsonResponse.getString("translatedText");
+        });
     }
-}
\ No newline at end of file
+}
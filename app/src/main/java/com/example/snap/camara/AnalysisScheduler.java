@@ -0,0 +1,218 @@
+package com.example.snap.camara;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Decide cada cuánto se analiza un frame en vivo, en lugar de un retardo fijo.
+ *
+ * Mide la latencia de cada frame por etapas (OCR, traducción, dibujado) y ajusta el intervalo
+ * para que el siguiente frame empiece cuando el anterior está a punto de terminar: un móvil
+ * rápido analiza más a menudo y uno lento no acumula trabajo. Con el móvil caliente
+ * (estado térmico de PowerManager) el intervalo se multiplica.
+ *
+ * Es thread-safe: los frames empiezan en el hilo de la cámara y terminan en el principal.
+ */
+public class AnalysisScheduler {
+
+    // Límites del intervalo entre análisis
+    static final long MIN_INTERVAL_MS = 250L;
+    static final long MAX_INTERVAL_MS = 4000L;
+    // Antes de tener medidas, el valor de siempre
+    static final long INITIAL_INTERVAL_MS = 1200L;
+    // Margen sobre la latencia medida para quedar justo por debajo de la saturación
+    private static final float HEADROOM = 1.1f;
+    // Con la cámara en movimiento se analiza menos (los frames salen movidos)
+    private static final int MOVING_FACTOR = 3;
+    // Con la escena quieta solo se refresca de vez en cuando
+    static final long STATIC_REFRESH_MS = 5000L;
+    // Frames en curso a la vez (el resto se descartan)
+    private static final int MAX_IN_FLIGHT = 1;
+    // Un frame que no termina en este tiempo se da por perdido
+    private static final long FRAME_TIMEOUT_MS = 10_000L;
+    // Peso de la última medida en las medias móviles
+    private static final float ALPHA = 0.2f;
+
+    // Estados térmicos (mismos valores que PowerManager.THERMAL_STATUS_*)
+    static final int THERMAL_NONE = 0;
+    static final int THERMAL_LIGHT = 1;
+    static final int THERMAL_MODERATE = 2;
+    static final int THERMAL_SEVERE = 3;
+
+    private final LongSupplier clock;
+    private final List<Frame> active = new ArrayList<>();
+
+    private long lastStart = Long.MIN_VALUE / 2;
+    private int thermalStatus = THERMAL_NONE;
+
+    // Medias móviles por etapa (ms); negativas hasta la primera medida
+    private float ocrMs = -1;
+    private float translateMs = -1;
+    private float renderMs = -1;
+    private float totalMs = -1;
+
+    private long framesStarted;
+    private long framesCompleted;
+    private long framesTimedOut;
+
+    /**
+     * Un frame en análisis. Se marcan las etapas en orden; finish() cierra el frame.
+     */
+    public final class Frame {
+        private final long start;
+        private long ocrEnd = -1;
+        private long translateEnd = -1;
+        private boolean finished;
+
+        private Frame(long start) {
+            this.start = start;
+        }
+
+        public void ocrFinished() {
+            synchronized (AnalysisScheduler.this) {
+                if (ocrEnd < 0) ocrEnd = clock.getAsLong();
+            }
+        }
+
+        public void translationFinished() {
+            synchronized (AnalysisScheduler.this) {
+                if (ocrEnd < 0) ocrEnd = clock.getAsLong();
+                if (translateEnd < 0) translateEnd = clock.getAsLong();
+            }
+        }
+
+        /**
+         * Fin del frame (tras dibujar). Si alguna etapa no se marcó, dura cero.
+         */
+        public void finish() {
+            synchronized (AnalysisScheduler.this) {
+                if (finished) return;
+                finished = true;
+                active.remove(this);
+
+                long end = clock.getAsLong();
+                long ocr = (ocrEnd < 0 ? end : ocrEnd);
+                long translate = (translateEnd < 0 ? ocr : translateEnd);
+                record(ocr - start, translate - ocr, end - translate, end - start);
+                framesCompleted++;
+            }
+        }
+
+        /**
+         * El frame se abandona (p. ej. fallo del OCR): solo cuenta el tiempo de OCR.
+         */
+        public void abort() {
+            synchronized (AnalysisScheduler.this) {
+                if (finished) return;
+                finished = true;
+                active.remove(this);
+                ocrMs = ewma(ocrMs, clock.getAsLong() - start);
+            }
+        }
+    }
+
+    public AnalysisScheduler() {
+        // Reloj monótono: un cambio de hora no debe dar latencias negativas o enormes
+        this(SystemClock::elapsedRealtime);
+    }
+
+    AnalysisScheduler(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Si toca analizar un frame con la decisión dada por el filtro de cambios de escena.
+     * Si devuelve true hay que llamar a beginFrame().
+     */
+    public synchronized boolean isDue(FrameChangeDetector.Decision decision) {
+        long now = clock.getAsLong();
+        expireStale(now);
+        if (active.size() >= MAX_IN_FLIGHT) {
+            return false;
+        }
+
+        long elapsed = now - lastStart;
+        switch (decision) {
+            case CHANGED:
+                return elapsed >= getIntervalMs();
+            case MOVING:
+                return elapsed >= getIntervalMs() * MOVING_FACTOR;
+            default:
+                return elapsed >= Math.max(STATIC_REFRESH_MS, getIntervalMs());
+        }
+    }
+
+    public synchronized Frame beginFrame() {
+        Frame frame = new Frame(clock.getAsLong());
+        lastStart = frame.start;
+        active.add(frame);
+        framesStarted++;
+        return frame;
+    }
+
+    /**
+     * Estado térmico actual (PowerManager.THERMAL_STATUS_*).
+     */
+    public synchronized void setThermalStatus(int status) {
+        thermalStatus = status;
+    }
+
+    /**
+     * Intervalo elegido ahora mismo entre análisis (frames con escena nueva).
+     */
+    public synchronized long getIntervalMs() {
+        long base = totalMs < 0 ? INITIAL_INTERVAL_MS : (long) (totalMs * HEADROOM);
+        long interval = Math.max(MIN_INTERVAL_MS, Math.min(MAX_INTERVAL_MS, base));
+        return Math.min(MAX_INTERVAL_MS, interval * thermalFactor());
+    }
+
+    public synchronized float getOcrMs() { return ocrMs; }
+    public synchronized float getTranslateMs() { return translateMs; }
+    public synchronized float getRenderMs() { return renderMs; }
+    public synchronized float getTotalMs() { return totalMs; }
+    public synchronized int getThermalStatus() { return thermalStatus; }
+
+    public synchronized String getDiagnostics() {
+        return String.format(Locale.US,
+                "interval=%dms (%.1f fps) ocr=%.0fms translate=%.0fms render=%.0fms total=%.0fms "
+                        + "thermal=%d frames=%d/%d timed_out=%d",
+                getIntervalMs(), 1000f / getIntervalMs(), ocrMs, translateMs, renderMs, totalMs,
+                thermalStatus, framesCompleted, framesStarted, framesTimedOut);
+    }
+
+    private int thermalFactor() {
+        if (thermalStatus <= THERMAL_NONE) return 1;
+        if (thermalStatus == THERMAL_LIGHT) return 2;
+        if (thermalStatus == THERMAL_MODERATE) return 3;
+        // SEVERE o peor: lo más lento posible
+        return (int) (MAX_INTERVAL_MS / MIN_INTERVAL_MS);
+    }
+
+    private void expireStale(long now) {
+        Iterator<Frame> it = active.iterator();
+        while (it.hasNext()) {
+            Frame frame = it.next();
+            if (now - frame.start > FRAME_TIMEOUT_MS) {
+                frame.finished = true;
+                it.remove();
+                framesTimedOut++;
+            }
+        }
+    }
+
+    private void record(long ocr, long translate, long render, long total) {
+        ocrMs = ewma(ocrMs, ocr);
+        translateMs = ewma(translateMs, translate);
+        renderMs = ewma(renderMs, render);
+        totalMs = ewma(totalMs, total);
+    }
+
+    private static float ewma(float current, long sample) {
+        return current < 0 ? sample : current + ALPHA * (sample - current);
+    }
+}
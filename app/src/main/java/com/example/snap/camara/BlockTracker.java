@@ -0,0 +1,270 @@
+package com.example.snap.camara;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sigue los bloques de texto del OCR entre frames consecutivos para no re-traducirlos.
+ *
+ * Un bloque nuevo se empareja con un bloque anterior si sus recuadros se solapan (IoU) y el
+ * texto es parecido (distancia de edición normalizada). Si el texto es prácticamente el mismo
+ * se reutiliza la traducción anterior; si no, el bloque se marca para traducir.
+ *
+ * Las coordenadas van en enteros (no android.graphics.Rect) para poder probarlo en la JVM.
+ */
+public class BlockTracker {
+
+    // Solape mínimo de recuadros para considerar que es el mismo bloque
+    private static final float MIN_IOU = 0.3f;
+    // Parecido mínimo de texto para emparejar (por debajo es otro bloque)
+    private static final float MIN_MATCH_SIMILARITY = 0.6f;
+    // Parecido a partir del cual se da la traducción por buena (ruido típico del OCR)
+    private static final float REUSE_SIMILARITY = 0.9f;
+    // Frames que sobrevive un bloque que deja de verse (parpadeo del OCR)
+    private static final int MAX_MISSED_FRAMES = 1;
+
+    /** Bloque detectado en el frame actual */
+    public static final class Block {
+        final int left, top, right, bottom;
+        final String text;
+
+        public Block(int left, int top, int right, int bottom, String text) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.text = text;
+        }
+    }
+
+    /** Resultado del seguimiento para un bloque del frame actual */
+    public static final class TrackedBlock {
+        public final int index;          // posición en la lista de entrada
+        public final long trackId;
+        public final String text;
+        public final String translation; // null si hay que traducir (o está en curso)
+        public final boolean needsTranslation;
+
+        TrackedBlock(int index, long trackId, String text, String translation, boolean needsTranslation) {
+            this.index = index;
+            this.trackId = trackId;
+            this.text = text;
+            this.translation = translation;
+            this.needsTranslation = needsTranslation;
+        }
+    }
+
+    private static final class Track {
+        final long id;
+        int left, top, right, bottom;
+        String text;
+        String translation;
+        String pendingText; // texto cuya traducción ya se pidió
+        int missedFrames;
+
+        Track(long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Candidate {
+        final int blockIndex;
+        final Track track;
+        final float similarity;
+        final float score;
+
+        Candidate(int blockIndex, Track track, float similarity, float score) {
+            this.blockIndex = blockIndex;
+            this.track = track;
+            this.similarity = similarity;
+            this.score = score;
+        }
+    }
+
+    private final List<Track> tracks = new ArrayList<>();
+    private long nextId = 1;
+
+    // Contadores para medir cuánta traducción nos ahorramos
+    private long reused;
+    private long translated;
+
+    /**
+     * Empareja los bloques del frame con los anteriores.
+     * Devuelve un TrackedBlock por bloque de entrada, en el mismo orden.
+     */
+    public synchronized List<TrackedBlock> update(List<Block> blocks) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            for (Track track : tracks) {
+                float iou = iou(block, track);
+                if (iou < MIN_IOU) continue;
+                float similarity = similarity(block.text, track.text);
+                if (similarity < MIN_MATCH_SIMILARITY) continue;
+                candidates.add(new Candidate(i, track, similarity, iou + similarity));
+            }
+        }
+        // Emparejamiento voraz: primero las parejas más claras
+        Collections.sort(candidates, (a, b) -> Float.compare(b.score, a.score));
+
+        Track[] assigned = new Track[blocks.size()];
+        float[] assignedSimilarity = new float[blocks.size()];
+        List<Track> matched = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (assigned[candidate.blockIndex] != null || matched.contains(candidate.track)) continue;
+            assigned[candidate.blockIndex] = candidate.track;
+            assignedSimilarity[candidate.blockIndex] = candidate.similarity;
+            matched.add(candidate.track);
+        }
+
+        // Bloques que dejan de verse: se guardan un poco por si el OCR parpadea
+        Iterator<Track> it = tracks.iterator();
+        while (it.hasNext()) {
+            Track track = it.next();
+            if (matched.contains(track)) {
+                track.missedFrames = 0;
+            } else if (++track.missedFrames > MAX_MISSED_FRAMES) {
+                it.remove();
+            }
+        }
+
+        List<TrackedBlock> result = new ArrayList<>(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            Track track = assigned[i];
+            if (track == null) {
+                track = new Track(nextId++);
+                tracks.add(track);
+            } else if (assignedSimilarity[i] < REUSE_SIMILARITY) {
+                // Mismo sitio pero el texto ha cambiado: la traducción ya no vale
+                track.translation = null;
+                track.pendingText = null;
+            }
+            track.left = block.left;
+            track.top = block.top;
+            track.right = block.right;
+            track.bottom = block.bottom;
+            if (track.translation == null) {
+                track.text = block.text;
+            }
+
+            if (track.translation != null) {
+                reused++;
+                result.add(new TrackedBlock(i, track.id, block.text, track.translation, false));
+            } else {
+                boolean needsTranslation = track.pendingText == null
+                        || similarity(block.text, track.pendingText) < REUSE_SIMILARITY;
+                if (needsTranslation) {
+                    track.pendingText = block.text;
+                    translated++;
+                }
+                result.add(new TrackedBlock(i, track.id, block.text, null, needsTranslation));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Guarda la traducción de un bloque, si sigue existiendo y su texto no ha cambiado.
+     */
+    public synchronized void setTranslation(long trackId, String sourceText, String translation) {
+        Track track = find(trackId);
+        if (track != null && sourceText.equals(track.pendingText)) {
+            track.text = sourceText;
+            track.translation = translation;
+            track.pendingText = null;
+        }
+    }
+
+    /**
+     * La traducción falló: se volverá a pedir en el siguiente frame.
+     */
+    public synchronized void markFailed(long trackId, String sourceText) {
+        Track track = find(trackId);
+        if (track != null && sourceText.equals(track.pendingText)) {
+            track.pendingText = null;
+        }
+    }
+
+    /**
+     * Olvida todos los bloques (p. ej. al cambiar de idioma).
+     */
+    public synchronized void reset() {
+        tracks.clear();
+    }
+
+    public synchronized int getTrackCount() {
+        return tracks.size();
+    }
+
+    public synchronized long getReusedCount() {
+        return reused;
+    }
+
+    public synchronized long getTranslatedCount() {
+        return translated;
+    }
+
+    private Track find(long trackId) {
+        for (Track track : tracks) {
+            if (track.id == trackId) return track;
+        }
+        return null;
+    }
+
+    static float iou(Block block, Track track) {
+        int left = Math.max(block.left, track.left);
+        int top = Math.max(block.top, track.top);
+        int right = Math.min(block.right, track.right);
+        int bottom = Math.min(block.bottom, track.bottom);
+        if (right <= left || bottom <= top) return 0f;
+
+        long intersection = (long) (right - left) * (bottom - top);
+        long areaA = (long) (block.right - block.left) * (block.bottom - block.top);
+        long areaB = (long) (track.right - track.left) * (track.bottom - track.top);
+        long union = areaA + areaB - intersection;
+        return union <= 0 ? 0f : (float) intersection / union;
+    }
+
+    /**
+     * Parecido entre textos en [0, 1]: 1 - distancia de Levenshtein / longitud máxima,
+     * ignorando mayúsculas, signos de puntuación y espacios repetidos (ruido típico del OCR).
+     * Los dígitos sí cuentan: "10 euros" y "25 euros" no son el mismo texto.
+     */
+    static float similarity(String a, String b) {
+        String x = normalize(a);
+        String y = normalize(b);
+        if (x.equals(y)) return 1f;
+        int max = Math.max(x.length(), y.length());
+        if (max == 0) return 1f;
+        // Si las longitudes ya difieren demasiado, no merece la pena calcular la distancia
+        if (Math.abs(x.length() - y.length()) > max * (1 - MIN_MATCH_SIMILARITY)) return 0f;
+        return 1f - (float) levenshtein(x, y) / max;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return text.replaceAll("[^\\p{L}\\p{N}\\s]", "").trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[b.length()];
+    }
+}
@@ -4,10 +4,16 @@ import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
+import android.graphics.Rect;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.PowerManager;
+import android.os.SystemClock;
 import android.provider.MediaStore;
 import android.util.Log;
+import android.util.Size;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -21,6 +27,8 @@ import androidx.camera.core.ImageCapture;
 import androidx.camera.core.ImageCaptureException;
 import androidx.camera.core.ImageProxy;
 import androidx.camera.core.Preview;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.view.PreviewView;
 import androidx.core.app.ActivityCompat;
@@ -42,6 +50,9 @@ import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -60,9 +71,8 @@ public class Camara extends BaseActivity {
     private static final int GALLERY_REQUEST_CODE = 101;
     private static final int STORAGE_PERMISSION_CODE = 102;
 
-    // TIEMPO DE ESPERA (1.2 segundos) entre cada escaneo de la cámara.
-    // Esto es vital para no saturar la API ni calentar el teléfono.
-    private static final long ANALYSIS_DELAY = 1200L;
+    // Como mucho una línea de diagnóstico del análisis cada tanto (no una por frame)
+    private static final long DIAGNOSTICS_LOG_INTERVAL_MS = 5_000;
 
     // --- Elementos visuales (la pantalla) ---
     private PreviewView cameraPreview;      // Donde se ve la cámara
@@ -87,7 +97,16 @@ public class Camara extends BaseActivity {
 
     // --- Variables de control ---
     private boolean isProcessing = false;
-    private long lastAnalysisTime = 0; // Guarda la hora del último escaneo
+    // Ritmo de escaneo adaptativo: según lo que tarda cada frame y la temperatura del móvil.
+    // Esto es vital para no saturar la API ni calentar el teléfono.
+    private final AnalysisScheduler analysisScheduler = new AnalysisScheduler();
+    private PowerManager.OnThermalStatusChangedListener thermalListener;
+    private final FrameChangeDetector frameChangeDetector = new FrameChangeDetector(); // Filtro por cambio de escena
+    private LiveTranslationPipeline<LiveFrame> livePipeline;      // OCR -> traducción -> dibujado
+    private final RoiSelector roiSelector = new RoiSelector();    // Zona del frame que pasa por el OCR
+    private final YuvCropper yuvCropper = new YuvCropper();       // Recorte de esa zona para ML Kit
+    private Size analysisResolution = new Size(1280, 720);       // Resolución pedida a ImageAnalysis
+    private long lastDiagnosticsLogMs;
 
     // --- OCR y Traducción ---
     private TextRecognizer textRecognizer;   // El lector de texto de Google
@@ -95,8 +114,9 @@ public class Camara extends BaseActivity {
     private OCR_Helper ocrHelper;            // Nuestro ayudante que decide si usar ML Kit o API
 
     // --- Idiomas seleccionados ---
-    private String currentSourceCode = "es";
-    private String currentTargetCode = "en";
+    // Se leen desde el hilo de análisis (traducción en vivo)
+    private volatile String currentSourceCode = "es";
+    private volatile String currentTargetCode = "en";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -106,8 +126,10 @@ public class Camara extends BaseActivity {
         // 1. Vinculamos los elementos del diseño (XML) con el código
         initializeViews();
         setupLanguageSelector();
+        loadAnalysisSettings();
         setupButtons();
         setupNavigation();
+        setupRegionSelection();
 
         // 2. Iniciamos el hilo secundario para la cámara
         cameraExecutor = Executors.newSingleThreadExecutor();
@@ -118,6 +140,7 @@ public class Camara extends BaseActivity {
         // 4. Preparamos el ViewModel y el Helper de traducción
         viewModel = new ViewModelProvider(this).get(TranslationViewModel.class);
         ocrHelper = new OCR_Helper(viewModel);
+        livePipeline = createLivePipeline();
 
         // 5. Pedimos permiso de cámara si no lo tenemos
         checkAndRequestPermissions();
@@ -167,9 +190,66 @@ public class Camara extends BaseActivity {
         languageSelector.setOnLanguageChangeListener((srcCode, tgtCode, srcIndex, tgtIndex) -> {
             currentSourceCode = srcCode;
             currentTargetCode = tgtCode;
+            // Misma escena, otro idioma: hay que volver a analizar y traducir todo
+            frameChangeDetector.requestReset();
+            if (livePipeline != null) livePipeline.reset();
         });
     }
 
+    // Modo de región de OCR y resolución de análisis (preferencias del usuario)
+    private void loadAnalysisSettings() {
+        String currentUser = getCurrentUser();
+        if (currentUser == null) currentUser = "guest";
+
+        android.content.SharedPreferences prefs = getSharedPreferences(
+                com.example.snap.SettingsActivity.PREFS_NAME + "_" + currentUser, MODE_PRIVATE);
+
+        String mode = prefs.getString(com.example.snap.SettingsActivity.KEY_OCR_REGION_MODE, "auto");
+        switch (mode) {
+            case "center":
+                roiSelector.setMode(RoiSelector.Mode.CENTER);
+                break;
+            case "full":
+                roiSelector.setMode(RoiSelector.Mode.FULL);
+                break;
+            default:
+                roiSelector.setMode(RoiSelector.Mode.AUTO);
+                break;
+        }
+
+        // Lado largo del frame de análisis (el corto sale de 16:9)
+        int longSide = prefs.getInt(com.example.snap.SettingsActivity.KEY_ANALYSIS_RESOLUTION, 1280);
+        analysisResolution = new Size(longSide, longSide * 9 / 16);
+        roiSelector.setMaxOcrSide(longSide);
+    }
+
+    // Tocar la pantalla fija la zona de OCR alrededor del dedo; mantener pulsado la quita
+    private void setupRegionSelection() {
+        GestureDetector detector = new GestureDetector(this, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(@NonNull MotionEvent e) {
+                if (graphicOverlay.getWidth() == 0 || graphicOverlay.getHeight() == 0) return false;
+                roiSelector.setUserRegion(e.getX() / graphicOverlay.getWidth(),
+                        e.getY() / graphicOverlay.getHeight());
+                frameChangeDetector.requestReset();
+                return true;
+            }
+
+            @Override
+            public void onLongPress(@NonNull MotionEvent e) {
+                loadAnalysisSettings();
+                roiSelector.reset();
+                frameChangeDetector.requestReset();
+            }
+        });
+        graphicOverlay.setOnTouchListener((v, event) -> detector.onTouchEvent(event));
+    }
+
     private void setupButtons() {
         btnCapture.setOnClickListener(v -> capturePhoto());
         btnGallery.setOnClickListener(v -> {
@@ -190,22 +270,49 @@ public class Camara extends BaseActivity {
             bottomNavigation.setActiveScreen("camara");
             bottomNavigation.updateUserButtonState();
         }
+        registerThermalListener();
     }
 
     @Override
     protected void onPause() {
         super.onPause();
         isProcessing = false;
+        unregisterThermalListener();
         if (graphicOverlay != null) graphicOverlay.clear();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        // Limpieza de memoria al cerrar la pantalla
+        // Limpieza de memoria al cerrar la pantalla: primero la tubería (suelta el frame que
+        // esperaba y cancela las traducciones en curso), luego el hilo de análisis
+        unregisterThermalListener();
+        if (livePipeline != null) livePipeline.shutdown();
         if (cameraExecutor != null) cameraExecutor.shutdown();
         if (textRecognizer != null) textRecognizer.close();
-        if (ocrHelper != null) ocrHelper.close(); // Cerramos los traductores
+    }
+
+    // Si el móvil se calienta, el planificador espacia los análisis
+    private void registerThermalListener() {
+        PowerManager powerManager = getSystemService(PowerManager.class);
+        if (powerManager == null || thermalListener != null) return;
+        thermalListener = analysisScheduler::setThermalStatus;
+        analysisScheduler.setThermalStatus(powerManager.getCurrentThermalStatus());
+        powerManager.addThermalStatusListener(ContextCompat.getMainExecutor(this), thermalListener);
+    }
+
+    private void unregisterThermalListener() {
+        PowerManager powerManager = getSystemService(PowerManager.class);
+        if (powerManager == null || thermalListener == null) return;
+        powerManager.removeThermalStatusListener(thermalListener);
+        thermalListener = null;
+    }
+
+    /**
+     * Ritmo de análisis elegido y tiempos por etapa (para diagnóstico)
+     */
+    public String getAnalysisDiagnostics() {
+        return analysisScheduler.getDiagnostics();
     }
 
     // Configura e inicia la cámara
@@ -215,6 +322,7 @@ public class Camara extends BaseActivity {
             try {
                 cameraProvider = cameraProviderFuture.get();
                 bindCameraUseCases(); // Aquí conectamos la lógica
+                graphicOverlay.setDrawBlocks(true); // Traducción encima de cada bloque en vivo
 
                 // Mostrar botones correctos
                 btnCapture.setVisibility(View.VISIBLE);
@@ -237,8 +345,13 @@ public class Camara extends BaseActivity {
 
         imageCapture = new ImageCapture.Builder().build();
 
-        // Configuración del análisis de imagen (para el OCR)
+        // Configuración del análisis de imagen (para el OCR). Una resolución moderada basta
+        // para leer carteles y abarata mucho el OCR frente a la resolución máxima
         imageAnalysis = new ImageAnalysis.Builder()
+                .setResolutionSelector(new ResolutionSelector.Builder()
+                        .setResolutionStrategy(new ResolutionStrategy(analysisResolution,
+                                ResolutionStrategy.FALLBACK_RULE_CLOSEST_LOWER_THEN_HIGHER))
+                        .build())
                 .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST) // Si va lento, descarta frames viejos
                 .build();
 
@@ -261,87 +374,164 @@ public class Camara extends BaseActivity {
 
     @androidx.camera.core.ExperimentalGetImage
     private void processImageProxy(ImageProxy imageProxy) {
-        long currentTime = System.currentTimeMillis();
+        if (imageProxy.getImage() == null) {
+            imageProxy.close();
+            return;
+        }
+
+        // 1. FRENO DE MANO: comparamos la luminancia con el último frame analizado.
+        // Si la escena no ha cambiado no gastamos OCR; si ha cambiado y está quieta, vamos
+        // en cuanto el planificador lo permita (según lo que tardaron los frames anteriores).
+        ImageProxy.PlaneProxy yPlane = imageProxy.getPlanes()[0];
+        FrameChangeDetector.Decision decision = frameChangeDetector.evaluate(
+                yPlane.getBuffer(), imageProxy.getWidth(), imageProxy.getHeight(),
+                yPlane.getRowStride(), yPlane.getPixelStride());
 
-        // 1. FRENO DE MANO: Si pasó menos tiempo del configurado (1.2s), no hacemos nada.
-        // Esto evita que la app se vuelva loca enviando peticiones a la API.
-        if (currentTime - lastAnalysisTime < ANALYSIS_DELAY) {
+        if (!analysisScheduler.isDue(decision)) {
             imageProxy.close(); // Importante cerrar para liberar la cámara
             return;
         }
-        lastAnalysisTime = currentTime;
+        AnalysisScheduler.Frame frame = analysisScheduler.beginFrame();
+        frameChangeDetector.markAnalyzed();
+
+        // Preparamos la región de interés y mandamos el frame a la tubería OCR -> traducción -> dibujado.
+        // La tubería cierra el ImageProxy en cuanto el OCR termina (o si descarta el frame).
+        int rotation = imageProxy.getImageInfo().getRotationDegrees();
+        boolean needRotation = rotation == 90 || rotation == 270;
+        int width = needRotation ? imageProxy.getHeight() : imageProxy.getWidth();
+        int height = needRotation ? imageProxy.getWidth() : imageProxy.getHeight();
+        RoiSelector.Region region = roiSelector.select(width, height);
+
+        livePipeline.submit(new LiveFrame(imageProxy, rotation, width, height, region), frame);
+    }
+
+    // Un frame en vivo con su región de OCR
+    private static final class LiveFrame {
+        final ImageProxy imageProxy;
+        final int rotation;
+        final int width;
+        final int height;
+        final RoiSelector.Region region;
+
+        LiveFrame(ImageProxy imageProxy, int rotation, int width, int height, RoiSelector.Region region) {
+            this.imageProxy = imageProxy;
+            this.rotation = rotation;
+            this.width = width;
+            this.height = height;
+            this.region = region;
+        }
+    }
 
+    private LiveTranslationPipeline<LiveFrame> createLivePipeline() {
+        return new LiveTranslationPipeline<>(
+                this::recognizeLiveFrame,
+                createLiveTranslator(),
+                this::renderLiveFrame,
+                ContextCompat.getMainExecutor(this),
+                cameraExecutor, // Tras el OCR se sigue en el hilo de análisis, no en el de UI
+                frame -> frame.imageProxy.close(), // MUY IMPORTANTE: liberar la cámara
+                new BlockTracker(), // Reutiliza traducciones entre frames
+                2);
+    }
+
+    // Etapa 1: OCR sobre la región de interés, recortada y reducida
+    @androidx.annotation.OptIn(markerClass = androidx.camera.core.ExperimentalGetImage.class)
+    private CompletableFuture<LiveTranslationPipeline.OcrResult> recognizeLiveFrame(LiveFrame frame) {
+        CompletableFuture<LiveTranslationPipeline.OcrResult> future = new CompletableFuture<>();
+        ImageProxy imageProxy = frame.imageProxy;
         if (imageProxy.getImage() == null) {
-            imageProxy.close();
-            return;
+            future.completeExceptionally(new IllegalStateException("Frame sin imagen"));
+            return future;
         }
 
-        // Preparamos la imagen para ML Kit
-        InputImage image = InputImage.fromMediaImage(imageProxy.getImage(),
-                imageProxy.getImageInfo().getRotationDegrees());
+        InputImage image;
+        if (frame.region.isIdentity()) {
+            image = InputImage.fromMediaImage(imageProxy.getImage(), frame.rotation);
+        } else {
+            ImageProxy.PlaneProxy[] planes = imageProxy.getPlanes();
+            byte[] nv21 = yuvCropper.crop(frame.region, frame.rotation, imageProxy.getWidth(), imageProxy.getHeight(),
+                    planes[0].getBuffer(), planes[0].getRowStride(), planes[0].getPixelStride(),
+                    planes[1].getBuffer(), planes[2].getBuffer(),
+                    planes[1].getRowStride(), planes[1].getPixelStride());
+            image = InputImage.fromByteArray(nv21, yuvCropper.getOutputWidth(), yuvCropper.getOutputHeight(),
+                    frame.rotation, InputImage.IMAGE_FORMAT_NV21);
+        }
 
-        // 2. Buscamos texto en la imagen (OCR)
         textRecognizer.process(image)
                 .addOnSuccessListener(visionText -> {
-                    // Volvemos al hilo principal para dibujar en pantalla
-                    runOnUiThread(() -> {
-                        graphicOverlay.clear(); // Borrar dibujos anteriores
-
-                        // Calculamos si la imagen está rotada para dibujar bien los cuadros
-                        boolean needRotation = imageProxy.getImageInfo().getRotationDegrees() == 90
-                                || imageProxy.getImageInfo().getRotationDegrees() == 270;
-                        int width = needRotation ? imageProxy.getHeight() : imageProxy.getWidth();
-                        int height = needRotation ? imageProxy.getWidth() : imageProxy.getHeight();
-                        graphicOverlay.setImageSourceInfo(width, height, false);
-                    });
-
-                    StringBuilder fullText = new StringBuilder();
-
-                    // 3. Recorremos cada bloque de texto encontrado
-                    for (Text.TextBlock block : visionText.getTextBlocks()) {
-                        String originalText = block.getText();
-
-                        // 4. Mandamos a traducir (OCR_Helper decide si usa API o ML Kit)
-                        ocrHelper.translateText(
-                                originalText,
-                                currentSourceCode,
-                                currentTargetCode,
-                                getCurrentUser(),
-                                new OCR_Helper.TranslationCallback() {
-                                    @Override
-                                    public void onSuccess(String translated) {
-                                        runOnUiThread(() -> {
-                                            // Si funciona: Dibujamos el texto traducido
-                                            if (graphicOverlay != null) {
-                                                graphicOverlay.add(block, translated);
-                                                fullText.append(translated).append("\n");
-                                                tvTranslatedResult.setText(fullText.toString());
-                                                tvTranslatedResult.setVisibility(View.VISIBLE);
-                                            }
-                                        });
-                                    }
-
-                                    @Override
-                                    public void onFailure(Exception e) {
-                                        // Si falla: Dibujamos el texto original (para no dejar vacío)
-                                        runOnUiThread(() -> {
-                                            if (graphicOverlay != null) {
-                                                graphicOverlay.add(block, originalText);
-                                                fullText.append(originalText).append("\n");
-                                                tvTranslatedResult.setText(fullText.toString());
-                                                tvTranslatedResult.setVisibility(View.VISIBLE);
-                                            }
-                                        });
-                                    }
-                                }
-                        );
-                    }
+                    List<BlockTracker.Block> blocks = toFrameBlocks(visionText.getTextBlocks(), frame.region);
+                    roiSelector.onFrameResult(blocks);
+                    future.complete(new LiveTranslationPipeline.OcrResult(blocks, frame.width, frame.height));
                 })
-                .addOnFailureListener(e -> Log.e(TAG, "Error OCR: " + e.getMessage()))
-                .addOnCompleteListener(task -> {
-                    // 5. MUY IMPORTANTE: Cerramos la imagen para que la cámara pueda enviar la siguiente.
-                    imageProxy.close();
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error OCR: " + e.getMessage());
+                    future.completeExceptionally(e);
                 });
+        return future;
+    }
+
+    // Etapa 2: traducir los bloques nuevos. Corre en el hilo de análisis: solo futures, sin
+    // LiveData (ver LiveBlockTranslator). Lo visto en vivo no va al historial, vaya por el
+    // proveedor que vaya; solo se guarda la foto fija
+    private LiveBlockTranslator createLiveTranslator() {
+        return new LiveBlockTranslator(new LiveBlockTranslator.Backend() {
+            @Override
+            public boolean prefersOnDevice(String sourceLang, String targetLang) {
+                return viewModel.prefersOnDevice(sourceLang, targetLang);
+            }
+
+            @Override
+            public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+                return viewModel.translateCameraBlockAsync(text, sourceLang, targetLang);
+            }
+
+            @Override
+            public List<CompletableFuture<String>> translateBatch(List<String> texts, String sourceLang,
+                                                                  String targetLang) {
+                return viewModel.translateBatchAsync(texts, sourceLang, targetLang);
+            }
+        }, () -> currentSourceCode, () -> currentTargetCode);
+    }
+
+    // Etapa 3: una sola actualización de la UI por frame (ya en el hilo principal)
+    private void renderLiveFrame(LiveTranslationPipeline.FrameResult result) {
+        if (graphicOverlay == null || isFinishing()) return;
+
+        // Los recuadros ya vienen en coordenadas del frame completo (rotado)
+        graphicOverlay.setImageSourceInfo(result.imageWidth, result.imageHeight, false);
+        // Sustituye los dibujos anteriores de una sola vez
+        List<GraphicOverlay.Item> items = new ArrayList<>(result.blocks.size());
+        for (LiveTranslationPipeline.RenderedBlock rendered : result.blocks) {
+            BlockTracker.Block block = rendered.block;
+            items.add(new GraphicOverlay.Item(new Rect(block.left, block.top, block.right, block.bottom),
+                    rendered.getOriginalText(), rendered.text));
+        }
+        graphicOverlay.setItems(items);
+
+        if (!result.fullText.isEmpty()) {
+            tvTranslatedResult.setText(result.fullText);
+            tvTranslatedResult.setVisibility(View.VISIBLE);
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastDiagnosticsLogMs >= DIAGNOSTICS_LOG_INTERVAL_MS) {
+            lastDiagnosticsLogMs = now;
+            Log.d(TAG, "Análisis: " + analysisScheduler.getDiagnostics());
+        }
+    }
+
+    // Pasa los bloques del OCR (coordenadas del recorte) a coordenadas del frame completo
+    private static List<BlockTracker.Block> toFrameBlocks(List<Text.TextBlock> blocks, RoiSelector.Region region) {
+        List<BlockTracker.Block> result = new ArrayList<>(blocks.size());
+        for (Text.TextBlock block : blocks) {
+            Rect box = block.getBoundingBox();
+            if (box == null) {
+                result.add(new BlockTracker.Block(0, 0, 0, 0, block.getText()));
+            } else {
+                result.add(new BlockTracker.Block(region.mapX(box.left), region.mapY(box.top),
+                        region.mapX(box.right), region.mapY(box.bottom), block.getText()));
+            }
+        }
+        return result;
     }
 
     // Procesamiento para fotos de la galería o capturas (imagen estática)
@@ -359,45 +549,47 @@ public class Camara extends BaseActivity {
                         return;
                     }
 
-                    for (Text.TextBlock block : visionText.getTextBlocks()) {
-                        String originalText = block.getText();
-
-                        // Llamada al traductor
-                        ocrHelper.translateText(
-                                originalText,
-                                currentSourceCode,
-                                currentTargetCode,
-                                getCurrentUser(),
-                                new OCR_Helper.TranslationCallback() {
-                                    @Override
-                                    public void onSuccess(String translatedText) {
-                                        runOnUiThread(() -> {
-                                            graphicOverlay.add(block, translatedText);
-                                            fullText.append(translatedText).append("\n");
-
-                                            if (fullText.length() > 0) {
-                                                tvTranslatedResult.setVisibility(View.VISIBLE);
-                                                tvTranslatedResult.setText(fullText.toString().trim());
-                                            }
-                                        });
-                                    }
-
-                                    @Override
-                                    public void onFailure(Exception e) {
-                                        // Si falla, mostramos original
-                                        runOnUiThread(() -> {
-                                            graphicOverlay.add(block, originalText);
-                                            fullText.append(originalText).append("\n");
-
-                                            if (fullText.length() > 0) {
-                                                tvTranslatedResult.setVisibility(View.VISIBLE);
-                                                tvTranslatedResult.setText(fullText.toString().trim());
-                                            }
-                                        });
-                                    }
-                                }
-                        );
+                    List<Text.TextBlock> blocks = visionText.getTextBlocks();
+                    List<String> originals = new ArrayList<>();
+                    for (Text.TextBlock block : blocks) {
+                        originals.add(block.getText());
                     }
+
+                    // Llamada al traductor (un solo lote para toda la imagen)
+                    ocrHelper.translateBatch(
+                            originals,
+                            currentSourceCode,
+                            currentTargetCode,
+                            getCurrentUser(),
+                            new OCR_Helper.BatchTranslationCallback() {
+                                @Override
+                                public void onBlockTranslated(int index, String translatedText) {
+                                    runOnUiThread(() -> {
+                                        graphicOverlay.add(blocks.get(index), translatedText);
+                                        fullText.append(translatedText).append("\n");
+
+                                        if (fullText.length() > 0) {
+                                            tvTranslatedResult.setVisibility(View.VISIBLE);
+                                            tvTranslatedResult.setText(fullText.toString().trim());
+                                        }
+                                    });
+                                }
+
+                                @Override
+                                public void onBlockFailed(int index, Exception e) {
+                                    // Si falla, mostramos original
+                                    runOnUiThread(() -> {
+                                        graphicOverlay.add(blocks.get(index), originals.get(index));
+                                        fullText.append(originals.get(index)).append("\n");
+
+                                        if (fullText.length() > 0) {
+                                            tvTranslatedResult.setVisibility(View.VISIBLE);
+                                            tvTranslatedResult.setText(fullText.toString().trim());
+                                        }
+                                    });
+                                }
+                            }
+                    );
                 })
                 .addOnFailureListener(e ->
                         Toast.makeText(this, "Error OCR", Toast.LENGTH_SHORT).show()
@@ -432,6 +624,7 @@ public class Camara extends BaseActivity {
         try {
             Bitmap bitmap = MediaStore.Images.Media.getBitmap(getContentResolver(), imageUri);
             cameraProvider.unbindAll(); // Detenemos la cámara en vivo
+            graphicOverlay.setDrawBlocks(false); // Con la foto, solo la traducción de abajo
 
             cameraPreview.setVisibility(View.GONE);
             imagePreview.setVisibility(View.VISIBLE);
@@ -464,6 +657,9 @@ public class Camara extends BaseActivity {
         btnCapture.setVisibility(View.VISIBLE);
         btnGallery.setVisibility(View.VISIBLE);
         btnRefresh.setVisibility(View.GONE);
+        frameChangeDetector.requestReset();
+        roiSelector.reset();
+        livePipeline.reset();
         startCamera();
     }
 
@@ -0,0 +1,164 @@
+package com.example.snap.camara;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Filtro previo barato para el análisis en vivo: decide si la escena ha cambiado lo bastante
+ * como para merecer un OCR completo.
+ *
+ * Reduce el plano Y (luminancia) del frame a una rejilla de GRID x GRID medias por celda
+ * (muestreando unos pocos píxeles por celda) y compara rejillas por diferencia absoluta media.
+ * A cada rejilla se le resta su media global, así que un cambio de exposición automática
+ * no cuenta como cambio de escena.
+ *
+ * No reserva memoria por frame. Pensado para usarse desde un único hilo (el del analizador),
+ * salvo requestReset(), que se puede llamar desde cualquier hilo.
+ */
+public class FrameChangeDetector {
+
+    public enum Decision {
+        /** Igual que el último frame analizado: no hace falta OCR */
+        UNCHANGED,
+        /** La cámara se está moviendo: mejor esperar a que se estabilice */
+        MOVING,
+        /** Escena nueva y estable: lanzar OCR ya */
+        CHANGED
+    }
+
+    static final int GRID = 16;
+    private static final int SAMPLES_PER_AXIS = 4;
+
+    // Umbrales en niveles de luminancia (0-255) de diferencia media por celda
+    private static final float DEFAULT_CHANGE_THRESHOLD = 10f;
+    private static final float DEFAULT_MOTION_THRESHOLD = 6f;
+
+    private final float changeThreshold;
+    private final float motionThreshold;
+
+    private int[] current = new int[GRID * GRID];
+    private int[] previous = new int[GRID * GRID];
+    private final int[] reference = new int[GRID * GRID];
+    private boolean hasPrevious;
+    private boolean hasReference;
+    private volatile boolean resetRequested;
+
+    // Última diferencia medida, útil para depurar los umbrales
+    private float lastSceneDiff;
+    private float lastMotionDiff;
+
+    public FrameChangeDetector() {
+        this(DEFAULT_CHANGE_THRESHOLD, DEFAULT_MOTION_THRESHOLD);
+    }
+
+    public FrameChangeDetector(float changeThreshold, float motionThreshold) {
+        this.changeThreshold = changeThreshold;
+        this.motionThreshold = motionThreshold;
+    }
+
+    /**
+     * Evalúa un frame a partir de su plano Y.
+     * @param yBuffer buffer del plano Y (no se modifica su posición)
+     * @param rowStride bytes por fila del plano
+     * @param pixelStride bytes entre píxeles consecutivos de una fila
+     */
+    public Decision evaluate(ByteBuffer yBuffer, int width, int height, int rowStride, int pixelStride) {
+        if (resetRequested) {
+            resetRequested = false;
+            hasPrevious = false;
+            hasReference = false;
+        }
+
+        computeSignature(yBuffer, width, height, rowStride, pixelStride, current);
+
+        lastMotionDiff = hasPrevious ? meanAbsDiff(current, previous) : Float.MAX_VALUE;
+        lastSceneDiff = hasReference ? meanAbsDiff(current, reference) : Float.MAX_VALUE;
+
+        // Intercambiar buffers en lugar de copiar
+        int[] tmp = previous;
+        previous = current;
+        current = tmp;
+        hasPrevious = true;
+
+        if (lastSceneDiff < changeThreshold) {
+            return Decision.UNCHANGED;
+        }
+        if (lastMotionDiff >= motionThreshold && hasReference) {
+            return Decision.MOVING;
+        }
+        return Decision.CHANGED;
+    }
+
+    /**
+     * Marca el último frame evaluado como el analizado: los siguientes se comparan con él.
+     */
+    public void markAnalyzed() {
+        if (!hasPrevious) return;
+        System.arraycopy(previous, 0, reference, 0, reference.length);
+        hasReference = true;
+    }
+
+    /**
+     * Olvida la referencia (p. ej. al cambiar de idioma) para que el próximo frame se analice.
+     */
+    public void requestReset() {
+        resetRequested = true;
+    }
+
+    public float getLastSceneDiff() {
+        return lastSceneDiff;
+    }
+
+    public float getLastMotionDiff() {
+        return lastMotionDiff;
+    }
+
+    static void computeSignature(ByteBuffer y, int width, int height, int rowStride, int pixelStride,
+                                 int[] out) {
+        int cellWidth = Math.max(1, width / GRID);
+        int cellHeight = Math.max(1, height / GRID);
+        int stepX = Math.max(1, cellWidth / SAMPLES_PER_AXIS);
+        int stepY = Math.max(1, cellHeight / SAMPLES_PER_AXIS);
+        int limit = y.limit();
+
+        for (int gy = 0; gy < GRID; gy++) {
+            int top = Math.min(gy * cellHeight, height - 1);
+            for (int gx = 0; gx < GRID; gx++) {
+                int left = Math.min(gx * cellWidth, width - 1);
+                int sum = 0;
+                int count = 0;
+                for (int sy = 0; sy < SAMPLES_PER_AXIS; sy++) {
+                    int row = Math.min(top + stepY / 2 + sy * stepY, height - 1);
+                    int rowOffset = row * rowStride;
+                    for (int sx = 0; sx < SAMPLES_PER_AXIS; sx++) {
+                        int col = Math.min(left + stepX / 2 + sx * stepX, width - 1);
+                        int index = rowOffset + col * pixelStride;
+                        if (index < limit) {
+                            sum += y.get(index) & 0xFF;
+                            count++;
+                        }
+                    }
+                }
+                out[gy * GRID + gx] = count == 0 ? 0 : sum / count;
+            }
+        }
+    }
+
+    /**
+     * Diferencia absoluta media entre dos rejillas, descontando la diferencia de brillo global.
+     */
+    static float meanAbsDiff(int[] a, int[] b) {
+        long sumA = 0;
+        long sumB = 0;
+        for (int i = 0; i < a.length; i++) {
+            sumA += a[i];
+            sumB += b[i];
+        }
+        int offset = (int) ((sumA - sumB) / a.length);
+
+        long sad = 0;
+        for (int i = 0; i < a.length; i++) {
+            sad += Math.abs(a[i] - b[i] - offset);
+        }
+        return (float) sad / a.length;
+    }
+}
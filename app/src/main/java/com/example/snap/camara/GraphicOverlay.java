@@ -6,34 +6,112 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.text.StaticLayout;
 import android.util.AttributeSet;
 import android.view.View;
 
 import com.google.mlkit.vision.text.Text;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Capa transparente sobre la cámara donde se dibujan los recuadros y sus traducciones.
+ *
+ * - Los Paint son compartidos por todos los bloques.
+ * - La geometría escalada de cada bloque se calcula una vez por escala (al cambiar el tamaño
+ *   de la vista o de la imagen), no en cada onDraw.
+ * - El texto se ajusta al recuadro (tamaño de letra y saltos de línea) con LabelLayoutCache.
+ * - La lista de bloques es una instantánea inmutable que se sustituye entera (copy-on-write):
+ *   onDraw la lee sin bloquear a quien añade bloques desde otro hilo.
+ *
+ * Con todo esto, dibujar un frame no reserva memoria.
+ */
 public class GraphicOverlay extends View {
-    private final Object lock = new Object();
-    private final List<TextBlockGraphic> graphics = new ArrayList<>();
 
-    // Configuración de la cámara/imagen para escalar coordenadas
-    private int imageWidth;
-    private int imageHeight;
-    private float widthScaleFactor = 1.0f;
-    private float heightScaleFactor = 1.0f;
+    /** Un bloque a dibujar, con el recuadro en coordenadas de la imagen completa */
+    public static final class Item {
+        final Rect boundingBox;
+        final String originalText;
+        final String translatedText;
+
+        public Item(Rect boundingBox, String originalText, String translatedText) {
+            this.boundingBox = boundingBox;
+            this.originalText = originalText;
+            this.translatedText = translatedText;
+        }
+    }
+
+    // Instantánea de lo que hay que dibujar; se sustituye entera, nunca se modifica
+    private static final class Snapshot {
+        final TextBlockGraphic[] graphics;
+        final int imageWidth;
+        final int imageHeight;
+
+        Snapshot(TextBlockGraphic[] graphics, int imageWidth, int imageHeight) {
+            this.graphics = graphics;
+            this.imageWidth = imageWidth;
+            this.imageHeight = imageHeight;
+        }
+    }
+
+    private static final TextBlockGraphic[] NO_GRAPHICS = new TextBlockGraphic[0];
+
+    // Solo serializa a los que escriben; onDraw lee la instantánea sin bloquear
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(NO_GRAPHICS, 0, 0);
+
+    // Si se dibujan los recuadros. La cámara los activa en vivo; con una foto estática solo se
+    // muestra la traducción completa abajo (la foto no ocupa la vista con la misma escala)
+    private volatile boolean drawBlocks = false;
+
+    // Estilos compartidos por todos los bloques
+    private final Paint rectPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textBackgroundPaint = new Paint();
+
+    // Margen interior de la etiqueta y límites del tamaño de letra ajustado
+    private static final float LABEL_PADDING = 6f;
+    private static final float MIN_TEXT_SIZE = 16f;
+    private static final float MAX_TEXT_SIZE = 40f;
+    // Maquetaciones ajustadas por (texto, tamaño de recuadro); solo se usa desde onDraw
+    private final LabelLayoutCache labelLayouts;
 
     public GraphicOverlay(Context context, AttributeSet attrs) {
         super(context, attrs);
+
+        //estilo del borde del recuadro
+        rectPaint.setColor(Color.CYAN);
+        rectPaint.setStyle(Paint.Style.STROKE);
+        rectPaint.setStrokeWidth(4.0f);
+
+        //estilo del texto
+        textPaint.setColor(Color.BLACK);
+        textPaint.setTextSize(MAX_TEXT_SIZE);
+        textPaint.setFakeBoldText(true);
+        labelLayouts = new LabelLayoutCache(textPaint, MIN_TEXT_SIZE, MAX_TEXT_SIZE);
+
+        // Estilo del fondo del texto (para que se lea bien)
+        textBackgroundPaint.setColor(Color.WHITE);
+        textBackgroundPaint.setStyle(Paint.Style.FILL);
+        textBackgroundPaint.setAlpha(200);
+    }
+
+    /**
+     * Activa o desactiva el dibujo de los recuadros
+     */
+    public void setDrawBlocks(boolean drawBlocks) {
+        this.drawBlocks = drawBlocks;
+        postInvalidate();
     }
 
     /**
      * Limpia todos los dibujos del overlay
      */
     public void clear() {
-        synchronized (lock) {
-            graphics.clear();
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(NO_GRAPHICS, current.imageWidth, current.imageHeight);
         }
         postInvalidate();
     }
@@ -42,8 +120,35 @@ public class GraphicOverlay extends View {
      * Agrega un bloque de texto para dibujar
      */
     public void add(Text.TextBlock textBlock, String translatedText) {
-        synchronized (lock) {
-            graphics.add(new TextBlockGraphic(textBlock, translatedText));
+        add(textBlock.getBoundingBox(), textBlock.getText(), translatedText);
+    }
+
+    /**
+     * Agrega un bloque con su recuadro ya en coordenadas de la imagen completa
+     * (p. ej. cuando el OCR se hizo sobre un recorte)
+     */
+    public void add(Rect boundingBox, String originalText, String translatedText) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            TextBlockGraphic[] graphics = Arrays.copyOf(current.graphics, current.graphics.length + 1);
+            graphics[graphics.length - 1] = new TextBlockGraphic(boundingBox, originalText, translatedText);
+            snapshot = new Snapshot(graphics, current.imageWidth, current.imageHeight);
+        }
+        postInvalidate();
+    }
+
+    /**
+     * Sustituye todos los bloques de una vez (un frame completo = una sola instantánea)
+     */
+    public void setItems(List<Item> items) {
+        TextBlockGraphic[] graphics = new TextBlockGraphic[items.size()];
+        for (int i = 0; i < graphics.length; i++) {
+            Item item = items.get(i);
+            graphics[i] = new TextBlockGraphic(item.boundingBox, item.originalText, item.translatedText);
+        }
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(graphics, current.imageWidth, current.imageHeight);
         }
         postInvalidate();
     }
@@ -52,100 +157,112 @@ public class GraphicOverlay extends View {
      * Establece las dimensiones de la imagen fuente para calcular la escala
      */
     public void setImageSourceInfo(int width, int height, boolean isFlipped) {
-        synchronized (lock) {
-            this.imageWidth = width;
-            this.imageHeight = height;
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current.imageWidth == width && current.imageHeight == height) return;
+            snapshot = new Snapshot(current.graphics, width, height);
         }
         postInvalidate();
     }
 
+    public int getGraphicCount() {
+        return snapshot.graphics.length;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // Fuera de pantalla las maquetaciones ya no sirven: liberar la caché
+        labelLayouts.clear();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (!drawBlocks) return;
 
-        synchronized (lock) {
-            // Calcular factor de escala basado en el tamaño actual de la vista
-            if (imageWidth != 0 && imageHeight != 0) {
-                widthScaleFactor = (float) getWidth() / imageWidth;
-                heightScaleFactor = (float) getHeight() / imageHeight;
-            }
+        Snapshot current = snapshot;
+        // Calcular factor de escala basado en el tamaño actual de la vista
+        float widthScaleFactor = 1.0f;
+        float heightScaleFactor = 1.0f;
+        if (current.imageWidth != 0 && current.imageHeight != 0) {
+            widthScaleFactor = (float) getWidth() / current.imageWidth;
+            heightScaleFactor = (float) getHeight() / current.imageHeight;
+        }
 
-            /*for (TextBlockGraphic graphic : graphics) {
-                graphic.draw(canvas);
-            }*/
+        for (TextBlockGraphic graphic : current.graphics) {
+            graphic.layout(widthScaleFactor, heightScaleFactor);
+            graphic.draw(canvas);
         }
     }
 
     /**
-     * Clase interna para definir cómo dibujar cada bloque de texto
+     * Clase interna para definir cómo dibujar cada bloque de texto.
+     * La geometría escalada se guarda y solo se recalcula si cambia la escala;
+     * solo se toca desde onDraw (hilo principal).
      */
     private class TextBlockGraphic {
-        private final Text.TextBlock textBlock;
-        private final String translatedText;
-        private final Paint rectPaint;
-        private final Paint textPaint;
-        private final Paint textBackgroundPaint;
-
-        TextBlockGraphic(Text.TextBlock textBlock, String translatedText) {
-            this.textBlock = textBlock;
-            this.translatedText = translatedText;
+        private final Rect boundingBox;
+        private final String textToShow;
+
+        // Geometría precalculada para la última escala
+        private final RectF scaledRect = new RectF();
+        private final RectF backgroundRect = new RectF();
+        private StaticLayout label;
+        private float textX;
+        private float textY;
+        private float layoutWidthScale = Float.NaN;
+        private float layoutHeightScale = Float.NaN;
 
-            //estilo del borde del recuadro
-            rectPaint = new Paint();
-            rectPaint.setColor(Color.CYAN);
-            rectPaint.setStyle(Paint.Style.STROKE);
-            rectPaint.setStrokeWidth(4.0f);
-
-            //estilo del texto
-            textPaint = new Paint();
-            textPaint.setColor(Color.BLACK);
-            textPaint.setTextSize(40.0f);
-            textPaint.setFakeBoldText(true);
-
-            // Estilo del fondo del texto (para que se lea bien)
-            textBackgroundPaint = new Paint();
-            textBackgroundPaint.setColor(Color.WHITE);
-            textBackgroundPaint.setStyle(Paint.Style.FILL);
-            textBackgroundPaint.setAlpha(200);
+        TextBlockGraphic(Rect boundingBox, String originalText, String translatedText) {
+            this.boundingBox = boundingBox;
+            //si el texto a mostrar es el traducido o el original
+            this.textToShow = translatedText != null ? translatedText
+                    : (originalText != null ? originalText : "");
         }
 
-        void draw(Canvas canvas) {
-            if (textBlock.getBoundingBox() == null) return;
+        void layout(float widthScale, float heightScale) {
+            if (boundingBox == null) return;
+            if (widthScale == layoutWidthScale && heightScale == layoutHeightScale) return;
+            layoutWidthScale = widthScale;
+            layoutHeightScale = heightScale;
 
             // Obtener rectángulo original y escalarlo
-            Rect rect = textBlock.getBoundingBox();
-            RectF scaledRect = new RectF(
-                    rect.left * widthScaleFactor,
-                    rect.top * heightScaleFactor,
-                    rect.right * widthScaleFactor,
-                    rect.bottom * heightScaleFactor
+            scaledRect.set(
+                    boundingBox.left * widthScale,
+                    boundingBox.top * heightScale,
+                    boundingBox.right * widthScale,
+                    boundingBox.bottom * heightScale
             );
 
-            //dibujar el recuadro alrededor del texto detectado
-            canvas.drawRect(scaledRect, rectPaint);
-
-            //dibujar fondo para el texto traducido
-            float x = scaledRect.left;
-            float y = scaledRect.bottom; // Dibujar debajo del recuadro
+            // Etiqueta encima del texto original, ajustada al recuadro (caché por texto y tamaño)
+            int innerWidth = (int) (scaledRect.width() - 2 * LABEL_PADDING);
+            int innerHeight = (int) (scaledRect.height() - 2 * LABEL_PADDING);
+            label = labelLayouts.get(textToShow, innerWidth, innerHeight);
 
-            //si el texto a mostrar es el traducido o el original
-            String textToShow = translatedText != null ? translatedText : textBlock.getText();
-
-            //ajustar fondo del texto
-            Rect textBounds = new Rect();
-            textPaint.getTextBounds(textToShow, 0, textToShow.length(), textBounds);
-            // Dar un poco de margen al fondo
-            RectF backgroundRect = new RectF(
-                    x,
-                    y,
-                    x + textBounds.width() + 20,
-                    y + textBounds.height() + 20
+            // Si ni con la letra mínima cabe, el fondo crece hacia abajo
+            textX = scaledRect.left + LABEL_PADDING;
+            textY = scaledRect.top + LABEL_PADDING;
+            backgroundRect.set(
+                    scaledRect.left,
+                    scaledRect.top,
+                    Math.max(scaledRect.right, textX + label.getWidth() + LABEL_PADDING),
+                    Math.max(scaledRect.bottom, textY + label.getHeight() + LABEL_PADDING)
             );
+        }
 
+        void draw(Canvas canvas) {
+            if (boundingBox == null || label == null) return;
+
+            //dibujar fondo y recuadro alrededor del texto detectado
             canvas.drawRect(backgroundRect, textBackgroundPaint);
+            canvas.drawRect(scaledRect, rectPaint);
 
-            //dibujar el texto
-            canvas.drawText(textToShow, x + 10, y + textBounds.height() + 5, textPaint);
+            //dibujar el texto ya maquetado
+            canvas.save();
+            canvas.translate(textX, textY);
+            label.draw(canvas);
+            canvas.restore();
         }
     }
-}
\ No newline at end of file
+}
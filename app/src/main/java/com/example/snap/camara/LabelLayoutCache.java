@@ -0,0 +1,114 @@
+package com.example.snap.camara;
+
+import android.graphics.Paint;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+/**
+ * Caché de maquetación de las etiquetas del overlay.
+ *
+ * Para cada (texto, tamaño de recuadro) calcula una vez el tamaño de letra que cabe en el
+ * recuadro y los saltos de línea (StaticLayout), y lo reutiliza en los frames siguientes hasta
+ * que cambie el texto o la geometría. Así las traducciones largas no se salen del recuadro y no
+ * se mide texto en cada frame.
+ *
+ * Pensada para usarse solo desde el hilo principal (onDraw).
+ */
+class LabelLayoutCache {
+
+    private static final int MAX_ENTRIES = 128;
+    // Los tamaños se redondean para que un temblor de un píxel no invalide la entrada
+    private static final int SIZE_BUCKET_PX = 8;
+    private static final int MAX_LINES = 6;
+
+    private final TextPaint basePaint;
+    private final float minTextSize;
+    private final float maxTextSize;
+
+    private final LruCache<String, StaticLayout> layouts = new LruCache<>(MAX_ENTRIES);
+    // Un TextPaint por tamaño de letra (StaticLayout guarda la referencia al paint)
+    private final SparseArray<TextPaint> paints = new SparseArray<>();
+
+    LabelLayoutCache(Paint basePaint, float minTextSize, float maxTextSize) {
+        this.basePaint = new TextPaint(basePaint);
+        this.minTextSize = minTextSize;
+        this.maxTextSize = maxTextSize;
+    }
+
+    /**
+     * Maquetación del texto ajustada a un recuadro de maxWidth x maxHeight píxeles.
+     * Si ni con la letra mínima cabe en alto, se usa la mínima y la etiqueta crece hacia abajo.
+     */
+    StaticLayout get(String text, int maxWidth, int maxHeight) {
+        int width = bucket(Math.max(1, maxWidth));
+        int height = bucket(Math.max(1, maxHeight));
+        String key = width + "x" + height + "|" + text;
+
+        StaticLayout layout = layouts.get(key);
+        if (layout != null) {
+            return layout;
+        }
+        layout = fit(text, width, height);
+        layouts.put(key, layout);
+        return layout;
+    }
+
+    void clear() {
+        layouts.evictAll();
+        paints.clear();
+    }
+
+    // Búsqueda binaria del mayor tamaño de letra (en px enteros) que cabe en el recuadro
+    private StaticLayout fit(String text, int width, int height) {
+        int low = (int) minTextSize;
+        int high = (int) maxTextSize;
+        StaticLayout best = build(text, width, low);
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            StaticLayout candidate = build(text, width, mid);
+            if (fits(candidate, width, height)) {
+                best = candidate;
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    private static boolean fits(StaticLayout layout, int width, int height) {
+        if (layout.getHeight() > height) return false;
+        for (int i = 0; i < layout.getLineCount(); i++) {
+            // Palabras partidas o recortadas: no cabe
+            if (layout.getLineWidth(i) > width || layout.getEllipsisCount(i) > 0) return false;
+        }
+        return true;
+    }
+
+    private StaticLayout build(String text, int width, int textSize) {
+        return StaticLayout.Builder.obtain(text, 0, text.length(), paintFor(textSize), width)
+                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                .setIncludePad(false)
+                .setMaxLines(MAX_LINES)
+                .setEllipsize(TextUtils.TruncateAt.END)
+                .build();
+    }
+
+    private TextPaint paintFor(int textSize) {
+        TextPaint paint = paints.get(textSize);
+        if (paint == null) {
+            paint = new TextPaint(basePaint);
+            paint.setTextSize(textSize);
+            paints.put(textSize, paint);
+        }
+        return paint;
+    }
+
+    private static int bucket(int px) {
+        return Math.max(SIZE_BUCKET_PX, px / SIZE_BUCKET_PX * SIZE_BUCKET_PX);
+    }
+}
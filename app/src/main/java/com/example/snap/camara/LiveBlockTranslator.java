@@ -0,0 +1,60 @@
+package com.example.snap.camara;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Etapa de traducción de la cámara en vivo.
+ *
+ * La tubería la llama desde el hilo de análisis, así que aquí solo se usan futures: nada de
+ * LiveData ni de observadores, que exigen el hilo principal.
+ * - Si el router prefiere la traducción on-device para el par, cada bloque va por separado
+ *   (modo hedging).
+ * - Si no, todos los bloques del frame van en un lote.
+ */
+public class LiveBlockTranslator implements LiveTranslationPipeline.TranslateStage {
+
+    /** Acceso a la traducción; se puede llamar desde cualquier hilo */
+    public interface Backend {
+        boolean prefersOnDevice(String sourceLang, String targetLang);
+
+        CompletableFuture<String> translate(String text, String sourceLang, String targetLang);
+
+        List<CompletableFuture<String>> translateBatch(List<String> texts, String sourceLang, String targetLang);
+    }
+
+    private final Backend backend;
+    private final Supplier<String> sourceLang;
+    private final Supplier<String> targetLang;
+
+    public LiveBlockTranslator(Backend backend, Supplier<String> sourceLang, Supplier<String> targetLang) {
+        this.backend = backend;
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+    }
+
+    @Override
+    public List<CompletableFuture<String>> translate(List<String> texts) {
+        String source = sourceLang.get();
+        String target = targetLang.get();
+        List<CompletableFuture<String>> futures = new ArrayList<>(texts.size());
+
+        // Si el idioma es el mismo, no traducir
+        if (source.equals(target)) {
+            for (String text : texts) {
+                futures.add(CompletableFuture.completedFuture(text));
+            }
+            return futures;
+        }
+
+        if (backend.prefersOnDevice(source, target)) {
+            for (String text : texts) {
+                futures.add(backend.translate(text, source, target));
+            }
+            return futures;
+        }
+        return backend.translateBatch(texts, source, target);
+    }
+}
@@ -0,0 +1,445 @@
+package com.example.snap.camara;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tubería del modo en vivo: OCR -> traducción -> dibujado, con colas acotadas entre etapas.
+ *
+ * - Entrada al OCR: un solo hueco. Si el OCR está ocupado, el frame nuevo sustituye al que
+ *   esperaba (el viejo se libera sin procesar).
+ * - Traducción: como mucho maxFramesTranslating frames a la vez; si entra otro, el más antiguo
+ *   se da por caducado (sus traducciones siguen llegando al BlockTracker, pero no se dibuja).
+ * - Dibujado: cada frame tiene número de secuencia y solo se pinta si es más nuevo que el último
+ *   pintado. Si se acumulan varios antes de que el hilo de UI llegue, solo se pinta el último:
+ *   una única actualización de UI por frame y nunca un resultado viejo encima de uno nuevo.
+ * - Hilos: lo que sigue al OCR (liberar la entrada, lanzar la traducción y empezar el OCR del
+ *   frame que esperaba, con su recorte YUV) corre en el analysisExecutor, no en el hilo donde
+ *   el OCR completa (en ML Kit, el de UI). Solo el dibujado pasa por el uiExecutor.
+ *
+ * Las etapas se inyectan, así que se puede probar en la JVM con OCR y traducción falsos.
+ */
+public class LiveTranslationPipeline<T> {
+
+    /** Etapa de OCR: reconoce los bloques (en coordenadas del frame completo) */
+    public interface OcrStage<T> {
+        CompletableFuture<OcrResult> recognize(T input);
+    }
+
+    /** Etapa de traducción: un future por texto, en el mismo orden */
+    public interface TranslateStage {
+        List<CompletableFuture<String>> translate(List<String> texts);
+    }
+
+    /** Dibujado de un frame completo; siempre se llama desde el uiExecutor */
+    public interface Renderer {
+        void render(FrameResult result);
+    }
+
+    /** Libera la entrada (p. ej. cierra el ImageProxy) cuando ya no hace falta */
+    public interface Releaser<T> {
+        void release(T input);
+    }
+
+    public static final class OcrResult {
+        final List<BlockTracker.Block> blocks;
+        final int imageWidth;
+        final int imageHeight;
+
+        public OcrResult(List<BlockTracker.Block> blocks, int imageWidth, int imageHeight) {
+            this.blocks = blocks;
+            this.imageWidth = imageWidth;
+            this.imageHeight = imageHeight;
+        }
+    }
+
+    /** Un bloque listo para dibujar: traducido o, si falló, con su texto original */
+    public static final class RenderedBlock {
+        public final BlockTracker.Block block;
+        public final String text;
+        public final boolean translated;
+
+        RenderedBlock(BlockTracker.Block block, String text, boolean translated) {
+            this.block = block;
+            this.text = text;
+            this.translated = translated;
+        }
+
+        public String getOriginalText() {
+            return block.text;
+        }
+    }
+
+    public static final class FrameResult {
+        public final long sequence;
+        public final int imageWidth;
+        public final int imageHeight;
+        public final List<RenderedBlock> blocks;
+        public final String fullText;
+
+        FrameResult(long sequence, int imageWidth, int imageHeight, List<RenderedBlock> blocks) {
+            this.sequence = sequence;
+            this.imageWidth = imageWidth;
+            this.imageHeight = imageHeight;
+            this.blocks = Collections.unmodifiableList(blocks);
+            StringBuilder text = new StringBuilder();
+            for (RenderedBlock block : blocks) {
+                text.append(block.text).append("\n");
+            }
+            this.fullText = text.toString().trim();
+        }
+    }
+
+    // Estado de un frame dentro de la tubería
+    private final class FrameState {
+        final long sequence;
+        final T input;
+        final AnalysisScheduler.Frame timing;
+        boolean stale;
+
+        FrameState(long sequence, T input, AnalysisScheduler.Frame timing) {
+            this.sequence = sequence;
+            this.input = input;
+            this.timing = timing;
+        }
+    }
+
+    private final OcrStage<T> ocrStage;
+    private final TranslateStage translateStage;
+    private final Renderer renderer;
+    private final Executor uiExecutor;
+    private final Executor analysisExecutor;
+    private final Releaser<T> releaser;
+    private final BlockTracker tracker;
+    private final int maxFramesTranslating;
+
+    private long nextSequence = 1;
+    // Los frames con secuencia menor que esta (anteriores a un reset) no se dibujan
+    private long minSequence = 1;
+    private long lastRenderedSequence;
+
+    private boolean ocrBusy;
+    private boolean closed;
+    private FrameState waitingForOcr;
+    private final Deque<FrameState> translating = new ArrayDeque<>();
+    // Traducción en curso por bloque seguido, para que otros frames la esperen en vez de repetirla
+    private final Map<Long, CompletableFuture<String>> inFlight = new HashMap<>();
+
+    private FrameState pendingRenderState;
+    private FrameResult pendingRender;
+    private boolean renderScheduled;
+
+    // Estadísticas
+    private long submitted;
+    private long droppedBeforeOcr;
+    private long droppedStale;
+    private long rendered;
+
+    public LiveTranslationPipeline(OcrStage<T> ocrStage, TranslateStage translateStage, Renderer renderer,
+                                   Executor uiExecutor, Executor analysisExecutor, Releaser<T> releaser,
+                                   BlockTracker tracker, int maxFramesTranslating) {
+        this.ocrStage = ocrStage;
+        this.translateStage = translateStage;
+        this.renderer = renderer;
+        this.uiExecutor = uiExecutor;
+        this.analysisExecutor = analysisExecutor;
+        this.releaser = releaser;
+        this.tracker = tracker;
+        this.maxFramesTranslating = Math.max(1, maxFramesTranslating);
+    }
+
+    /**
+     * Mete un frame en la tubería.
+     * @param timing medidas del planificador para este frame (puede ser null)
+     * @return número de secuencia asignado
+     */
+    public long submit(T input, AnalysisScheduler.Frame timing) {
+        FrameState state;
+        FrameState dropped = null;
+        boolean start;
+        synchronized (this) {
+            state = new FrameState(nextSequence++, input, timing);
+            submitted++;
+            if (closed) {
+                // Tubería cerrada: el frame se libera sin procesar
+                dropped = state;
+                start = false;
+            } else if (ocrBusy) {
+                // Un solo hueco de espera: el frame nuevo sustituye al viejo
+                dropped = waitingForOcr;
+                waitingForOcr = state;
+                if (dropped != null) droppedBeforeOcr++;
+                start = false;
+            } else {
+                ocrBusy = true;
+                start = true;
+            }
+        }
+        if (dropped != null) {
+            discard(dropped);
+        }
+        if (start) {
+            runOcr(state);
+        }
+        return state.sequence;
+    }
+
+    /**
+     * Olvida el estado (p. ej. al cambiar de idioma): nada de lo que esté en curso se dibujará.
+     */
+    public void reset() {
+        FrameState dropped;
+        synchronized (this) {
+            minSequence = nextSequence;
+            tracker.reset();
+            inFlight.clear();
+            for (FrameState state : translating) {
+                state.stale = true;
+            }
+            dropped = waitingForOcr;
+            waitingForOcr = null;
+        }
+        if (dropped != null) {
+            discard(dropped);
+        }
+    }
+
+    /**
+     * Cierra la tubería (al destruir la pantalla): olvida el estado, cancela las traducciones en
+     * curso y libera el frame que esperaba. Lo que llegue después se libera sin procesar.
+     */
+    public void shutdown() {
+        List<CompletableFuture<String>> cancelled;
+        synchronized (this) {
+            closed = true;
+            cancelled = new ArrayList<>(inFlight.values());
+        }
+        reset();
+        for (CompletableFuture<String> future : cancelled) {
+            future.cancel(true);
+        }
+    }
+
+    public synchronized long getSubmittedCount() { return submitted; }
+    public synchronized long getDroppedBeforeOcrCount() { return droppedBeforeOcr; }
+    public synchronized long getDroppedStaleCount() { return droppedStale; }
+    public synchronized long getRenderedCount() { return rendered; }
+    public synchronized long getLastRenderedSequence() { return lastRenderedSequence; }
+
+    private void runOcr(FrameState state) {
+        CompletableFuture<OcrResult> ocr;
+        try {
+            ocr = ocrStage.recognize(state.input);
+        } catch (RuntimeException e) {
+            ocr = new CompletableFuture<>();
+            ocr.completeExceptionally(e);
+        }
+        ocr.whenCompleteAsync((result, error) -> {
+            releaser.release(state.input);
+            if (state.timing != null) {
+                if (error != null) state.timing.abort();
+                else state.timing.ocrFinished();
+            }
+            if (error == null && !isClosed()) {
+                translate(state, result);
+            }
+
+            // Pasar al frame que esperaba, si lo hay
+            FrameState next;
+            synchronized (this) {
+                next = waitingForOcr;
+                waitingForOcr = null;
+                ocrBusy = next != null;
+            }
+            if (next != null) {
+                runOcr(next);
+            }
+        }, analysisExecutor).exceptionally(error -> {
+            // El executor ya no acepta tareas (pantalla destruida): al menos liberar la entrada
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException) {
+                discard(state);
+            }
+            return null;
+        });
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void translate(FrameState state, OcrResult result) {
+        FrameState evicted = null;
+        List<BlockTracker.TrackedBlock> toSend = new ArrayList<>();
+        List<BlockTracker.TrackedBlock> tracked;
+
+        synchronized (this) {
+            if (state.sequence < minSequence) {
+                state.stale = true;
+            }
+            tracked = tracker.update(result.blocks);
+            for (BlockTracker.TrackedBlock block : tracked) {
+                if (block.needsTranslation) {
+                    toSend.add(block);
+                }
+            }
+            translating.addLast(state);
+            if (translating.size() > maxFramesTranslating) {
+                evicted = translating.removeFirst();
+                evicted.stale = true;
+            }
+        }
+        if (evicted != null && evicted.timing != null) {
+            evicted.timing.abort();
+        }
+
+        // Mandar solo lo nuevo; lo demás se reutiliza o se espera
+        Map<Long, CompletableFuture<String>> sentByTrack = new HashMap<>();
+        if (!toSend.isEmpty()) {
+            List<String> texts = new ArrayList<>(toSend.size());
+            for (BlockTracker.TrackedBlock block : toSend) {
+                texts.add(block.text);
+            }
+            List<CompletableFuture<String>> sent = translateStage.translate(texts);
+            synchronized (this) {
+                for (int i = 0; i < toSend.size(); i++) {
+                    BlockTracker.TrackedBlock block = toSend.get(i);
+                    CompletableFuture<String> future = sent.get(i);
+                    sentByTrack.put(block.trackId, future);
+                    inFlight.put(block.trackId, future);
+                    future.whenComplete((translated, error) -> onTranslated(block, future, translated, error));
+                }
+            }
+        }
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(tracked.size());
+        synchronized (this) {
+            for (BlockTracker.TrackedBlock block : tracked) {
+                if (block.translation != null) {
+                    futures.add(CompletableFuture.completedFuture(block.translation));
+                } else {
+                    // Lo enviado por este frame se espera aunque ya haya salido de inFlight
+                    // (una traducción que completa en el acto, p. ej. desde la caché)
+                    CompletableFuture<String> future = sentByTrack.get(block.trackId);
+                    if (future == null) future = inFlight.get(block.trackId);
+                    // Sin traducción en curso (p. ej. tras un reset): se muestra el original
+                    futures.add(future != null ? future : CompletableFuture.completedFuture(null));
+                }
+            }
+        }
+
+        CompletableFuture.allOf(futures.stream()
+                        .map(f -> f.handle((r, e) -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenRun(() -> onFrameTranslated(state, result, tracked, futures));
+    }
+
+    private void onTranslated(BlockTracker.TrackedBlock block, CompletableFuture<String> future,
+                              String translated, Throwable error) {
+        synchronized (this) {
+            inFlight.remove(block.trackId, future);
+            if (error != null || translated == null || translated.trim().isEmpty()) {
+                tracker.markFailed(block.trackId, block.text);
+            } else {
+                tracker.setTranslation(block.trackId, block.text, translated);
+            }
+        }
+    }
+
+    private void onFrameTranslated(FrameState state, OcrResult result, List<BlockTracker.TrackedBlock> tracked,
+                                   List<CompletableFuture<String>> futures) {
+        if (state.timing != null) {
+            state.timing.translationFinished();
+        }
+
+        List<RenderedBlock> blocks = new ArrayList<>(tracked.size());
+        for (int i = 0; i < tracked.size(); i++) {
+            BlockTracker.Block block = result.blocks.get(tracked.get(i).index);
+            String translated = futures.get(i).isCompletedExceptionally() ? null : futures.get(i).getNow(null);
+            if (translated == null || translated.trim().isEmpty()) {
+                // Si falla: el texto original (para no dejar vacío)
+                blocks.add(new RenderedBlock(block, block.text, false));
+            } else {
+                blocks.add(new RenderedBlock(block, translated, true));
+            }
+        }
+        FrameResult frameResult = new FrameResult(state.sequence, result.imageWidth, result.imageHeight, blocks);
+
+        FrameState superseded = null;
+        boolean schedule = false;
+        boolean stale;
+        synchronized (this) {
+            translating.remove(state);
+            stale = state.stale || state.sequence < minSequence || state.sequence <= lastRenderedSequence
+                    || (pendingRender != null && pendingRender.sequence > state.sequence);
+            if (stale) {
+                droppedStale++;
+            } else {
+                // Cola de dibujado de un solo hueco: el frame más nuevo sustituye al que esperaba
+                if (pendingRenderState != null) {
+                    superseded = pendingRenderState;
+                    droppedStale++;
+                }
+                pendingRender = frameResult;
+                pendingRenderState = state;
+                if (!renderScheduled) {
+                    renderScheduled = true;
+                    schedule = true;
+                }
+            }
+        }
+        if (stale && state.timing != null) {
+            state.timing.abort();
+        }
+        if (superseded != null && superseded.timing != null) {
+            superseded.timing.abort();
+        }
+        if (schedule) {
+            uiExecutor.execute(this::drainRender);
+        }
+    }
+
+    private void drainRender() {
+        FrameResult result;
+        FrameState state;
+        synchronized (this) {
+            result = pendingRender;
+            state = pendingRenderState;
+            pendingRender = null;
+            pendingRenderState = null;
+            renderScheduled = false;
+            if (result == null || result.sequence < minSequence || result.sequence <= lastRenderedSequence) {
+                if (result != null) droppedStale++;
+                result = null;
+            } else {
+                lastRenderedSequence = result.sequence;
+                rendered++;
+            }
+        }
+        if (result == null) {
+            if (state != null && state.timing != null) state.timing.abort();
+            return;
+        }
+        renderer.render(result);
+        if (state.timing != null) {
+            state.timing.finish();
+        }
+    }
+
+    private void discard(FrameState state) {
+        releaser.release(state.input);
+        if (state.timing != null) {
+            state.timing.abort();
+        }
+    }
+}
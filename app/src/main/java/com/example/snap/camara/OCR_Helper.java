@@ -1,47 +1,30 @@
 package com.example.snap.camara;
 
-import android.util.Log;
-
-import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Observer;
 
+import com.example.snap.models.TranslationResult;
 import com.example.snap.presentation.viewmodel.TranslationViewModel;
-import com.google.android.gms.tasks.OnFailureListener;
-import com.google.android.gms.tasks.OnSuccessListener;
-import com.google.mlkit.common.model.DownloadConditions;
-import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
+import com.example.snap.services.NetworkTranslationService;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
- * OCR_Helper: Híbrido (ML Kit + API)
- * 1. Intenta usar ML Kit para resultados instantáneos (offline).
- * 2. Si ML Kit falla o el modelo no está listo, usa la API (ViewModel) como respaldo.
+ * OCR_Helper: puente entre la cámara y la traducción.
+ * El backend (ML Kit on-device, gtx o endpoint propio) lo elige TranslationRouter
+ * por latencia medida y disponibilidad; si uno falla se prueba el siguiente.
+ * En la cámara se usa el modo hedging: si el principal (normalmente ML Kit) tarda más
+ * que su p95, se lanza también la red y gana el primero.
+ * Los bloques de la cámara no se guardan en el historial, salvo los traducidos en lote
+ * (como "CAMERA", ver TranslationViewModel.translateBatch).
+ * Usa LiveData del ViewModel: llamar desde el hilo principal (fotos estáticas). La cámara en
+ * vivo traduce desde el hilo de análisis con LiveBlockTranslator.
  */
 public class OCR_Helper {
 
     private static final String TAG = "OCR_Helper";
     private final TranslationViewModel viewModel;
 
-    // Caché para no recrear el cliente de traducción en cada frame
-    private final Map<String, Translator> translatorCache = new HashMap<>();
-
-    // Mapa de idiomas soportados por ML Kit en tu app
-    private static final Map<String, String> MLKIT_SUPPORTED = new HashMap<>();
-    static {
-        MLKIT_SUPPORTED.put("es", TranslateLanguage.SPANISH);
-        MLKIT_SUPPORTED.put("en", TranslateLanguage.ENGLISH);
-        MLKIT_SUPPORTED.put("it", TranslateLanguage.ITALIAN);
-        MLKIT_SUPPORTED.put("pt", TranslateLanguage.PORTUGUESE);
-        MLKIT_SUPPORTED.put("de", TranslateLanguage.GERMAN);
-        MLKIT_SUPPORTED.put("fr", TranslateLanguage.FRENCH);
-        // Agrega más si los necesitas
-    }
-
     public OCR_Helper(TranslationViewModel vm) {
         this.viewModel = vm;
     }
@@ -52,13 +35,11 @@ public class OCR_Helper {
     }
 
     /**
-     * Cierra los traductores para liberar memoria cuando se destruye la actividad
+     * Callback por bloque para traducir todos los bloques de un frame de una vez
      */
-    public void close() {
-        for (Translator t : translatorCache.values()) {
-            t.close();
-        }
-        translatorCache.clear();
+    public interface BatchTranslationCallback {
+        void onBlockTranslated(int index, String translatedText);
+        void onBlockFailed(int index, Exception e);
     }
 
     public void translateText(
@@ -80,101 +61,100 @@ public class OCR_Helper {
             return;
         }
 
-        // ESTRATEGIA:
-        // 1. Verificamos si ambos idiomas están en ML Kit.
-        // 2. Si están, intentamos ML Kit.
-        // 3. Si no están (o ML Kit falla dentro del método), usamos la API.
-
-        if (MLKIT_SUPPORTED.containsKey(sourceCode) && MLKIT_SUPPORTED.containsKey(targetCode)) {
-            translateWithMLKit(text, sourceCode, targetCode, userId, callback);
-        } else {
-            // Idiomas no soportados por ML Kit (ej: Japonés, Ruso, etc.), ir directo a API
-            translateWithAPI(text, sourceCode, targetCode, userId, callback);
-        }
+        translateWithRouter(text, sourceCode, targetCode, callback);
     }
 
-    // ------------------------------------------------------------------------
-    // LÓGICA ML KIT
-    // ------------------------------------------------------------------------
-    private void translateWithMLKit(
-            String text,
+    /**
+     * Traduce todos los bloques de un frame.
+     * - Si el router elige ML Kit para el par, cada bloque se traduce on-device por separado.
+     * - Si no, se empaquetan en una o dos peticiones y se reparten por índice.
+     */
+    public void translateBatch(
+            List<String> texts,
             String sourceCode,
             String targetCode,
             String userId,
-            TranslationCallback callback
+            BatchTranslationCallback callback
     ) {
-        String key = sourceCode + "-" + targetCode;
-        Translator translator = translatorCache.get(key);
-
-        if (translator == null) {
-            TranslatorOptions options = new TranslatorOptions.Builder()
-                    .setSourceLanguage(MLKIT_SUPPORTED.get(sourceCode))
-                    .setTargetLanguage(MLKIT_SUPPORTED.get(targetCode))
-                    .build();
-            translator = Translation.getClient(options);
-            translatorCache.put(key, translator);
+        if (texts == null || texts.isEmpty()) {
+            return;
+        }
+
+        // Si el idioma es el mismo, no traducir
+        if (sourceCode.equals(targetCode)) {
+            for (int i = 0; i < texts.size(); i++) {
+                callback.onBlockTranslated(i, texts.get(i));
+            }
+            return;
         }
 
-        Translator finalTranslator = translator;
-
-        // Condiciones de descarga (solo wifi para no gastar datos, opcional)
-        DownloadConditions conditions = new DownloadConditions.Builder()
-                .requireWifi()
-                .build();
-
-        // Intentamos preparar el modelo
-        finalTranslator.downloadModelIfNeeded(conditions)
-                .addOnSuccessListener(unused -> {
-                    // Modelo listo, traducimos
-                    finalTranslator.translate(text)
-                            .addOnSuccessListener(callback::onSuccess)
-                            .addOnFailureListener(e -> {
-                                Log.w(TAG, "Fallo traducción ML Kit, probando API...");
-                                // FALLBACK: Si falla la traducción interna, usar API
-                                translateWithAPI(text, sourceCode, targetCode, userId, callback);
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Log.w(TAG, "Modelo no descargado o error ML Kit. Usando API de respaldo.");
-                    // FALLBACK: Si falla la descarga del modelo, usar API inmediatamente
-                    translateWithAPI(text, sourceCode, targetCode, userId, callback);
+        if (viewModel.prefersOnDevice(sourceCode, targetCode)) {
+            for (int i = 0; i < texts.size(); i++) {
+                final int index = i;
+                translateText(texts.get(i), sourceCode, targetCode, userId, new TranslationCallback() {
+                    @Override
+                    public void onSuccess(String translatedText) {
+                        callback.onBlockTranslated(index, translatedText);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onBlockFailed(index, e);
+                    }
                 });
+            }
+        } else {
+            viewModel.translateBatch(texts, sourceCode, targetCode, userId,
+                    new NetworkTranslationService.BatchTranslationCallback() {
+                        @Override
+                        public void onSegmentSuccess(int index, String translatedText) {
+                            callback.onBlockTranslated(index, translatedText);
+                        }
+
+                        @Override
+                        public void onSegmentError(int index, String error) {
+                            callback.onBlockFailed(index, new Exception(error));
+                        }
+                    });
+        }
     }
 
     // ------------------------------------------------------------------------
-    // LÓGICA API (VIEWMODEL)
+    // LÓGICA DE TRADUCCIÓN (VIEWMODEL + ROUTER)
     // ------------------------------------------------------------------------
-    private void translateWithAPI(
+    private void translateWithRouter(
             String text,
             String sourceCode,
             String targetCode,
-            String userId,
             TranslationCallback callback
     ) {
-        // 1. Llamar al ViewModel para iniciar la petición
-        viewModel.translateText(text, sourceCode, targetCode, userId);
+        // 1. Llamar al ViewModel: cada petición tiene su propio LiveData de resultado,
+        //    así los bloques traducidos en paralelo no reciben resultados ajenos
+        LiveData<TranslationResult> resultLiveData =
+                viewModel.translateCameraBlock(text, sourceCode, targetCode);
 
-        // 2. Observar la respuesta (LiveData)
-        final Observer<String> observer = new Observer<String>() {
+        // 2. Observar la respuesta (un único valor por petición)
+        final Observer<TranslationResult> observer = new Observer<TranslationResult>() {
             @Override
-            public void onChanged(String translated) {
-                // IMPORTANTE: Remover el observer para evitar duplicados
-                viewModel.getCurrentTranslation().removeObserver(this);
-
-                if (translated == null || translated.trim().isEmpty()) {
+            public void onChanged(TranslationResult result) {
+                if (result == null) return;
+                // IMPORTANTE: Remover el observer para no dejarlo colgado
+                resultLiveData.removeObserver(this);
+
+                String translated = result.getTranslatedText();
+                if (!result.isSuccess()) {
+                    callback.onFailure(new Exception(result.getError()));
+                } else if (translated == null || translated.trim().isEmpty()) {
                     callback.onFailure(new Exception("La API devolvió una traducción vacía"));
-                } else if (translated.startsWith("Error")) {
-                    callback.onFailure(new Exception(translated));
                 } else {
                     callback.onSuccess(translated);
                 }
             }
         };
 
-        // Observar de forma permanente
         try {
             // Asegurarse de estar en el hilo principal
-            viewModel.getCurrentTranslation().observeForever(observer);
+            resultLiveData.observeForever(observer);
         } catch (Exception e) {
             callback.onFailure(e);
         }
@@ -0,0 +1,193 @@
+package com.example.snap.camara;
+
+import java.util.List;
+
+/**
+ * Elige la región de interés (ROI) del frame sobre la que se lanza el OCR.
+ *
+ * Modos:
+ * - FULL: todo el frame (comportamiento clásico).
+ * - CENTER: un retículo en el centro, para el caso típico de apuntar a un cartel.
+ * - AUTO: la zona donde hubo texto en el último análisis (con margen); de vez en cuando,
+ *   o si no hubo texto, el frame completo para descubrir texto nuevo.
+ * - USER: una región elegida por el usuario tocando la pantalla.
+ *
+ * Todas las coordenadas están en la imagen "derecha" (ya rotada), igual que las que devuelve
+ * ML Kit. Además se elige un paso de submuestreo para que el lado largo no pase de maxOcrSide.
+ */
+public class RoiSelector {
+
+    public enum Mode { FULL, CENTER, AUTO, USER }
+
+    // Tamaño del retículo central (fracción del frame)
+    static final float CENTER_WIDTH = 0.7f;
+    static final float CENTER_HEIGHT = 0.35f;
+    // Margen alrededor del texto del último frame (fracción del tamaño de la zona)
+    private static final float AUTO_MARGIN = 0.25f;
+    // En modo AUTO, cada cuántos análisis se mira el frame completo
+    static final int AUTO_FULL_FRAME_EVERY = 4;
+    // Lado largo máximo por defecto de la imagen que recibe ML Kit
+    static final int DEFAULT_MAX_OCR_SIDE = 1280;
+
+    /**
+     * Región elegida en coordenadas de la imagen derecha, con su paso de submuestreo.
+     * Los bordes son pares y el tamaño múltiplo de 2 * step (requisito del recorte YUV).
+     */
+    public static final class Region {
+        public final int left, top, right, bottom;
+        public final int step;
+        public final boolean fullFrame;
+
+        Region(int left, int top, int right, int bottom, int step, boolean fullFrame) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+            this.step = step;
+            this.fullFrame = fullFrame;
+        }
+
+        public int width() { return right - left; }
+        public int height() { return bottom - top; }
+
+        /** Si se puede pasar la imagen tal cual a ML Kit, sin recortar */
+        public boolean isIdentity() {
+            return fullFrame && step == 1;
+        }
+
+        /** Coordenada X de la imagen recortada (la que ve ML Kit) a la del frame completo */
+        public int mapX(int x) { return left + x * step; }
+
+        /** Coordenada Y de la imagen recortada (la que ve ML Kit) a la del frame completo */
+        public int mapY(int y) { return top + y * step; }
+    }
+
+    private volatile Mode mode = Mode.AUTO;
+    private volatile int maxOcrSide = DEFAULT_MAX_OCR_SIDE;
+
+    // Región del usuario (centro y tamaño como fracciones del frame)
+    private volatile float userCenterX = 0.5f;
+    private volatile float userCenterY = 0.5f;
+
+    // Zona con texto del último análisis (modo AUTO); sin texto -> hasTextBounds = false
+    private boolean hasTextBounds;
+    private int textLeft, textTop, textRight, textBottom;
+    private int analysesSinceFullFrame;
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMaxOcrSide(int maxOcrSide) {
+        this.maxOcrSide = Math.max(320, maxOcrSide);
+    }
+
+    /**
+     * Fija la región del usuario alrededor de un punto (fracciones 0-1 del frame) y pasa a USER.
+     */
+    public void setUserRegion(float centerX, float centerY) {
+        userCenterX = clamp01(centerX);
+        userCenterY = clamp01(centerY);
+        mode = Mode.USER;
+    }
+
+    /**
+     * Elige la región para el siguiente análisis de un frame de width x height (imagen derecha).
+     */
+    public synchronized Region select(int width, int height) {
+        switch (mode) {
+            case CENTER:
+                return around(0.5f, 0.5f, CENTER_WIDTH, CENTER_HEIGHT, width, height);
+            case USER:
+                return around(userCenterX, userCenterY, CENTER_WIDTH, CENTER_HEIGHT, width, height);
+            case AUTO:
+                if (hasTextBounds && analysesSinceFullFrame < AUTO_FULL_FRAME_EVERY - 1) {
+                    analysesSinceFullFrame++;
+                    int marginX = (int) ((textRight - textLeft) * AUTO_MARGIN);
+                    int marginY = (int) ((textBottom - textTop) * AUTO_MARGIN);
+                    return build(textLeft - marginX, textTop - marginY,
+                            textRight + marginX, textBottom + marginY, width, height);
+                }
+                analysesSinceFullFrame = 0;
+                return build(0, 0, width, height, width, height);
+            default:
+                return build(0, 0, width, height, width, height);
+        }
+    }
+
+    /**
+     * Informa de los bloques encontrados (ya en coordenadas del frame completo) para el modo AUTO.
+     */
+    public synchronized void onFrameResult(List<BlockTracker.Block> blocks) {
+        hasTextBounds = false;
+        for (BlockTracker.Block block : blocks) {
+            if (block.right <= block.left || block.bottom <= block.top) continue;
+            if (!hasTextBounds) {
+                textLeft = block.left;
+                textTop = block.top;
+                textRight = block.right;
+                textBottom = block.bottom;
+                hasTextBounds = true;
+            } else {
+                textLeft = Math.min(textLeft, block.left);
+                textTop = Math.min(textTop, block.top);
+                textRight = Math.max(textRight, block.right);
+                textBottom = Math.max(textBottom, block.bottom);
+            }
+        }
+    }
+
+    /**
+     * Olvida la zona de texto (p. ej. al volver a la cámara).
+     */
+    public synchronized void reset() {
+        hasTextBounds = false;
+        analysesSinceFullFrame = 0;
+    }
+
+    private Region around(float centerX, float centerY, float fractionW, float fractionH,
+                          int width, int height) {
+        int halfW = (int) (width * fractionW / 2);
+        int halfH = (int) (height * fractionH / 2);
+        int cx = (int) (width * centerX);
+        int cy = (int) (height * centerY);
+        // Desplazar para no salirse del frame en lugar de encoger la región
+        cx = Math.max(halfW, Math.min(width - halfW, cx));
+        cy = Math.max(halfH, Math.min(height - halfH, cy));
+        return build(cx - halfW, cy - halfH, cx + halfW, cy + halfH, width, height);
+    }
+
+    private Region build(int left, int top, int right, int bottom, int width, int height) {
+        left = Math.max(0, left);
+        top = Math.max(0, top);
+        right = Math.min(width, right);
+        bottom = Math.min(height, bottom);
+
+        int longSide = Math.max(right - left, bottom - top);
+        int step = Math.max(1, (longSide + maxOcrSide - 1) / maxOcrSide);
+
+        // Bordes pares y tamaño múltiplo de 2 * step (submuestreo de croma 4:2:0)
+        left &= ~1;
+        top &= ~1;
+        int unit = 2 * step;
+        int w = Math.max(unit, (right - left) / unit * unit);
+        int h = Math.max(unit, (bottom - top) / unit * unit);
+        w = Math.min(w, (width - left) / unit * unit);
+        h = Math.min(h, (height - top) / unit * unit);
+
+        boolean full = left == 0 && top == 0 && w >= width - unit && h >= height - unit;
+        if (full && step == 1) {
+            // Frame completo sin submuestreo: se usa la imagen original tal cual
+            return new Region(0, 0, width, height, 1, true);
+        }
+        return new Region(left, top, left + w, top + h, step, full);
+    }
+
+    private static float clamp01(float value) {
+        return Math.max(0f, Math.min(1f, value));
+    }
+}
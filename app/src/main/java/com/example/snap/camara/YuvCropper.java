@@ -0,0 +1,88 @@
+package com.example.snap.camara;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Recorta (y submuestrea) una región de un frame YUV_420_888 a un buffer NV21 para ML Kit,
+ * copiando solo los píxeles de la región. El buffer de salida se reutiliza mientras el tamaño
+ * de la región no cambie: solo es válido hasta la siguiente llamada a crop().
+ *
+ * La región llega en coordenadas de la imagen derecha (como RoiSelector); aquí se convierte a
+ * coordenadas del sensor según la rotación, y ML Kit vuelve a rotar el recorte al procesarlo.
+ */
+public class YuvCropper {
+
+    private byte[] buffer = new byte[0];
+    private int outputWidth;
+    private int outputHeight;
+
+    /**
+     * @param rotation grados que hay que girar el sensor para ver la imagen derecha (0/90/180/270)
+     * @param sensorWidth ancho del frame tal como sale del sensor (sin rotar)
+     * @param sensorHeight alto del frame tal como sale del sensor (sin rotar)
+     * @return buffer NV21 de getOutputWidth() x getOutputHeight() (en coordenadas del sensor)
+     */
+    public byte[] crop(RoiSelector.Region region, int rotation, int sensorWidth, int sensorHeight,
+                       ByteBuffer yPlane, int yRowStride, int yPixelStride,
+                       ByteBuffer uPlane, ByteBuffer vPlane, int uvRowStride, int uvPixelStride) {
+        int[] rect = toSensorRect(region, rotation, sensorWidth, sensorHeight);
+        int left = rect[0];
+        int top = rect[1];
+        int step = region.step;
+        outputWidth = (rect[2] - left) / step;
+        outputHeight = (rect[3] - top) / step;
+
+        int size = outputWidth * outputHeight * 3 / 2;
+        // ML Kit espera un array del tamaño exacto: solo se reserva si cambia la región
+        if (buffer.length != size) {
+            buffer = new byte[size];
+        }
+
+        // Luminancia
+        int out = 0;
+        for (int row = 0; row < outputHeight; row++) {
+            int rowOffset = (top + row * step) * yRowStride;
+            for (int col = 0; col < outputWidth; col++) {
+                buffer[out++] = yPlane.get(rowOffset + (left + col * step) * yPixelStride);
+            }
+        }
+
+        // Crominancia intercalada V/U (NV21), una muestra por cada bloque 2x2 de salida
+        for (int row = 0; row < outputHeight / 2; row++) {
+            int rowOffset = ((top + row * 2 * step) / 2) * uvRowStride;
+            for (int col = 0; col < outputWidth / 2; col++) {
+                int index = rowOffset + ((left + col * 2 * step) / 2) * uvPixelStride;
+                buffer[out++] = vPlane.get(index);
+                buffer[out++] = uPlane.get(index);
+            }
+        }
+        return buffer;
+    }
+
+    public int getOutputWidth() {
+        return outputWidth;
+    }
+
+    public int getOutputHeight() {
+        return outputHeight;
+    }
+
+    /**
+     * Convierte una región de la imagen derecha a {left, top, right, bottom} en el sensor.
+     */
+    static int[] toSensorRect(RoiSelector.Region region, int rotation, int sensorWidth, int sensorHeight) {
+        switch (rotation) {
+            case 90:
+                return new int[] {region.top, sensorHeight - region.right,
+                        region.bottom, sensorHeight - region.left};
+            case 180:
+                return new int[] {sensorWidth - region.right, sensorHeight - region.bottom,
+                        sensorWidth - region.left, sensorHeight - region.top};
+            case 270:
+                return new int[] {sensorWidth - region.bottom, region.left,
+                        sensorWidth - region.top, region.right};
+            default:
+                return new int[] {region.left, region.top, region.right, region.bottom};
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.snap.data.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import com.example.snap.data.database.FtsQuery;
 import com.example.snap.data.entities.Favorite;
 import java.util.List;
 
@@ -21,6 +23,10 @@ public interface FavoriteDao {
     @Query("SELECT * FROM favorites WHERE userId = :userId ORDER BY addedDate DESC")
     LiveData<List<Favorite>> getAllFavoritesByUser(String userId);
 
+    // Últimos favoritos, síncrono (para pre-sintetizar su audio en segundo plano)
+    @Query("SELECT * FROM favorites WHERE userId = :userId ORDER BY addedDate DESC LIMIT :limit")
+    List<Favorite> getRecentFavoritesSync(String userId, int limit);
+
     // Estadísticas de idiomas solo para el usuario activo
     @Query("SELECT targetLang FROM favorites WHERE userId = :userId GROUP BY targetLang ORDER BY COUNT(*) DESC LIMIT 3")
     LiveData<List<String>> getFavoriteLanguagesByUser(String userId);
@@ -29,6 +35,23 @@ public interface FavoriteDao {
     @Query("SELECT EXISTS(SELECT 1 FROM favorites WHERE userId = :userId AND originalText = :text LIMIT 1)")
     LiveData<Boolean> isFavorite(String userId, String text);
 
+    // Búsqueda de texto completo, mismo criterio que TranslationHistoryDao.searchHistoryPagingSource
+    // (relevancia sobre las FtsQuery.MAX_RANKED coincidencias más recientes)
+    String SEARCH_FROM = "FROM favorites "
+            + "JOIN favorites_fts ON favorites.id = favorites_fts.rowid "
+            + "WHERE favorites_fts MATCH :query AND favorites.id IN ("
+            + "SELECT favorites.id FROM favorites JOIN favorites_fts ON favorites.id = favorites_fts.rowid "
+            + "WHERE favorites_fts MATCH :query AND favorites.userId = :userId "
+            + "ORDER BY favorites.addedDate DESC, favorites.id DESC LIMIT " + FtsQuery.MAX_RANKED + ") "
+            + "ORDER BY length(offsets(favorites_fts)) - length(replace(offsets(favorites_fts), ' ', '')) DESC, "
+            + "favorites.addedDate DESC, favorites.id DESC";
+
+    @Query("SELECT favorites.* " + SEARCH_FROM)
+    PagingSource<Integer, Favorite> searchFavoritesPagingSource(String userId, String query);
+
+    @Query("SELECT favorites.* " + SEARCH_FROM + " LIMIT :limit")
+    List<Favorite> searchFavoritesSync(String userId, String query, int limit);
+
     // Borrar favoritos de un usuario (por si borra su cuenta)
     @Query("DELETE FROM favorites WHERE userId = :userId")
     void deleteByUser(String userId);
@@ -0,0 +1,35 @@
+package com.example.snap.data.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.snap.data.entities.TranslationCacheEntry;
+
+@Dao
+public interface TranslationCacheDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(TranslationCacheEntry entry);
+
+    @Query("SELECT * FROM translation_cache WHERE cacheKey = :key LIMIT 1")
+    TranslationCacheEntry get(String key);
+
+    @Query("UPDATE translation_cache SET lastAccess = :time WHERE cacheKey = :key")
+    void touch(String key, long time);
+
+    // Expiración por TTL
+    @Query("DELETE FROM translation_cache WHERE createdAt < :minCreatedAt")
+    int deleteExpired(long minCreatedAt);
+
+    // Expulsión por tamaño: conserva solo las :maxEntries entradas usadas más recientemente
+    @Query("DELETE FROM translation_cache WHERE cacheKey IN (SELECT cacheKey FROM translation_cache ORDER BY lastAccess DESC LIMIT -1 OFFSET :maxEntries)")
+    int trimToSize(int maxEntries);
+
+    @Query("SELECT COUNT(*) FROM translation_cache")
+    int count();
+
+    @Query("DELETE FROM translation_cache")
+    void clear();
+}
@@ -1,30 +1,88 @@
 package com.example.snap.data.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
+import com.example.snap.data.database.FtsQuery;
 import com.example.snap.data.entities.TranslationHistory;
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
 import java.util.List;
 
 @Dao
 public interface TranslationHistoryDao {
 
+    // Devuelve el rowId, o -1 si se ignoró por conflicto
     @Insert(onConflict = OnConflictStrategy.IGNORE)
-    void insert(TranslationHistory history);
+    long insert(TranslationHistory history);
 
     @Query("SELECT * FROM translation_history WHERE userId = :userId ORDER BY timestamp DESC")
     LiveData<List<TranslationHistory>> getAllHistoryByUser(String userId);
+
+    // Historial paginado; usa el índice (userId, timestamp DESC), id desempata en el mismo ms
+    @Query("SELECT * FROM translation_history WHERE userId = :userId ORDER BY timestamp DESC, id DESC")
+    PagingSource<Integer, TranslationHistory> getHistoryPagingSource(String userId);
     
-    @Query("SELECT COUNT(*) FROM translation_history WHERE userId = :userId AND sourceText = :sourceText AND translatedText = :translatedText AND sourceLanguage = :sourceLang AND targetLanguage = :targetLang AND ((:currentTime - timestamp) < 2000)")
-    int countRecentDuplicates(String userId, String sourceText, String translatedText, String sourceLang, String targetLang, long currentTime);
+    // Búsqueda de texto completo (ver TranslationHistoryFts y FtsQuery). Orden por relevancia:
+    // primero las filas con más coincidencias (offsets() da 4 números por coincidencia, así que
+    // contar sus espacios equivale a contarlas) y, a igualdad, las más recientes.
+    // Solo se ordenan las FtsQuery.MAX_RANKED coincidencias más recientes del usuario (subconsulta
+    // por el índice de tiempo): offsets() se calcula para esas filas y no para todo lo que case,
+    // ni en cada página ni en el COUNT del PagingSource
+    String SEARCH_FROM = "FROM translation_history "
+            + "JOIN translation_history_fts ON translation_history.id = translation_history_fts.rowid "
+            + "WHERE translation_history_fts MATCH :query AND translation_history.id IN ("
+            + "SELECT translation_history.id FROM translation_history "
+            + "JOIN translation_history_fts ON translation_history.id = translation_history_fts.rowid "
+            + "WHERE translation_history_fts MATCH :query AND translation_history.userId = :userId "
+            + "ORDER BY translation_history.timestamp DESC, translation_history.id DESC "
+            + "LIMIT " + FtsQuery.MAX_RANKED + ") "
+            + "ORDER BY length(offsets(translation_history_fts)) "
+            + "- length(replace(offsets(translation_history_fts), ' ', '')) DESC, "
+            + "translation_history.timestamp DESC, translation_history.id DESC";
+
+    @Query("SELECT translation_history.* " + SEARCH_FROM)
+    PagingSource<Integer, TranslationHistory> searchHistoryPagingSource(String userId, String query);
+
+    // Síncrona y con límite (sugerencias y pruebas)
+    @Query("SELECT translation_history.* " + SEARCH_FROM + " LIMIT :limit")
+    List<TranslationHistory> searchHistorySync(String userId, String query, int limit);
+
+    // Agregados calculados sobre el historial completo. La pantalla de estadísticas lee ya la
+    // tabla resumen (TranslationStatsDao); estos quedan como referencia para comprobarla y medirla
+
+    @Query("SELECT sourceLanguage, targetLanguage, COUNT(*) AS count FROM translation_history "
+            + "WHERE userId = :userId GROUP BY sourceLanguage, targetLanguage "
+            + "ORDER BY count DESC LIMIT :limit")
+    LiveData<List<LanguagePairCount>> getTopLanguagePairs(String userId, int limit);
+
+    // Día en hora local del dispositivo, desde sinceMillis (incluido)
+    @Query("SELECT strftime('%Y-%m-%d', timestamp / 1000, 'unixepoch', 'localtime') AS day, COUNT(*) AS count "
+            + "FROM translation_history WHERE userId = :userId AND timestamp >= :sinceMillis "
+            + "GROUP BY day ORDER BY day DESC")
+    LiveData<List<DailyCount>> getDailyCounts(String userId, long sinceMillis);
+
+    @Query("SELECT inputMethod, COUNT(*) AS count FROM translation_history "
+            + "WHERE userId = :userId GROUP BY inputMethod ORDER BY count DESC")
+    LiveData<List<InputMethodCount>> getInputMethodCounts(String userId);
+
+    // ¿Hay una fila con la misma huella desde sinceMillis? Se resuelve en el índice (contentHash, timestamp)
+    @Query("SELECT EXISTS(SELECT 1 FROM translation_history WHERE contentHash = :contentHash AND timestamp > :sinceMillis)")
+    boolean existsRecent(String contentHash, long sinceMillis);
 
     @Query("DELETE FROM translation_history WHERE userId = :userId")
     void deleteHistoryByUser(String userId);
 
+    @Query("SELECT COUNT(*) FROM translation_history")
+    long getTotalCount();
+
+    // Devuelve las filas borradas (0 si ya no existía)
     @Delete
-    void delete(TranslationHistory history);
+    int delete(TranslationHistory history);
 }
@@ -0,0 +1,78 @@
+package com.example.snap.data.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
+
+import java.util.List;
+
+/**
+ * Tabla resumen translation_stats. Las escrituras se hacen siempre dentro de la transacción
+ * que modifica translation_history (ver TranslationHistoryRepository).
+ */
+@Dao
+public interface TranslationStatsDao {
+
+    // Alta/baja incremental: crear la fila si no existe y sumar delta (puede ser negativo)
+
+    @Query("INSERT OR IGNORE INTO translation_stats (userId, sourceLanguage, targetLanguage, day, inputMethod, count) "
+            + "VALUES (:userId, :sourceLanguage, :targetLanguage, :day, :inputMethod, 0)")
+    void ensureRow(String userId, String sourceLanguage, String targetLanguage, String day, String inputMethod);
+
+    @Query("UPDATE translation_stats SET count = count + :delta WHERE userId = :userId "
+            + "AND sourceLanguage = :sourceLanguage AND targetLanguage = :targetLanguage "
+            + "AND day = :day AND inputMethod = :inputMethod")
+    void addToCount(String userId, String sourceLanguage, String targetLanguage, String day, String inputMethod,
+                    int delta);
+
+    @Query("DELETE FROM translation_stats WHERE userId = :userId AND count <= 0")
+    void deleteEmptyRows(String userId);
+
+    @Query("DELETE FROM translation_stats WHERE userId = :userId")
+    void deleteByUser(String userId);
+
+    // Reconstrucción completa desde el historial (datos anteriores a la tabla o desajustes)
+
+    @Query("DELETE FROM translation_stats")
+    void deleteAll();
+
+    // También lo usa la migración que crea la tabla (AppDatabase.MIGRATION_5_6)
+    String INSERT_FROM_HISTORY = "INSERT INTO translation_stats (userId, sourceLanguage, targetLanguage, day, "
+            + "inputMethod, count) "
+            + "SELECT IFNULL(userId, ''), IFNULL(sourceLanguage, ''), IFNULL(targetLanguage, ''), "
+            + "strftime('%Y-%m-%d', timestamp / 1000, 'unixepoch', 'localtime'), IFNULL(inputMethod, ''), COUNT(*) "
+            + "FROM translation_history GROUP BY 1, 2, 3, 4, 5";
+
+    @Query(INSERT_FROM_HISTORY)
+    void insertFromHistory();
+
+    @Query("SELECT IFNULL(SUM(count), 0) FROM translation_stats")
+    long getTotalCount();
+
+    // ¿Algún usuario con un total distinto en el resumen y en el historial? Por usuario, no en
+    // global: un desajuste en un usuario compensado con otro también cuenta
+    @Query("SELECT EXISTS(SELECT IFNULL(userId, ''), COUNT(*) FROM translation_history GROUP BY 1 "
+            + "EXCEPT SELECT userId, SUM(count) FROM translation_stats GROUP BY userId) "
+            + "OR EXISTS(SELECT userId, SUM(count) FROM translation_stats GROUP BY userId "
+            + "EXCEPT SELECT IFNULL(userId, ''), COUNT(*) FROM translation_history GROUP BY 1)")
+    boolean isOutOfSync();
+
+    // Lecturas para la pantalla de estadísticas: suman unas pocas filas por usuario
+
+    @Query("SELECT sourceLanguage, targetLanguage, SUM(count) AS count FROM translation_stats "
+            + "WHERE userId = :userId GROUP BY sourceLanguage, targetLanguage "
+            + "ORDER BY count DESC LIMIT :limit")
+    LiveData<List<LanguagePairCount>> getTopLanguagePairs(String userId, int limit);
+
+    @Query("SELECT day, SUM(count) AS count FROM translation_stats "
+            + "WHERE userId = :userId AND day >= :sinceDay GROUP BY day ORDER BY day DESC")
+    LiveData<List<DailyCount>> getDailyCounts(String userId, String sinceDay);
+
+    @Query("SELECT inputMethod, SUM(count) AS count FROM translation_stats "
+            + "WHERE userId = :userId GROUP BY inputMethod ORDER BY count DESC")
+    LiveData<List<InputMethodCount>> getInputMethodCounts(String userId);
+}
@@ -1,21 +1,40 @@
 package com.example.snap.data.database;
 
 import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
 
 import com.example.snap.data.dao.FavoriteDao;
+import com.example.snap.data.dao.TranslationCacheDao;
 import com.example.snap.data.dao.TranslationHistoryDao;
+import com.example.snap.data.dao.TranslationStatsDao;
 import com.example.snap.data.dao.UserDao;
 import com.example.snap.data.entities.Favorite;
+import com.example.snap.data.entities.FavoriteFts;
+import com.example.snap.data.entities.TranslationCacheEntry;
 import com.example.snap.data.entities.TranslationHistory;
+import com.example.snap.data.entities.TranslationHistoryFts;
+import com.example.snap.data.entities.TranslationStats;
 import com.example.snap.data.entities.User;
 
 @Database(
-        entities = {User.class, TranslationHistory.class, Favorite.class},
-        // CAMBIO: Versión 3 para aplicar los cambios de User (password/email único)
-        version = 3,
+        entities = {User.class, TranslationHistory.class, Favorite.class, TranslationCacheEntry.class,
+                TranslationStats.class, TranslationHistoryFts.class, FavoriteFts.class},
+        // Versión 4: tabla translation_cache
+        // Versión 5: índice (userId, timestamp) en translation_history
+        // Versión 6: tabla resumen translation_stats
+        // Versión 7: búsqueda de texto completo (FTS4) e índice (userId, originalText) en favorites
+        // Versión 8: columna contentHash e índice (contentHash, timestamp) en translation_history
+        // Versión 9: índice de prefijos (2 y 3 letras) en las tablas FTS
+        // Las migraciones desde la 3 están en MIGRATIONS
+        version = 9,
         exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
@@ -23,9 +42,108 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract UserDao userDao();
     public abstract TranslationHistoryDao translationHistoryDao();
     public abstract FavoriteDao favoriteDao();
+    public abstract TranslationCacheDao translationCacheDao();
+    public abstract TranslationStatsDao translationStatsDao();
 
     private static volatile AppDatabase INSTANCE;
 
+    // Migraciones desde la versión 3: el SQL es el mismo que genera Room para cada entidad, y las
+    // tablas derivadas (resumen, índice FTS, huella) se rellenan con los datos que ya había
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `translation_cache` (`cacheKey` TEXT NOT NULL, "
+                    + "`sourceLang` TEXT, `targetLang` TEXT, `translatedText` TEXT, `createdAt` INTEGER NOT NULL, "
+                    + "`lastAccess` INTEGER NOT NULL, PRIMARY KEY(`cacheKey`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_translation_cache_lastAccess` "
+                    + "ON `translation_cache` (`lastAccess`)");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_translation_history_user_time` "
+                    + "ON `translation_history` (`userId` ASC, `timestamp` DESC)");
+        }
+    };
+
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `translation_stats` (`userId` TEXT NOT NULL, "
+                    + "`sourceLanguage` TEXT NOT NULL, `targetLanguage` TEXT NOT NULL, `day` TEXT NOT NULL, "
+                    + "`inputMethod` TEXT NOT NULL, `count` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`userId`, `sourceLanguage`, `targetLanguage`, `day`, `inputMethod`))");
+            // El resumen parte del historial existente
+            db.execSQL(TranslationStatsDao.INSERT_FROM_HISTORY);
+        }
+    };
+
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_user_text` "
+                    + "ON `favorites` (`userId`, `originalText`)");
+            // Los triggers que mantienen el índice los crea Room al terminar de migrar;
+            // 'rebuild' indexa las filas que ya había
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `translation_history_fts` USING FTS4("
+                    + "`sourceText` TEXT, `translatedText` TEXT, tokenize=unicode61, content=`translation_history`)");
+            db.execSQL("INSERT INTO `translation_history_fts`(`translation_history_fts`) VALUES ('rebuild')");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `favorites_fts` USING FTS4("
+                    + "`originalText` TEXT, `translatedText` TEXT, tokenize=unicode61, content=`favorites`)");
+            db.execSQL("INSERT INTO `favorites_fts`(`favorites_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `translation_history` ADD COLUMN `contentHash` TEXT");
+            backfillContentHash(db);
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_translation_history_hash_time` "
+                    + "ON `translation_history` (`contentHash`, `timestamp`)");
+        }
+    };
+
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // Las opciones de una tabla FTS no se pueden cambiar: se recrean (el contenido está en
+            // las tablas originales) y se vuelven a indexar
+            db.execSQL("DROP TABLE IF EXISTS `translation_history_fts`");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `translation_history_fts` USING FTS4("
+                    + "`sourceText` TEXT, `translatedText` TEXT, tokenize=unicode61, content=`translation_history`, "
+                    + "prefix=`2,3`)");
+            db.execSQL("INSERT INTO `translation_history_fts`(`translation_history_fts`) VALUES ('rebuild')");
+            db.execSQL("DROP TABLE IF EXISTS `favorites_fts`");
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `favorites_fts` USING FTS4("
+                    + "`originalText` TEXT, `translatedText` TEXT, tokenize=unicode61, content=`favorites`, "
+                    + "prefix=`2,3`)");
+            db.execSQL("INSERT INTO `favorites_fts`(`favorites_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    static final Migration[] MIGRATIONS = {MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7,
+            MIGRATION_7_8, MIGRATION_8_9};
+
+    // SHA-256 no existe en SQLite: la huella de las filas existentes se calcula aquí, igual que
+    // TranslationHistoryRepository al insertar
+    private static void backfillContentHash(SupportSQLiteDatabase db) {
+        SupportSQLiteStatement update = db.compileStatement(
+                "UPDATE `translation_history` SET `contentHash` = ? WHERE `id` = ?");
+        try (Cursor cursor = db.query("SELECT `id`, `userId`, `sourceText`, `translatedText`, "
+                + "`sourceLanguage`, `targetLanguage` FROM `translation_history`")) {
+            while (cursor.moveToNext()) {
+                update.bindString(1, ContentHash.of(cursor.getString(1), cursor.getString(2),
+                        cursor.getString(3), cursor.getString(4), cursor.getString(5)));
+                update.bindLong(2, cursor.getLong(0));
+                update.executeUpdateDelete();
+            }
+        }
+    }
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
@@ -35,8 +153,9 @@ public abstract class AppDatabase extends RoomDatabase {
                                     AppDatabase.class,
                                     "translation_db"
                             )
-                            // Esto evitará el crash borrando los datos viejos
-                            .fallbackToDestructiveMigration()
+                            .addMigrations(MIGRATIONS)
+                            // Las versiones anteriores a la 3 no tienen migración: se empieza de cero
+                            .fallbackToDestructiveMigrationFrom(1, 2)
                             .build();
                 }
             }
@@ -0,0 +1,35 @@
+package com.example.snap.data.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Huella SHA-256 (hex) de varios campos de texto, para comparar filas por igualdad con una sola
+ * columna indexada en lugar de varias columnas de texto largo. Los campos se separan con \0 para
+ * que ("ab", "c") y ("a", "bc") no coincidan; null cuenta como "".
+ */
+public final class ContentHash {
+
+    private ContentHash() {}
+
+    public static String of(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) joined.append('\u0000');
+            if (parts[i] != null) joined.append(parts[i]);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(joined.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.snap.data.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Convierte lo que escribe el usuario en una consulta MATCH de FTS4:
+ * - cada palabra suelta busca por prefijo ("hol" encuentra "hola", "holanda")
+ * - el texto entre comillas se busca tal cual: frase exacta, o palabra exacta si es una sola
+ * Todas las condiciones deben cumplirse (AND implícito). Se quitan los caracteres con
+ * significado en la sintaxis de FTS (*, -, :, paréntesis...) y se pasan las palabras a
+ * minúsculas para que AND/OR/NOT no se interpreten como operadores.
+ */
+public final class FtsQuery {
+
+    /**
+     * Coincidencias que se ordenan por relevancia: las más recientes hasta este número. El orden
+     * por relevancia (offsets()) cuesta por fila, así que no se calcula sobre todo el historial
+     */
+    public static final int MAX_RANKED = 500;
+
+    private FtsQuery() {}
+
+    /**
+     * @return la consulta para MATCH, o "" si no queda ningún término que buscar
+     */
+    public static String build(String input) {
+        if (input == null) return "";
+
+        List<String> terms = new ArrayList<>();
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                // Frase: hasta la siguiente comilla o el final
+                int close = input.indexOf('"', i + 1);
+                int end = close < 0 ? length : close;
+                List<String> words = words(input.substring(i + 1, end));
+                if (!words.isEmpty()) {
+                    terms.add("\"" + String.join(" ", words) + "\"");
+                }
+                i = end + 1;
+            } else {
+                int next = input.indexOf('"', i);
+                int end = next < 0 ? length : next;
+                for (String word : words(input.substring(i, end))) {
+                    terms.add(word + "*");
+                }
+                i = end;
+            }
+        }
+        return String.join(" ", terms);
+    }
+
+    // Palabras formadas solo por letras y dígitos, en minúsculas
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(codePoint);
+            } else if (word.length() > 0) {
+                words.add(word.toString().toLowerCase(Locale.ROOT));
+                word.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (word.length() > 0) words.add(word.toString().toLowerCase(Locale.ROOT));
+        return words;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.snap.data.entities;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "favorites")
+// Índice (userId, originalText): isFavorite se resuelve con una búsqueda en el índice
+@Entity(tableName = "favorites",
+        indices = {@Index(name = "index_favorites_user_text", value = {"userId", "originalText"})})
 public class Favorite {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
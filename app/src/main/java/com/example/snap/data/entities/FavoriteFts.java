@@ -0,0 +1,24 @@
+package com.example.snap.data.entities;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Índice de texto completo sobre favorites; igual que TranslationHistoryFts (contenido
+ * externo mantenido por triggers, rowid = id del favorito, índice de prefijos de 2 y 3 letras).
+ */
+@Fts4(contentEntity = Favorite.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "favorites_fts")
+public class FavoriteFts {
+    private String originalText;
+    private String translatedText;
+
+    public FavoriteFts(String originalText, String translatedText) {
+        this.originalText = originalText;
+        this.translatedText = translatedText;
+    }
+
+    public String getOriginalText() { return originalText; }
+    public String getTranslatedText() { return translatedText; }
+}
@@ -0,0 +1,53 @@
+package com.example.snap.data.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Traducción cacheada en disco (segundo nivel de TranslationCache).
+ * La clave combina texto normalizado + idioma origen + idioma destino.
+ */
+@Entity(tableName = "translation_cache", indices = {@Index(value = {"lastAccess"})})
+public class TranslationCacheEntry {
+    @PrimaryKey
+    @NonNull
+    private String cacheKey;
+
+    private String sourceLang;
+    private String targetLang;
+    private String translatedText;
+    private long createdAt;
+    private long lastAccess;
+
+    public TranslationCacheEntry(@NonNull String cacheKey, String sourceLang, String targetLang,
+                                 String translatedText, long createdAt, long lastAccess) {
+        this.cacheKey = cacheKey;
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+        this.translatedText = translatedText;
+        this.createdAt = createdAt;
+        this.lastAccess = lastAccess;
+    }
+
+    // Getters y Setters
+    @NonNull
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(@NonNull String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getSourceLang() { return sourceLang; }
+    public void setSourceLang(String sourceLang) { this.sourceLang = sourceLang; }
+
+    public String getTargetLang() { return targetLang; }
+    public void setTargetLang(String targetLang) { this.targetLang = targetLang; }
+
+    public String getTranslatedText() { return translatedText; }
+    public void setTranslatedText(String translatedText) { this.translatedText = translatedText; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getLastAccess() { return lastAccess; }
+    public void setLastAccess(long lastAccess) { this.lastAccess = lastAccess; }
+}
@@ -1,10 +1,18 @@
 package com.example.snap.data.entities;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.ColumnInfo;
 
-@Entity(tableName = "translation_history")
+// Índice (userId, timestamp DESC): el historial de un usuario se lee ya ordenado, página a página
+// Índice (contentHash, timestamp): la búsqueda de duplicados recientes no lee la tabla
+@Entity(tableName = "translation_history",
+        indices = {@Index(name = "index_translation_history_user_time",
+                value = {"userId", "timestamp"},
+                orders = {Index.Order.ASC, Index.Order.DESC}),
+                @Index(name = "index_translation_history_hash_time",
+                        value = {"contentHash", "timestamp"})})
 public class TranslationHistory {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
@@ -22,6 +30,9 @@ public class TranslationHistory {
 
     private String category;
 
+    // Huella de (userId, textos, idiomas), ver TranslationHistoryRepository.insert
+    private String contentHash;
+
     // Constructores
     public TranslationHistory() {}
 
@@ -66,4 +77,7 @@ public class TranslationHistory {
 
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.snap.data.entities;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Índice de texto completo sobre translation_history (textos original y traducido).
+ *
+ * Es una tabla FTS4 de contenido externo: no duplica los textos, y Room crea los triggers que
+ * la mantienen al día con cada alta, cambio o baja del historial. Su rowid es el id del
+ * historial. unicode61 separa palabras en cualquier alfabeto e ignora mayúsculas y tildes.
+ * Los prefijos de 2 y 3 letras tienen índice propio: son los más habituales mientras se escribe
+ * ("ho*") y, sin él, los que más términos recorren.
+ */
+@Fts4(contentEntity = TranslationHistory.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "translation_history_fts")
+public class TranslationHistoryFts {
+    private String sourceText;
+    private String translatedText;
+
+    public TranslationHistoryFts(String sourceText, String translatedText) {
+        this.sourceText = sourceText;
+        this.translatedText = translatedText;
+    }
+
+    public String getSourceText() { return sourceText; }
+    public String getTranslatedText() { return translatedText; }
+}
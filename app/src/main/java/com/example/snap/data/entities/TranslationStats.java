@@ -0,0 +1,48 @@
+package com.example.snap.data.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Resumen precalculado del historial: cuántas traducciones hay por
+ * (usuario, par de idiomas, día, método de entrada).
+ *
+ * Lo mantiene TranslationHistoryRepository en la misma transacción que cada alta o baja del
+ * historial, así la pantalla de estadísticas lee unas pocas filas sin recorrer el historial.
+ * Los valores nulos del historial se guardan como "" (forman parte de la clave primaria).
+ */
+@Entity(tableName = "translation_stats",
+        primaryKeys = {"userId", "sourceLanguage", "targetLanguage", "day", "inputMethod"})
+public class TranslationStats {
+    @NonNull
+    private String userId;
+    @NonNull
+    private String sourceLanguage;
+    @NonNull
+    private String targetLanguage;
+    // yyyy-MM-dd en hora local, igual que strftime(..., 'localtime')
+    @NonNull
+    private String day;
+    @NonNull
+    private String inputMethod;
+
+    private int count;
+
+    public TranslationStats(@NonNull String userId, @NonNull String sourceLanguage,
+                            @NonNull String targetLanguage, @NonNull String day,
+                            @NonNull String inputMethod, int count) {
+        this.userId = userId;
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.day = day;
+        this.inputMethod = inputMethod;
+        this.count = count;
+    }
+
+    @NonNull public String getUserId() { return userId; }
+    @NonNull public String getSourceLanguage() { return sourceLanguage; }
+    @NonNull public String getTargetLanguage() { return targetLanguage; }
+    @NonNull public String getDay() { return day; }
+    @NonNull public String getInputMethod() { return inputMethod; }
+    public int getCount() { return count; }
+}
@@ -0,0 +1,19 @@
+package com.example.snap.data.model;
+
+/**
+ * Fila de agregado: traducciones de un día (yyyy-MM-dd, hora local).
+ * Proyección de consulta (no es una tabla).
+ */
+public class DailyCount {
+    private final String day;
+    private final int count;
+
+    public DailyCount(String day, int count) {
+        this.day = day;
+        this.count = count;
+    }
+
+    public String getDay() { return day; }
+
+    public int getCount() { return count; }
+}
@@ -0,0 +1,19 @@
+package com.example.snap.data.model;
+
+/**
+ * Fila de agregado: traducciones por método de entrada ("TEXT", "CAMERA", "VOICE").
+ * Proyección de consulta (no es una tabla).
+ */
+public class InputMethodCount {
+    private final String inputMethod;
+    private final int count;
+
+    public InputMethodCount(String inputMethod, int count) {
+        this.inputMethod = inputMethod;
+        this.count = count;
+    }
+
+    public String getInputMethod() { return inputMethod; }
+
+    public int getCount() { return count; }
+}
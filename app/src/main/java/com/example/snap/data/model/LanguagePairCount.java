@@ -0,0 +1,23 @@
+package com.example.snap.data.model;
+
+/**
+ * Fila de agregado: cuántas traducciones hay de un par de idiomas.
+ * Proyección de consulta (no es una tabla).
+ */
+public class LanguagePairCount {
+    private final String sourceLanguage;
+    private final String targetLanguage;
+    private final int count;
+
+    public LanguagePairCount(String sourceLanguage, String targetLanguage, int count) {
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.count = count;
+    }
+
+    public String getSourceLanguage() { return sourceLanguage; }
+
+    public String getTargetLanguage() { return targetLanguage; }
+
+    public int getCount() { return count; }
+}
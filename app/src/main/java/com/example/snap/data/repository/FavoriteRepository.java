@@ -2,7 +2,13 @@ package com.example.snap.data.repository;
 
 import android.app.Application;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.database.FtsQuery;
 import com.example.snap.data.dao.FavoriteDao;
 import com.example.snap.data.entities.Favorite;
 
@@ -11,6 +17,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class FavoriteRepository {
+    // Filas por página de la búsqueda
+    private static final int PAGE_SIZE = 30;
 
     private FavoriteDao favoriteDao;
     private ExecutorService executorService;
@@ -41,6 +49,18 @@ public class FavoriteRepository {
         return favoriteDao.getAllFavoritesByUser(userId);
     }
 
+    // Búsqueda paginada en favoritos (FTS4), igual que TranslationHistoryRepository.searchHistoryPaged
+    public LiveData<PagingData<Favorite>> searchFavoritesPaged(String userId, String text) {
+        String query = FtsQuery.build(text);
+        if (query.isEmpty()) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        Pager<Integer, Favorite> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                () -> favoriteDao.searchFavoritesPagingSource(userId, query));
+        return PagingLiveData.getLiveData(pager);
+    }
+
     // Obtener estadísticas de idiomas por usuario
     public LiveData<List<String>> getFavoriteLanguagesByUser(String userId) {
         return favoriteDao.getFavoriteLanguagesByUser(userId);
@@ -2,56 +2,186 @@ package com.example.snap.data.repository;
 
 import android.app.Application;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.database.ContentHash;
+import com.example.snap.data.database.FtsQuery;
 import com.example.snap.data.dao.TranslationHistoryDao;
+import com.example.snap.data.dao.TranslationStatsDao;
 import com.example.snap.data.entities.TranslationHistory;
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TranslationHistoryRepository {
+    // Filas por página del historial paginado
+    private static final int PAGE_SIZE = 30;
+
+    // Dos traducciones iguales dentro de este margen se guardan una sola vez
+    private static final long DUPLICATE_WINDOW_MS = 2000;
+
+    // La comprobación de la tabla resumen se hace una vez por proceso
+    private static final AtomicBoolean STATS_CHECKED = new AtomicBoolean();
+
+    private AppDatabase database;
     private TranslationHistoryDao dao;
+    private TranslationStatsDao statsDao;
     private ExecutorService executorService;
 
     public TranslationHistoryRepository(Application application) {
-        AppDatabase database = AppDatabase.getDatabase(application);
-        dao = database.translationHistoryDao();
-        executorService = Executors.newSingleThreadExecutor();
+        this(AppDatabase.getDatabase(application), Executors.newSingleThreadExecutor());
+    }
+
+    // Para pruebas: base de datos en memoria y executor propio
+    TranslationHistoryRepository(AppDatabase database, ExecutorService executorService) {
+        this.database = database;
+        this.dao = database.translationHistoryDao();
+        this.statsDao = database.translationStatsDao();
+        this.executorService = executorService;
+
+        if (STATS_CHECKED.compareAndSet(false, true)) {
+            executorService.execute(this::rebuildStatsIfNeeded);
+        }
     }
 
     public LiveData<List<TranslationHistory>> getHistoryByUserId(String userId) {
         return dao.getAllHistoryByUser(userId);
     }
 
+    /**
+     * Historial por páginas: solo se cargan las filas cercanas a lo que se ve en pantalla,
+     * así la memoria y el tiempo de consulta no crecen con el tamaño del historial.
+     */
+    public LiveData<PagingData<TranslationHistory>> getHistoryPaged(String userId) {
+        Pager<Integer, TranslationHistory> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                () -> dao.getHistoryPagingSource(userId));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    /**
+     * Búsqueda en el historial (textos original y traducido) sobre el índice FTS4, por
+     * páginas y ordenada por relevancia. Palabras por prefijo, frases entre comillas.
+     */
+    public LiveData<PagingData<TranslationHistory>> searchHistoryPaged(String userId, String text) {
+        String query = FtsQuery.build(text);
+        if (query.isEmpty()) {
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        Pager<Integer, TranslationHistory> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                () -> dao.searchHistoryPagingSource(userId, query));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    // Estadísticas: se leen de la tabla resumen, no del historial
+
+    public LiveData<List<LanguagePairCount>> getTopLanguagePairs(String userId, int limit) {
+        return statsDao.getTopLanguagePairs(userId, limit);
+    }
+
+    public LiveData<List<DailyCount>> getDailyCounts(String userId, long sinceMillis) {
+        return statsDao.getDailyCounts(userId, dayOf(sinceMillis));
+    }
+
+    public LiveData<List<InputMethodCount>> getInputMethodCounts(String userId) {
+        return statsDao.getInputMethodCounts(userId);
+    }
+
     public void insert(TranslationHistory history) {
-        executorService.execute(() -> {
-            // Verificar si ya existe un registro muy similar en los últimos 2 segundos
-            int duplicates = dao.countRecentDuplicates(
-                history.getUserId(),
-                history.getSourceText(),
-                history.getTranslatedText(),
-                history.getSourceLanguage(),
-                history.getTargetLanguage(),
-                System.currentTimeMillis()
-            );
-            
+        // Historial y resumen cambian en la misma transacción
+        executorService.execute(() -> database.runInTransaction(() -> {
+            // Verificar si ya existe la misma traducción en los últimos 2 segundos (p. ej. la
+            // cámara repitiendo un texto): una consulta al índice de la huella
+            history.setContentHash(contentHashOf(history));
+            boolean duplicate = dao.existsRecent(history.getContentHash(),
+                    System.currentTimeMillis() - DUPLICATE_WINDOW_MS);
+
             // Solo insertar si no hay duplicados recientes
-            if (duplicates == 0) {
-                dao.insert(history);
+            if (!duplicate && dao.insert(history) != -1) {
+                addToStats(history, 1);
             }
-        });
+        }));
     }
 
     public void delete(TranslationHistory history) {
-        executorService.execute(() -> dao.delete(history));
+        executorService.execute(() -> database.runInTransaction(() -> {
+            if (dao.delete(history) > 0) {
+                addToStats(history, -1);
+            }
+        }));
     }
 
     public void clearHistory(String userId) {
-        executorService.execute(() -> dao.deleteHistoryByUser(userId));
+        clearAllHistory(userId);
     }
     
     // Borrar todo el historial de un usuario
     public void clearAllHistory(String userId) {
-        executorService.execute(() -> dao.deleteHistoryByUser(userId));
+        executorService.execute(() -> database.runInTransaction(() -> {
+            dao.deleteHistoryByUser(userId);
+            statsDao.deleteByUser(userId);
+        }));
+    }
+
+    /**
+     * Recalcula la tabla resumen desde el historial (en segundo plano)
+     */
+    public void rebuildStats() {
+        executorService.execute(() -> database.runInTransaction(this::rebuildStatsNow));
+    }
+
+    // Desajustes (p. ej. un proceso que murió a medias en versiones anteriores): si el total de
+    // algún usuario no cuadra con su historial, se reconstruye
+    void rebuildStatsIfNeeded() {
+        database.runInTransaction(() -> {
+            if (statsDao.isOutOfSync()) {
+                rebuildStatsNow();
+            }
+        });
+    }
+
+    private void rebuildStatsNow() {
+        statsDao.deleteAll();
+        statsDao.insertFromHistory();
+    }
+
+    // Llamar dentro de la transacción que modifica el historial
+    private void addToStats(TranslationHistory history, int delta) {
+        String userId = orEmpty(history.getUserId());
+        String sourceLanguage = orEmpty(history.getSourceLanguage());
+        String targetLanguage = orEmpty(history.getTargetLanguage());
+        String day = dayOf(history.getTimestamp());
+        String inputMethod = orEmpty(history.getInputMethod());
+
+        statsDao.ensureRow(userId, sourceLanguage, targetLanguage, day, inputMethod);
+        statsDao.addToCount(userId, sourceLanguage, targetLanguage, day, inputMethod, delta);
+        if (delta < 0) {
+            statsDao.deleteEmptyRows(userId);
+        }
+    }
+
+    private static String contentHashOf(TranslationHistory history) {
+        return ContentHash.of(history.getUserId(), history.getSourceText(), history.getTranslatedText(),
+                history.getSourceLanguage(), history.getTargetLanguage());
+    }
+
+    // yyyy-MM-dd en hora local, el mismo formato que strftime(..., 'localtime') en SQL
+    static String dayOf(long timestampMillis) {
+        return Instant.ofEpochMilli(timestampMillis).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
     }
 }
\ No newline at end of file
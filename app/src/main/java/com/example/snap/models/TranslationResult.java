@@ -0,0 +1,45 @@
+package com.example.snap.models;
+
+/**
+ * Resultado de una petición de traducción concreta.
+ * Cada petición tiene su propio id para que varios resultados en vuelo no se mezclen.
+ */
+public class TranslationResult {
+    private final long requestId;
+    private final String sourceText;
+    private final String translatedText;
+    private final String error;
+    private final String provider; // Backend que respondió ("mlkit", "gtx"...), puede ser null
+
+    private TranslationResult(long requestId, String sourceText, String translatedText, String error,
+                              String provider) {
+        this.requestId = requestId;
+        this.sourceText = sourceText;
+        this.translatedText = translatedText;
+        this.error = error;
+        this.provider = provider;
+    }
+
+    public static TranslationResult success(long requestId, String sourceText, String translatedText) {
+        return new TranslationResult(requestId, sourceText, translatedText, null, null);
+    }
+
+    public static TranslationResult success(long requestId, String sourceText, String translatedText,
+                                            String provider) {
+        return new TranslationResult(requestId, sourceText, translatedText, null, provider);
+    }
+
+    public static TranslationResult error(long requestId, String sourceText, String error) {
+        return new TranslationResult(requestId, sourceText, null, error, null);
+    }
+
+    public long getRequestId() { return requestId; }
+    public String getSourceText() { return sourceText; }
+    public String getTranslatedText() { return translatedText; }
+    public String getError() { return error; }
+    public String getProvider() { return provider; }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -5,16 +5,33 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.snap.data.entities.Favorite;
 import com.example.snap.data.entities.TranslationHistory;
 import com.example.snap.data.entities.User;
+import com.example.snap.data.model.DailyCount;
+import com.example.snap.data.model.InputMethodCount;
+import com.example.snap.data.model.LanguagePairCount;
 import com.example.snap.data.repository.FavoriteRepository;
 import com.example.snap.data.repository.TranslationHistoryRepository;
 import com.example.snap.data.repository.UserRepository;
+import com.example.snap.models.TranslationResult;
+import com.example.snap.services.MlKitTranslationProvider;
 import com.example.snap.services.NetworkTranslationService;
+import com.example.snap.services.SpeechAudioCache;
+import com.example.snap.services.TranslationEngine;
+import com.example.snap.services.TranslationException;
+import com.example.snap.services.TranslationProvider;
+import com.example.snap.services.TranslationRouter;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TranslationViewModel extends AndroidViewModel {
 
@@ -23,8 +40,16 @@ public class TranslationViewModel extends AndroidViewModel {
     private UserRepository userRepository;
 
     private NetworkTranslationService networkService;
+    private TranslationRouter router;
     private MutableLiveData<String> currentTranslation;
 
+    // Generador de ids para las peticiones con canal de resultado propio
+    private final AtomicLong requestIds = new AtomicLong();
+
+    // Historial paginado del usuario actual (cacheado en el scope del ViewModel)
+    private LiveData<PagingData<TranslationHistory>> pagedHistory;
+    private String pagedHistoryUserId;
+
     public TranslationViewModel(Application application) {
         super(application);
         historyRepository = new TranslationHistoryRepository(application);
@@ -32,6 +57,7 @@ public class TranslationViewModel extends AndroidViewModel {
         userRepository = new UserRepository(application);
 
         networkService = new NetworkTranslationService(application);
+        router = TranslationRouter.getInstance(application);
         currentTranslation = new MutableLiveData<>();
     }
 
@@ -68,6 +94,35 @@ public class TranslationViewModel extends AndroidViewModel {
         return historyRepository.getHistoryByUserId(userId);
     }
 
+    /**
+     * Historial paginado; las páginas se guardan en el ViewModel para sobrevivir a
+     * rotaciones sin volver a consultar
+     */
+    public LiveData<PagingData<TranslationHistory>> getHistoryPaged(String userId) {
+        if (pagedHistory == null || !Objects.equals(pagedHistoryUserId, userId)) {
+            pagedHistoryUserId = userId;
+            pagedHistory = PagingLiveData.cachedIn(historyRepository.getHistoryPaged(userId), this);
+        }
+        return pagedHistory;
+    }
+
+    // Búsqueda de texto completo en el historial (una LiveData nueva por cada consulta)
+    public LiveData<PagingData<TranslationHistory>> searchHistory(String userId, String text) {
+        return PagingLiveData.cachedIn(historyRepository.searchHistoryPaged(userId, text), this);
+    }
+
+    public LiveData<List<LanguagePairCount>> getTopLanguagePairs(String userId, int limit) {
+        return historyRepository.getTopLanguagePairs(userId, limit);
+    }
+
+    public LiveData<List<DailyCount>> getDailyCounts(String userId, long sinceMillis) {
+        return historyRepository.getDailyCounts(userId, sinceMillis);
+    }
+
+    public LiveData<List<InputMethodCount>> getInputMethodCounts(String userId) {
+        return historyRepository.getInputMethodCounts(userId);
+    }
+
     public void clearHistory(String userId) {
         historyRepository.clearHistory(userId);
     }
@@ -78,24 +133,129 @@ public class TranslationViewModel extends AndroidViewModel {
 
     public void translateText(String text, String sourceLang, String targetLang, String userId) {
         showLoading();
-        networkService.translateText(text, sourceLang, targetLang, new NetworkTranslationService.TranslationCallback() {
-            @Override
-            public void onSuccess(String translatedText) {
-                currentTranslation.postValue(translatedText);
+        translateAsync(text, sourceLang, targetLang, userId).whenComplete((translation, error) -> {
+            if (error != null) {
+                currentTranslation.postValue("Error: " + TranslationEngine.describe(error));
+            } else {
+                currentTranslation.postValue(translation.getTranslatedText());
+            }
+        });
+    }
+
+    /**
+     * Traduce con un canal de resultado propio para esta petición.
+     * A diferencia de translateText, no publica en currentTranslation ni emite
+     * "Traduciendo...", así que se pueden lanzar muchas a la vez sin que se crucen.
+     * El LiveData devuelto emite un único valor.
+     */
+    public LiveData<TranslationResult> translateForResult(String text, String sourceLang, String targetLang,
+            String userId) {
+        return toResultLiveData(text, translateAsync(text, sourceLang, targetLang, userId));
+    }
+
+    /**
+     * Un bloque de la cámara en vivo: modo hedging del router (importa la latencia de cola más
+     * que alguna petición extra) y sin guardar en el historial, porque los fragmentos de cada
+     * frame no son traducciones pedidas por el usuario.
+     */
+    public LiveData<TranslationResult> translateCameraBlock(String text, String sourceLang, String targetLang) {
+        return toResultLiveData(text, router.translateHedged(text, sourceLang, targetLang));
+    }
+
+    /**
+     * Como translateCameraBlock pero con future: no usa LiveData, así que se puede llamar desde
+     * cualquier hilo (la tubería de la cámara en vivo traduce desde el hilo de análisis).
+     */
+    public CompletableFuture<String> translateCameraBlockAsync(String text, String sourceLang, String targetLang) {
+        return router.translateHedged(text, sourceLang, targetLang).thenApply(TranslationResult::getTranslatedText);
+    }
 
-                // Solo intentamos guardar si hay un usuario logueado
+    /**
+     * Si el router elegiría ahora la traducción on-device (ML Kit) para este par. Si no, los
+     * bloques de un frame deben ir en lote (translateBatch) y no uno por petición.
+     */
+    public boolean prefersOnDevice(String sourceLang, String targetLang) {
+        List<TranslationProvider> ranked = router.rank(sourceLang, targetLang);
+        return !ranked.isEmpty() && ranked.get(0) instanceof MlKitTranslationProvider;
+    }
+
+    /**
+     * Versión con future: se puede componer, poner timeout o cancelar.
+     * El backend (ML Kit, gtx, endpoint propio) lo elige TranslationRouter.
+     * Guarda en el historial igual que translateText.
+     */
+    public CompletableFuture<TranslationResult> translateAsync(String text, String sourceLang, String targetLang,
+            String userId) {
+        CompletableFuture<TranslationResult> future = router.translate(text, sourceLang, targetLang);
+        future.thenAccept(translation -> {
+            if (userId != null) {
+                saveToHistory(userId, text, translation.getTranslatedText(), sourceLang, targetLang, "TEXT");
+            }
+        });
+        return future;
+    }
+
+    private LiveData<TranslationResult> toResultLiveData(String text, CompletableFuture<TranslationResult> future) {
+        long requestId = requestIds.incrementAndGet();
+        MutableLiveData<TranslationResult> result = new MutableLiveData<>();
+        future.whenComplete((translation, error) -> {
+            if (error != null) {
+                result.postValue(TranslationResult.error(requestId, text, TranslationEngine.describe(error)));
+            } else {
+                result.postValue(TranslationResult.success(requestId, text, translation.getTranslatedText()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Traduce todos los segmentos de una vez (bloques OCR de un frame).
+     * No toca currentTranslation: cada segmento se entrega por su propio callback.
+     */
+    public void translateBatch(List<String> texts, String sourceLang, String targetLang, String userId,
+            NetworkTranslationService.BatchTranslationCallback callback) {
+        networkService.translateBatch(texts, sourceLang, targetLang, new NetworkTranslationService.BatchTranslationCallback() {
+            @Override
+            public void onSegmentSuccess(int index, String translatedText) {
                 if (userId != null) {
-                    saveToHistory(userId, text, translatedText, sourceLang, targetLang, "TEXT");
+                    saveToHistory(userId, texts.get(index), translatedText, sourceLang, targetLang, "CAMERA");
                 }
+                callback.onSegmentSuccess(index, translatedText);
             }
 
             @Override
-            public void onError(String error) {
-                currentTranslation.postValue("Error: " + error);
+            public void onSegmentError(int index, String error) {
+                callback.onSegmentError(index, error);
             }
         });
     }
 
+    /**
+     * translateBatch con un future por segmento (en el mismo orden), para quien no está en el
+     * hilo principal. Un segmento fallido termina con TranslationException.
+     * Pensado para la cámara en vivo: no guarda nada en el historial (cada frame retraduciría
+     * lo mismo); la foto fija usa translateBatch con el usuario.
+     */
+    public List<CompletableFuture<String>> translateBatchAsync(List<String> texts, String sourceLang,
+            String targetLang) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            futures.add(new CompletableFuture<>());
+        }
+        translateBatch(texts, sourceLang, targetLang, null, new NetworkTranslationService.BatchTranslationCallback() {
+            @Override
+            public void onSegmentSuccess(int index, String translatedText) {
+                futures.get(index).complete(translatedText);
+            }
+
+            @Override
+            public void onSegmentError(int index, String error) {
+                futures.get(index).completeExceptionally(new TranslationException(error));
+            }
+        });
+        return futures;
+    }
+
     private void saveToHistory(String userId, String sourceText, String translatedText,
             String sourceLang, String targetLang, String inputMethod) {
 
@@ -130,6 +290,8 @@ public class TranslationViewModel extends AndroidViewModel {
         if (userId != null) {
             Favorite fav = new Favorite(userId, original, translated, sLang, tLang, isExp);
             favoriteRepository.insert(fav);
+            // Los favoritos se repiten a menudo: dejar su audio sintetizado
+            SpeechAudioCache.getInstance(getApplication()).prefetch(translated, new Locale(tLang));
         }
     }
 
@@ -137,6 +299,7 @@ public class TranslationViewModel extends AndroidViewModel {
         if (userId != null) {
             Favorite fav = new Favorite(userId, original, translated, sLang, tLang, false);
             favoriteRepository.insert(fav);
+            SpeechAudioCache.getInstance(getApplication()).prefetch(translated, new Locale(tLang));
         }
     }
 
@@ -144,6 +307,11 @@ public class TranslationViewModel extends AndroidViewModel {
         return favoriteRepository.getAllFavoritesByUser(userId);
     }
 
+    // Búsqueda de texto completo en favoritos
+    public LiveData<PagingData<Favorite>> searchFavorites(String userId, String text) {
+        return PagingLiveData.cachedIn(favoriteRepository.searchFavoritesPaged(userId, text), this);
+    }
+
     public LiveData<List<String>> getFavoriteLanguages(String userId) {
         return favoriteRepository.getFavoriteLanguagesByUser(userId);
     }
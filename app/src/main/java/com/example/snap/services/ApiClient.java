@@ -1,19 +1,122 @@
 package com.example.snap.services;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+/**
+ * Cliente HTTP único para toda la app (Retrofit de gtx y TranslateApiClient).
+ * Reutilizar el mismo OkHttpClient mantiene las conexiones vivas entre traducciones cortas,
+ * que es donde más pesa el coste de abrir conexión (DNS + TCP + TLS).
+ */
 public class ApiClient {
     private static final String BASE_URL = "https://translate.googleapis.com/";
-    private static Retrofit retrofit = null;
 
-    public static TranslationApiService getApiService() {
-        if (retrofit == null) {
-            retrofit = new Retrofit.Builder()
+    /**
+     * Parámetros del cliente HTTP. Se aplican en configure() antes del primer uso.
+     */
+    public static class HttpConfig {
+        private int maxIdleConnections = 8;
+        private long keepAliveMs = TimeUnit.MINUTES.toMillis(5);
+        private long connectTimeoutMs = 8_000L;
+        private long readTimeoutMs = 8_000L;
+        private long writeTimeoutMs = 8_000L;
+        private long dnsTtlMs = TimeUnit.MINUTES.toMillis(10);
+        private boolean http2 = true;
+
+        public HttpConfig setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public HttpConfig setKeepAliveMs(long keepAliveMs) {
+            this.keepAliveMs = keepAliveMs;
+            return this;
+        }
+
+        public HttpConfig setConnectTimeoutMs(long connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            return this;
+        }
+
+        public HttpConfig setReadTimeoutMs(long readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+            return this;
+        }
+
+        public HttpConfig setWriteTimeoutMs(long writeTimeoutMs) {
+            this.writeTimeoutMs = writeTimeoutMs;
+            return this;
+        }
+
+        public HttpConfig setDnsTtlMs(long dnsTtlMs) {
+            this.dnsTtlMs = dnsTtlMs;
+            return this;
+        }
+
+        public HttpConfig setHttp2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+    }
+
+    private static HttpConfig config = new HttpConfig();
+    private static OkHttpClient httpClient = null;
+    private static TranslationApiService apiService = null;
+
+    /**
+     * Cambia la configuración del cliente. Solo tiene efecto si aún no se ha creado.
+     */
+    public static synchronized void configure(HttpConfig httpConfig) {
+        if (httpClient == null) {
+            config = httpConfig;
+        }
+    }
+
+    /**
+     * Cliente HTTP compartido por todas las llamadas de traducción.
+     * Su Dispatcher limita las peticiones simultáneas (ver TranslationEngine).
+     * La compresión gzip la negocia OkHttp de forma transparente (Accept-Encoding).
+     */
+    public static synchronized OkHttpClient getHttpClient() {
+        if (httpClient == null) {
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(config.maxIdleConnections,
+                            config.keepAliveMs, TimeUnit.MILLISECONDS))
+                    .dns(new CachingDns(Dns.SYSTEM, config.dnsTtlMs))
+                    .connectTimeout(config.connectTimeoutMs, TimeUnit.MILLISECONDS)
+                    .readTimeout(config.readTimeoutMs, TimeUnit.MILLISECONDS)
+                    .writeTimeout(config.writeTimeoutMs, TimeUnit.MILLISECONDS)
+                    .retryOnConnectionFailure(true);
+
+            if (config.http2) {
+                builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+            } else {
+                builder.protocols(Arrays.asList(Protocol.HTTP_1_1));
+            }
+            httpClient = builder.build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Proxy de Retrofit, creado una sola vez (retrofit.create usa reflexión en cada llamada).
+     */
+    public static synchronized TranslationApiService getApiService() {
+        if (apiService == null) {
+            Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)
+                    .client(getHttpClient())
                     .addConverterFactory(GsonConverterFactory.create())
                     .build();
+            apiService = retrofit.create(TranslationApiService.class);
         }
-        return retrofit.create(TranslationApiService.class);
+        return apiService;
     }
-}
\ No newline at end of file
+}
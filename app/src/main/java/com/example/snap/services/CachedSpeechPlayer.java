@@ -0,0 +1,51 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Reproduce frases desde SpeechAudioCache con MediaPlayer, sin pasar por el motor TTS.
+ * Una sola reproducción a la vez; usar desde el hilo principal.
+ */
+public class CachedSpeechPlayer {
+
+    private static final String TAG = "CachedSpeechPlayer";
+
+    private final Context context;
+    private MediaPlayer player;
+
+    public CachedSpeechPlayer(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Reproduce el texto si su audio está en caché. Devuelve false si no lo está (o no se
+     * pudo abrir): entonces hay que hablarlo con el motor TTS.
+     */
+    public boolean play(String text, Locale locale) {
+        File audio = SpeechAudioCache.getInstance(context).getCached(text, locale);
+        if (audio == null) return false;
+
+        stop();
+        player = MediaPlayer.create(context, Uri.fromFile(audio));
+        if (player == null) {
+            Log.w(TAG, "No se pudo abrir el audio cacheado");
+            return false;
+        }
+        player.setOnCompletionListener(mp -> stop());
+        player.start();
+        return true;
+    }
+
+    public void stop() {
+        if (player != null) {
+            player.release();
+            player = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.snap.services;
+
+import androidx.annotation.NonNull;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Dns;
+
+/**
+ * Resolución DNS con caché en memoria durante ttlMs.
+ * Si la resolución falla y tenemos una entrada caducada, se reutiliza (mejor que fallar sin red estable).
+ */
+public class CachingDns implements Dns {
+
+    private static class Entry {
+        final List<InetAddress> addresses;
+        final long expiresAt;
+
+        Entry(List<InetAddress> addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Dns delegate;
+    private final long ttlMs;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public CachingDns(Dns delegate, long ttlMs) {
+        this.delegate = delegate;
+        this.ttlMs = ttlMs;
+    }
+
+    @NonNull
+    @Override
+    public List<InetAddress> lookup(@NonNull String hostname) throws UnknownHostException {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(hostname);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.addresses;
+        }
+
+        try {
+            List<InetAddress> addresses = delegate.lookup(hostname);
+            cache.put(hostname, new Entry(addresses, now + ttlMs));
+            return addresses;
+        } catch (UnknownHostException e) {
+            if (entry != null) {
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.snap.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lee textos largos frase a frase: el primer trozo entra con QUEUE_FLUSH y el resto con
+ * QUEUE_ADD, así el motor empieza a sonar en cuanto tiene sintetizada la primera frase y va
+ * sintetizando las siguientes mientras suena la anterior. El tiempo hasta el primer audio ya no
+ * depende de la longitud del texto, y ningún trozo pasa del límite de entrada del motor.
+ *
+ * El progreso llega por UtteranceProgressListener y se entrega al Listener en el hilo principal.
+ */
+public class ChunkedSpeaker {
+
+    /** Callbacks en el hilo principal */
+    public interface Listener {
+        /** Empieza a sonar el trozo index de count; [start, end) es su rango en el texto */
+        void onChunkStarted(int index, int count, int start, int end);
+
+        /** Terminó el último trozo */
+        void onFinished();
+
+        void onError();
+    }
+
+    private final TextToSpeech tts;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Lectura actual; los callbacks de lecturas anteriores se ignoran
+    private volatile String sessionId;
+    private volatile List<SentenceChunker.Chunk> chunks;
+    private int sessionCounter;
+
+    public ChunkedSpeaker(TextToSpeech tts, Listener listener) {
+        this.tts = tts;
+        this.listener = listener;
+        tts.setOnUtteranceProgressListener(progressListener);
+    }
+
+    /**
+     * Empieza a leer el texto (cortando lo que estuviera sonando). El idioma del motor debe
+     * estar ya fijado con setLanguage; locale solo se usa para partir las frases.
+     */
+    public boolean speak(String text, Locale locale) {
+        int maxChars = Math.min(SentenceChunker.DEFAULT_MAX_CHUNK_CHARS, TextToSpeech.getMaxSpeechInputLength());
+        List<SentenceChunker.Chunk> parts = SentenceChunker.split(text, locale, maxChars);
+        if (parts.isEmpty()) return false;
+
+        String id = "chunked-" + (++sessionCounter);
+        chunks = parts;
+        sessionId = id;
+        for (int i = 0; i < parts.size(); i++) {
+            int queueMode = i == 0 ? TextToSpeech.QUEUE_FLUSH : TextToSpeech.QUEUE_ADD;
+            if (tts.speak(parts.get(i).text, queueMode, null, id + ":" + i) != TextToSpeech.SUCCESS) {
+                stop();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void stop() {
+        sessionId = null;
+        tts.stop();
+    }
+
+    // Índice del trozo si el id es de la lectura actual, -1 si no
+    private int chunkIndex(String utteranceId) {
+        String current = sessionId;
+        if (current == null || utteranceId == null || !utteranceId.startsWith(current + ":")) return -1;
+        try {
+            return Integer.parseInt(utteranceId.substring(current.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private final UtteranceProgressListener progressListener = new UtteranceProgressListener() {
+        @Override
+        public void onStart(String utteranceId) {
+            int index = chunkIndex(utteranceId);
+            List<SentenceChunker.Chunk> parts = chunks;
+            if (index < 0 || index >= parts.size()) return;
+            SentenceChunker.Chunk chunk = parts.get(index);
+            mainHandler.post(() -> listener.onChunkStarted(index, parts.size(), chunk.start, chunk.end));
+        }
+
+        @Override
+        public void onDone(String utteranceId) {
+            int index = chunkIndex(utteranceId);
+            if (index >= 0 && index == chunks.size() - 1) {
+                sessionId = null;
+                mainHandler.post(listener::onFinished);
+            }
+        }
+
+        @Override
+        @Deprecated
+        public void onError(String utteranceId) {
+            onError(utteranceId, TextToSpeech.ERROR);
+        }
+
+        @Override
+        public void onError(String utteranceId, int errorCode) {
+            if (chunkIndex(utteranceId) < 0) return;
+            sessionId = null;
+            mainHandler.post(listener::onError);
+        }
+    };
+}
@@ -0,0 +1,38 @@
+package com.example.snap.services;
+
+import com.example.snap.api.TranslateApiClient;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Proveedor sobre nuestro endpoint propio (TranslateApiClient).
+ * Solo está disponible cuando el endpoint se ha configurado.
+ */
+public class CustomApiTranslationProvider implements TranslationProvider {
+
+    private final TranslateApiClient client;
+
+    public CustomApiTranslationProvider(TranslateApiClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public String getName() {
+        return "custom";
+    }
+
+    @Override
+    public boolean supports(String sourceLang, String targetLang) {
+        return true;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return client.isConfigured();
+    }
+
+    @Override
+    public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+        return client.translateAsync(text, sourceLang, targetLang);
+    }
+}
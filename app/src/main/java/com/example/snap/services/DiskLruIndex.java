@@ -0,0 +1,83 @@
+package com.example.snap.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice LRU por bytes de los ficheros de una caché en disco: lleva el tamaño de cada entrada
+ * y el orden de uso, y dice qué claves hay que borrar para no pasar del límite.
+ * No toca el disco; borrar los ficheros desalojados es cosa de quien lo usa.
+ */
+class DiskLruIndex {
+
+    // Orden de acceso: la primera entrada es la menos usada
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long totalBytes;
+
+    DiskLruIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Marca la entrada como recién usada. Devuelve false si no está.
+     */
+    synchronized boolean touch(String key) {
+        return sizes.get(key) != null;
+    }
+
+    synchronized boolean contains(String key) {
+        return sizes.containsKey(key);
+    }
+
+    /**
+     * Añade (o sustituye) una entrada y devuelve las claves desalojadas para respetar el límite,
+     * de la menos a la más usada. Una entrada más grande que el límite entero se desaloja sola.
+     */
+    synchronized List<String> put(String key, long bytes) {
+        Long previous = sizes.put(key, bytes);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        totalBytes += bytes;
+        return trim();
+    }
+
+    synchronized boolean remove(String key) {
+        Long previous = sizes.remove(key);
+        if (previous == null) return false;
+        totalBytes -= previous;
+        return true;
+    }
+
+    /**
+     * Cambia el límite y devuelve las claves que sobran con el nuevo
+     */
+    synchronized List<String> setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return trim();
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    synchronized int size() {
+        return sizes.size();
+    }
+
+    private List<String> trim() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            it.remove();
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.snap.services;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Parser en streaming para las respuestas de translate_a/single (client=gtx).
+ *
+ * Formato: [[["Traducido", "Original", ...], ["Traducido 2", ...], ...], ...]
+ * Solo nos interesa el primer elemento de cada frase del primer array, así que se leen
+ * esos tokens y el resto se salta sin construir árbol ni String del cuerpo completo.
+ */
+public final class GtxResponseParser {
+
+    private GtxResponseParser() {}
+
+    /**
+     * @return el texto traducido concatenado, o null si la respuesta no trae frases
+     */
+    public static String parse(Reader body) throws IOException {
+        JsonReader reader = new JsonReader(body);
+
+        reader.beginArray();
+        if (!reader.hasNext() || reader.peek() != JsonToken.BEGIN_ARRAY) {
+            return null;
+        }
+
+        StringBuilder translatedBuilder = new StringBuilder();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            if (reader.hasNext()) {
+                if (reader.peek() == JsonToken.STRING) {
+                    translatedBuilder.append(reader.nextString());
+                } else {
+                    // Frases sin traducción (p. ej. solo transliteración) vienen con null
+                    reader.skipValue();
+                }
+            }
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+            reader.endArray();
+        }
+        // El resto de la respuesta (diccionario, idioma detectado...) no se lee
+        return translatedBuilder.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.snap.services;
+
+import com.example.snap.models.TranslationResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Proveedor sobre el endpoint público translate_a/single (client=gtx), vía TranslationEngine
+ * (con caché, single-flight y límites de concurrencia).
+ */
+public class GtxTranslationProvider implements TranslationProvider {
+
+    private final TranslationEngine engine;
+
+    public GtxTranslationProvider(TranslationEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public String getName() {
+        return "gtx";
+    }
+
+    @Override
+    public boolean supports(String sourceLang, String targetLang) {
+        // gtx admite prácticamente cualquier par
+        return true;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+        CompletableFuture<TranslationResult> source = engine.translate(text, sourceLang, targetLang);
+        CompletableFuture<String> translated = source.thenApply(TranslationResult::getTranslatedText);
+        // Cancelar el future devuelto (p. ej. al perder un hedge) cancela la petición del motor
+        translated.whenComplete((r, e) -> {
+            if (translated.isCancelled()) source.cancel(true);
+        });
+        return translated;
+    }
+}
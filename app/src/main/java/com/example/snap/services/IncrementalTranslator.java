@@ -0,0 +1,241 @@
+package com.example.snap.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traducción incremental de un texto que va creciendo (hipótesis parciales del reconocedor de voz).
+ *
+ * El texto se parte en segmentos (por fin de frase o cada MAX_SEGMENT_WORDS palabras). Los
+ * segmentos cerrados ya no cambian: se traducen una vez y su traducción se reutiliza en las
+ * hipótesis siguientes. Solo el último segmento, el que sigue cambiando mientras se habla, se
+ * vuelve a traducir.
+ *
+ * Las parciales se agrupan: como mucho se lanza una traducción cada debounceMs con la última
+ * hipótesis recibida (sin reiniciar la espera en cada parcial, que mientras se habla no pararían
+ * de llegar). El resultado final (onFinal) se traduce sin esperar.
+ *
+ * Un resultado solo se entrega si es más reciente que el último entregado, así una respuesta
+ * lenta nunca pisa a una más nueva. El Listener se llama con el monitor tomado: debe limitarse
+ * a publicar el resultado (p. ej. runOnUiThread).
+ */
+public class IncrementalTranslator {
+
+    /** Traduce un segmento (idiomas ya fijados) */
+    public interface SegmentTranslator {
+        CompletableFuture<String> translate(String segment);
+    }
+
+    /** Se llama desde el hilo que complete la traducción, no necesariamente el principal */
+    public interface Listener {
+        void onTranslation(String sourceText, String translatedText, boolean isFinal);
+
+        void onError(Throwable error);
+    }
+
+    public static final long DEFAULT_DEBOUNCE_MS = 300;
+    static final int MAX_SEGMENT_WORDS = 8;
+    private static final int MAX_CACHED_SEGMENTS = 64;
+
+    private final SegmentTranslator translator;
+    private final Listener listener;
+    private final ScheduledExecutorService scheduler;
+    private final long debounceMs;
+
+    // Traducciones de segmentos cerrados, LRU por acceso
+    private final Map<String, CompletableFuture<String>> closedSegments =
+            new LinkedHashMap<String, CompletableFuture<String>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+                    return size() > MAX_CACHED_SEGMENTS;
+                }
+            };
+
+    private String pendingText;
+    private ScheduledFuture<?> pendingTask;
+    private String lastSubmitted;
+    private long generation;
+    private long deliveredGeneration;
+
+    // Estadísticas
+    private int segmentRequests;
+    private int segmentReuses;
+
+    public IncrementalTranslator(SegmentTranslator translator, Listener listener,
+                                 ScheduledExecutorService scheduler, long debounceMs) {
+        this.translator = translator;
+        this.listener = listener;
+        this.scheduler = scheduler;
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Nueva hipótesis parcial: se traducirá como mucho debounceMs después, junto con las que
+     * lleguen mientras tanto.
+     */
+    public synchronized void onPartial(String hypothesis) {
+        String text = normalize(hypothesis);
+        if (text.isEmpty() || text.equals(lastSubmitted)) return;
+        pendingText = text;
+        if (pendingTask == null) {
+            pendingTask = scheduler.schedule(this::flushPending, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Texto definitivo: se traduce ya, con todos sus segmentos cerrados.
+     */
+    public synchronized void onFinal(String text) {
+        // Todo con el monitor tomado: un reset no puede colarse entre cancelar la parcial y
+        // fijar la generación del final
+        cancelPending();
+        String normalized = normalize(text);
+        if (!normalized.isEmpty()) {
+            submitLocked(normalized, true);
+        }
+    }
+
+    /**
+     * Olvida el texto y las traducciones (p. ej. al cambiar de idioma o empezar de cero).
+     * Los resultados que lleguen después de esto se descartan.
+     */
+    public synchronized void reset() {
+        cancelPending();
+        closedSegments.clear();
+        lastSubmitted = null;
+        generation++;
+        deliveredGeneration = generation;
+    }
+
+    public synchronized int getSegmentRequests() {
+        return segmentRequests;
+    }
+
+    public synchronized int getSegmentReuses() {
+        return segmentReuses;
+    }
+
+    // Lanza la traducción de la última parcial acumulada. Si mientras tanto llegó el final o un
+    // reset, pendingText ya es null y no se lanza nada
+    synchronized void flushPending() {
+        String text = pendingText;
+        pendingText = null;
+        pendingTask = null;
+        if (text != null && !text.equals(lastSubmitted)) {
+            submitLocked(text, false);
+        }
+    }
+
+    private void cancelPending() {
+        if (pendingTask != null) {
+            pendingTask.cancel(false);
+            pendingTask = null;
+        }
+        pendingText = null;
+    }
+
+    // Llamar con el monitor tomado
+    private void submitLocked(String text, boolean isFinal) {
+        List<String> segments = segment(text);
+        List<CompletableFuture<String>> parts = new ArrayList<>(segments.size());
+        long submitted = ++generation;
+        lastSubmitted = text;
+        for (int i = 0; i < segments.size(); i++) {
+            // En una parcial el último segmento todavía puede cambiar
+            boolean closed = isFinal || i < segments.size() - 1;
+            parts.add(translateSegment(segments.get(i), closed));
+        }
+
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, error) -> {
+                    String translated = error == null ? join(parts) : null;
+                    // Se entrega con el monitor tomado para que dos resultados no se crucen
+                    synchronized (this) {
+                        if (submitted <= deliveredGeneration) return;
+                        deliveredGeneration = submitted;
+                        if (error != null) {
+                            listener.onError(error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error);
+                        } else {
+                            listener.onTranslation(text, translated, isFinal);
+                        }
+                    }
+                });
+    }
+
+    private static String join(List<CompletableFuture<String>> parts) {
+        StringBuilder translated = new StringBuilder();
+        for (CompletableFuture<String> part : parts) {
+            String value = part.join();
+            if (value == null || value.trim().isEmpty()) continue;
+            if (translated.length() > 0) translated.append(' ');
+            translated.append(value.trim());
+        }
+        return translated.toString();
+    }
+
+    // Llamar con el monitor tomado
+    private CompletableFuture<String> translateSegment(String segment, boolean closed) {
+        CompletableFuture<String> cached = closedSegments.get(segment);
+        if (cached != null) {
+            segmentReuses++;
+            return cached;
+        }
+        segmentRequests++;
+        CompletableFuture<String> future = translator.translate(segment);
+        if (closed) {
+            closedSegments.put(segment, future);
+            // Un fallo no se queda en caché: el siguiente intento vuelve a pedirlo
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    synchronized (this) {
+                        closedSegments.remove(segment, future);
+                    }
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Parte el texto en segmentos: cada frase acaba en su puntuación final y las frases largas
+     * (el reconocedor casi nunca puntúa) se cortan cada MAX_SEGMENT_WORDS palabras.
+     */
+    static List<String> segment(String text) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int words = 0;
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) continue;
+            if (current.length() > 0) current.append(' ');
+            current.append(word);
+            words++;
+            if (words >= MAX_SEGMENT_WORDS || endsSentence(word)) {
+                segments.add(current.toString());
+                current.setLength(0);
+                words = 0;
+            }
+        }
+        if (current.length() > 0) {
+            segments.add(current.toString());
+        }
+        return segments;
+    }
+
+    private static boolean endsSentence(String word) {
+        char last = word.charAt(word.length() - 1);
+        return last == '.' || last == '!' || last == '?' || last == ';'
+                || last == '。' || last == '！' || last == '？';
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+}
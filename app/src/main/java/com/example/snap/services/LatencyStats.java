@@ -0,0 +1,66 @@
+package com.example.snap.services;
+
+import java.util.Arrays;
+
+/**
+ * Latencias recientes y fallos de un proveedor, para que el router pueda compararlos.
+ * Guarda las últimas WINDOW muestras en un buffer circular.
+ */
+public class LatencyStats {
+
+    private static final int WINDOW = 64;
+
+    private final long[] samples = new long[WINDOW];
+    private int count = 0;
+    private int next = 0;
+    private long successes = 0;
+    private long failures = 0;
+    private int consecutiveFailures = 0;
+    private long unavailableUntil = 0;
+
+    public synchronized void recordSuccess(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % WINDOW;
+        if (count < WINDOW) count++;
+        successes++;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Registra un fallo. Tras maxConsecutiveFailures seguidos el proveedor queda en
+     * cuarentena cooldownMs (no se elige salvo que no quede otro).
+     */
+    public synchronized void recordFailure(long now, int maxConsecutiveFailures, long cooldownMs) {
+        failures++;
+        consecutiveFailures++;
+        if (consecutiveFailures >= maxConsecutiveFailures) {
+            unavailableUntil = now + cooldownMs;
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized boolean isCoolingDown(long now) {
+        return now < unavailableUntil;
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /**
+     * Percentil (0-100) de las muestras recientes, o -1 si aún no hay ninguna.
+     */
+    public synchronized long percentile(int p) {
+        if (count == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public long getP50() { return percentile(50); }
+    public long getP95() { return percentile(95); }
+
+    public synchronized long getSuccesses() { return successes; }
+    public synchronized long getFailures() { return failures; }
+}
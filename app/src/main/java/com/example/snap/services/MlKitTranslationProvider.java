@@ -0,0 +1,106 @@
+package com.example.snap.services;
+
+import com.google.mlkit.nl.translate.TranslateLanguage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proveedor on-device con ML Kit: sin red y sin coste, pero solo para los idiomas
+ * que tenemos mapeados y con el modelo descargado (la descarga solo se hace con WiFi).
+ * Los traductores vienen del TranslatorPool compartido por toda la app.
+ */
+public class MlKitTranslationProvider implements TranslationProvider {
+
+    // Mapa de idiomas soportados por ML Kit en la app
+    private static final Map<String, String> MLKIT_SUPPORTED = new HashMap<>();
+    static {
+        MLKIT_SUPPORTED.put("es", TranslateLanguage.SPANISH);
+        MLKIT_SUPPORTED.put("en", TranslateLanguage.ENGLISH);
+        MLKIT_SUPPORTED.put("it", TranslateLanguage.ITALIAN);
+        MLKIT_SUPPORTED.put("pt", TranslateLanguage.PORTUGUESE);
+        MLKIT_SUPPORTED.put("de", TranslateLanguage.GERMAN);
+        MLKIT_SUPPORTED.put("fr", TranslateLanguage.FRENCH);
+        MLKIT_SUPPORTED.put("zh", TranslateLanguage.CHINESE);
+        MLKIT_SUPPORTED.put("ja", TranslateLanguage.JAPANESE);
+    }
+
+    private final TranslatorPool pool;
+
+    public MlKitTranslationProvider() {
+        this(TranslatorPool.getInstance());
+    }
+
+    public MlKitTranslationProvider(TranslatorPool pool) {
+        this.pool = pool;
+    }
+
+    public static boolean isSupported(String sourceLang, String targetLang) {
+        return MLKIT_SUPPORTED.containsKey(sourceLang) && MLKIT_SUPPORTED.containsKey(targetLang);
+    }
+
+    /**
+     * Código de idioma de ML Kit para un código de la app, o null si no está soportado
+     */
+    static String toMlKitLanguage(String code) {
+        return MLKIT_SUPPORTED.get(code);
+    }
+
+    @Override
+    public String getName() {
+        return "mlkit";
+    }
+
+    @Override
+    public boolean supports(String sourceLang, String targetLang) {
+        return isSupported(sourceLang, targetLang);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        if (!isSupported(sourceLang, targetLang)) {
+            future.completeExceptionally(new TranslationException("Par no soportado por ML Kit"));
+            return future;
+        }
+
+        TranslatorPool.Lease lease = pool.acquire(sourceLang, targetLang);
+        if (lease == null) {
+            future.completeExceptionally(new TranslationException("Par no soportado por ML Kit"));
+            return future;
+        }
+
+        // El traductor vuelve al pool cuando termina la tarea de ML Kit, no cuando se cancela el
+        // future: un perdedor del hedging cancelado sigue usando el traductor hasta que acaba.
+        // Quien se queda el testigo (la tarea o la cancelación previa) libera el préstamo
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        lease.ready().whenComplete((unused, error) -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return; // cancelada mientras se descargaba el modelo; ya se liberó
+            }
+            if (error != null) {
+                lease.close();
+                future.completeExceptionally(error);
+                return;
+            }
+            lease.getTranslator().translate(text)
+                    .addOnSuccessListener(future::complete)
+                    .addOnFailureListener(e -> future.completeExceptionally(
+                            new TranslationException("Fallo traducción ML Kit", e)))
+                    .addOnCompleteListener(task -> lease.close());
+        });
+        future.whenComplete((r, e) -> {
+            if (claimed.compareAndSet(false, true)) {
+                lease.close(); // la tarea de ML Kit no llegó a empezar
+            }
+        });
+        return future;
+    }
+}
@@ -2,22 +2,29 @@ package com.example.snap.services;
 
 import android.content.Context;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.example.snap.models.TranslationResult;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Adaptador de callbacks sobre TranslationEngine, para el código que no trabaja con futures.
+ */
 public class NetworkTranslationService {
     private Context context;
-    private ExecutorService executorService;
-    private TranslationApiService apiService;
+    private TranslationEngine engine;
 
     public NetworkTranslationService(Context context) {
         this.context = context;
-        this.executorService = Executors.newSingleThreadExecutor();
-        this.apiService = ApiClient.getApiService();
+        this.engine = TranslationEngine.getInstance(context);
+    }
+
+    public TranslationEngine getEngine() {
+        return engine;
+    }
+
+    public TranslationCache getCache() {
+        return engine.getCache();
     }
 
     public interface TranslationCallback {
@@ -26,63 +33,46 @@ public class NetworkTranslationService {
         void onError(String error);
     }
 
-    public void translateText(String text, String sourceLang, String targetLang,
-            TranslationCallback callback) {
-
-        executorService.execute(() -> {
-            try {
-                // Validar entrada
-                if (text == null || text.trim().isEmpty()) {
-                    callback.onError("Texto vacío");
-                    return;
-                }
-
-                // Call<ResponseBody> call = apiService.translate("gtx", sourceLang, targetLang,
-                // "t", text);
-                Call<okhttp3.ResponseBody> call = apiService.translate("gtx", sourceLang, targetLang, "t", text);
-
-                call.enqueue(new Callback<okhttp3.ResponseBody>() {
-                    @Override
-                    public void onResponse(Call<okhttp3.ResponseBody> call, Response<okhttp3.ResponseBody> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            try {
-                                String jsonResponse = response.body().string();
-                                org.json.JSONArray jsonArray = new org.json.JSONArray(jsonResponse);
-                                // Google Translate devuelve array de arrays: [[["Translated", "Original", ...],
-                                // ...], ...]
-                                if (jsonArray.length() > 0) {
-                                    org.json.JSONArray sentences = jsonArray.getJSONArray(0);
-                                    StringBuilder translatedBuilder = new StringBuilder();
+    /**
+     * Callback por segmento para las traducciones por lotes.
+     * index es la posición del segmento en la lista original.
+     */
+    public interface BatchTranslationCallback {
+        void onSegmentSuccess(int index, String translatedText);
 
-                                    for (int i = 0; i < sentences.length(); i++) {
-                                        org.json.JSONArray sentence = sentences.getJSONArray(i);
-                                        if (sentence.length() > 0) {
-                                            translatedBuilder.append(sentence.getString(0));
-                                        }
-                                    }
-
-                                    String result = translatedBuilder.toString();
-                                    callback.onSuccess(result);
-                                } else {
-                                    callback.onError("Respuesta vacía");
-                                }
-                            } catch (Exception e) {
-                                callback.onError("Error parsing: " + e.getMessage());
-                            }
-                        } else {
-                            callback.onError("Error API: " + response.code());
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<okhttp3.ResponseBody> call, Throwable t) {
-                        callback.onError("Error de red: " + t.getMessage());
-                    }
-                });
+        void onSegmentError(int index, String error);
+    }
 
-            } catch (Exception e) {
-                callback.onError("Error: " + e.getMessage());
+    public CompletableFuture<TranslationResult> translateText(String text, String sourceLang, String targetLang,
+            TranslationCallback callback) {
+        CompletableFuture<TranslationResult> future = engine.translate(text, sourceLang, targetLang);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                callback.onError(TranslationEngine.describe(error));
+            } else {
+                callback.onSuccess(result.getTranslatedText());
             }
         });
+        return future;
+    }
+
+    public List<CompletableFuture<TranslationResult>> translateBatch(List<String> texts, String sourceLang,
+            String targetLang, BatchTranslationCallback callback) {
+        List<CompletableFuture<TranslationResult>> futures = engine.translateBatch(texts, sourceLang, targetLang);
+        for (int i = 0; i < futures.size(); i++) {
+            final int index = i;
+            futures.get(i).whenComplete((result, error) -> {
+                if (error != null) {
+                    callback.onSegmentError(index, TranslationEngine.describe(error));
+                } else {
+                    callback.onSegmentSuccess(index, result.getTranslatedText());
+                }
+            });
+        }
+        return futures;
+    }
+
+    public int getInFlightCount() {
+        return engine.getInFlightCount();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.example.snap.services;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parte un texto en trozos para el TTS: una frase por trozo (reglas de frase del idioma
+ * destino, BreakIterator) y las frases demasiado largas se cortan por la última coma o
+ * espacio antes de maxChars. Cada trozo guarda su posición en el texto original para poder
+ * resaltar lo que se está leyendo.
+ */
+public final class SentenceChunker {
+
+    public static final int DEFAULT_MAX_CHUNK_CHARS = 300;
+
+    public static final class Chunk {
+        public final String text;
+        // Rango [start, end) en el texto original
+        public final int start;
+        public final int end;
+
+        Chunk(String text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private SentenceChunker() {
+    }
+
+    public static List<Chunk> split(String text, Locale locale, int maxChars) {
+        List<Chunk> chunks = new ArrayList<>();
+        if (text == null || text.isEmpty()) return chunks;
+
+        BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+        sentences.setText(text);
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            splitLong(text, start, end, maxChars, chunks);
+        }
+        return chunks;
+    }
+
+    // Añade [start, end) recortando espacios; si pasa de maxChars lo corta en varios
+    private static void splitLong(String text, int start, int end, int maxChars, List<Chunk> out) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        while (end - start > maxChars) {
+            int cut = findCut(text, start, start + maxChars);
+            add(text, start, cut, out);
+            start = cut;
+            while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        }
+        add(text, start, end, out);
+    }
+
+    // Mejor punto de corte antes de limit: tras una coma (o similar), si no en un espacio
+    private static int findCut(String text, int start, int limit) {
+        int space = -1;
+        for (int i = limit; i > start + 1; i--) {
+            char previous = text.charAt(i - 1);
+            if (previous == ',' || previous == ';' || previous == ':' || previous == '、' || previous == '，') {
+                return i;
+            }
+            if (space < 0 && Character.isWhitespace(text.charAt(i))) {
+                space = i;
+            }
+        }
+        return space > 0 ? space : limit;
+    }
+
+    private static void add(String text, int start, int end, List<Chunk> out) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+        if (end > start) {
+            out.add(new Chunk(text.substring(start, end), start, end));
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+import android.speech.tts.Voice;
+import android.util.Log;
+
+import com.example.snap.data.dao.FavoriteDao;
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.database.ContentHash;
+import com.example.snap.data.entities.Favorite;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché en disco del audio sintetizado (TextToSpeech.synthesizeToFile).
+ *
+ * La clave es (texto, locale, voz): si cambia la voz del motor para un idioma, las entradas
+ * antiguas dejan de usarse y acaban saliendo por LRU. El tamaño total está acotado
+ * (DEFAULT_MAX_BYTES) y se desaloja lo menos usado; el orden se guarda en la fecha de
+ * modificación de los ficheros para sobrevivir entre sesiones.
+ *
+ * Tiene su propio motor TTS para sintetizar en segundo plano sin cortar lo que esté sonando.
+ * Reproducir una frase cacheada (getCached + CachedSpeechPlayer) no vuelve a pasar por el motor.
+ */
+public class SpeechAudioCache {
+
+    private static final String TAG = "SpeechAudioCache";
+
+    private static final String DIR_NAME = "tts_audio";
+    // Voz usada por idioma, para encontrar el audio cacheado antes de volver a tocar el motor
+    private static final String VOICES_PREFS = "tts_audio_voices";
+    private static final String AUDIO_SUFFIX = ".wav";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long DEFAULT_MAX_BYTES = 30L * 1024 * 1024;
+    private static final int FAVORITES_TO_PREFETCH = 20;
+
+    private static volatile SpeechAudioCache INSTANCE;
+
+    private final File dir;
+    private final SharedPreferences voicePrefs;
+    private final DiskLruIndex index = new DiskLruIndex(DEFAULT_MAX_BYTES);
+    private final FavoriteDao favoriteDao;
+    // Serializa setLanguage + synthesizeToFile (el idioma es estado del motor) y el acceso a disco
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CompletableFuture<TextToSpeech> engineReady = new CompletableFuture<>();
+    private TextToSpeech engine;
+
+    // Síntesis en curso por clave (single-flight)
+    private final Map<String, CompletableFuture<File>> inFlight = new ConcurrentHashMap<>();
+    // Voz que usa el motor para cada idioma: se guarda en VOICES_PREFS tras cada setLanguage y
+    // se recupera al cargar el índice, así getCached funciona desde el arranque
+    private final Map<String, String> voiceByLocale = new ConcurrentHashMap<>();
+
+    private SpeechAudioCache(Context context) {
+        dir = new File(context.getCacheDir(), DIR_NAME);
+        voicePrefs = context.getSharedPreferences(VOICES_PREFS, Context.MODE_PRIVATE);
+        favoriteDao = AppDatabase.getDatabase(context).favoriteDao();
+        executor.execute(this::loadIndex);
+
+        engine = new TextToSpeech(context, status -> {
+            if (status == TextToSpeech.SUCCESS) {
+                engine.setOnUtteranceProgressListener(progressListener);
+                engineReady.complete(engine);
+            } else {
+                Log.e(TAG, "No se pudo iniciar el motor TTS para la caché");
+                engineReady.completeExceptionally(new IllegalStateException("TTS no disponible"));
+            }
+        });
+    }
+
+    public static SpeechAudioCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (SpeechAudioCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SpeechAudioCache(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Audio ya sintetizado para el texto, o null si no está (o nunca se ha sintetizado nada en
+     * ese idioma, así que no se sabe qué voz usa el motor). No bloquea: se puede llamar desde el
+     * hilo principal.
+     */
+    public File getCached(String text, Locale locale) {
+        String voice = voiceByLocale.get(locale.toLanguageTag());
+        if (voice == null || text == null || text.isEmpty()) return null;
+        String key = key(text, locale, voice);
+        if (!index.touch(key)) return null;
+        File file = audioFile(key);
+        // Persistir el orden LRU sin tocar disco en este hilo
+        executor.execute(() -> file.setLastModified(System.currentTimeMillis()));
+        return file;
+    }
+
+    /**
+     * Sintetiza el texto a disco (si no estaba ya) y devuelve el fichero.
+     */
+    public CompletableFuture<File> synthesize(String text, Locale locale) {
+        return engineReady.thenComposeAsync(tts -> synthesizeNow(tts, text, locale), executor);
+    }
+
+    /**
+     * Pre-sintetiza en segundo plano, sin esperar el resultado
+     */
+    public void prefetch(String text, Locale locale) {
+        if (text == null || text.trim().isEmpty()) return;
+        synthesize(text, locale).whenComplete((file, error) -> {
+            if (error != null) {
+                Log.d(TAG, "No se pudo pre-sintetizar: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Pre-sintetiza las traducciones de los últimos favoritos del usuario
+     */
+    public void prefetchFavorites(String userId) {
+        if (userId == null) return;
+        executor.execute(() -> {
+            List<Favorite> favorites = favoriteDao.getRecentFavoritesSync(userId, FAVORITES_TO_PREFETCH);
+            for (Favorite favorite : favorites) {
+                prefetch(favorite.getTranslatedText(), new Locale(favorite.getTargetLang()));
+            }
+        });
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        executor.execute(() -> deleteAll(index.setMaxBytes(maxBytes)));
+    }
+
+    public String getStatsSummary() {
+        return index.size() + " frases, " + (index.getTotalBytes() / 1024) + " KB";
+    }
+
+    // Solo en el executor
+    private CompletableFuture<File> synthesizeNow(TextToSpeech tts, String text, Locale locale) {
+        if (text.length() > TextToSpeech.getMaxSpeechInputLength()) {
+            return failed("Texto demasiado largo para sintetizar de una vez");
+        }
+        if (tts.setLanguage(locale) < TextToSpeech.LANG_AVAILABLE) {
+            return failed("Idioma no disponible en el motor TTS: " + locale);
+        }
+        Voice voice = tts.getVoice();
+        String voiceName = voice != null ? voice.getName() : "default";
+        String languageTag = locale.toLanguageTag();
+        if (!voiceName.equals(voiceByLocale.put(languageTag, voiceName))) {
+            voicePrefs.edit().putString(languageTag, voiceName).apply();
+        }
+
+        String key = key(text, locale, voiceName);
+        File file = audioFile(key);
+        if (index.touch(key) && file.exists()) {
+            return CompletableFuture.completedFuture(file);
+        }
+        CompletableFuture<File> pending = inFlight.get(key);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<File> future = new CompletableFuture<>();
+        inFlight.put(key, future);
+        if (tts.synthesizeToFile(text, null, tempFile(key), key) != TextToSpeech.SUCCESS) {
+            inFlight.remove(key);
+            future.completeExceptionally(new IllegalStateException("synthesizeToFile falló"));
+        }
+        return future;
+    }
+
+    // Solo en el executor
+    private void onSynthesized(String key) {
+        CompletableFuture<File> future = inFlight.remove(key);
+        File temp = tempFile(key);
+        File file = audioFile(key);
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            if (future != null) future.completeExceptionally(new IllegalStateException("No se pudo guardar el audio"));
+            return;
+        }
+        deleteAll(index.put(key, file.length()));
+        if (future != null) {
+            if (file.exists()) {
+                future.complete(file);
+            } else {
+                // Más grande que toda la caché: se desalojó en el acto
+                future.completeExceptionally(new IllegalStateException("Audio mayor que la caché"));
+            }
+        }
+    }
+
+    private void onSynthesisFailed(String key, int errorCode) {
+        CompletableFuture<File> future = inFlight.remove(key);
+        tempFile(key).delete();
+        if (future != null) {
+            future.completeExceptionally(new IllegalStateException("Error de síntesis " + errorCode));
+        }
+    }
+
+    private final UtteranceProgressListener progressListener = new UtteranceProgressListener() {
+        @Override
+        public void onStart(String utteranceId) { }
+
+        @Override
+        public void onDone(String utteranceId) {
+            executor.execute(() -> onSynthesized(utteranceId));
+        }
+
+        @Override
+        @Deprecated
+        public void onError(String utteranceId) {
+            onError(utteranceId, TextToSpeech.ERROR);
+        }
+
+        @Override
+        public void onError(String utteranceId, int errorCode) {
+            executor.execute(() -> onSynthesisFailed(utteranceId, errorCode));
+        }
+    };
+
+    // Reconstruye el índice con lo que haya en disco, de más antiguo a más reciente
+    private void loadIndex() {
+        for (Map.Entry<String, ?> entry : voicePrefs.getAll().entrySet()) {
+            if (entry.getValue() instanceof String) {
+                voiceByLocale.putIfAbsent(entry.getKey(), (String) entry.getValue());
+            }
+        }
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.e(TAG, "No se pudo crear " + dir);
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(AUDIO_SUFFIX)) {
+                String key = name.substring(0, name.length() - AUDIO_SUFFIX.length());
+                deleteAll(index.put(key, file.length()));
+            } else {
+                // Restos de síntesis interrumpidas
+                file.delete();
+            }
+        }
+        Log.d(TAG, "Caché de audio: " + getStatsSummary());
+    }
+
+    private void deleteAll(List<String> keys) {
+        for (String key : keys) {
+            audioFile(key).delete();
+        }
+    }
+
+    private File audioFile(String key) {
+        return new File(dir, key + AUDIO_SUFFIX);
+    }
+
+    private File tempFile(String key) {
+        return new File(dir, key + TEMP_SUFFIX);
+    }
+
+    private static CompletableFuture<File> failed(String message) {
+        CompletableFuture<File> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException(message));
+        return future;
+    }
+
+    // Huella de (texto, locale, voz): nombre de fichero seguro y de longitud fija
+    static String key(String text, Locale locale, String voiceName) {
+        return ContentHash.of(text, locale.toLanguageTag(), voiceName);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.speech.RecognitionListener;
+import android.speech.RecognizerIntent;
+import android.speech.SpeechRecognizer;
+import android.util.Log;
+
+import java.util.ArrayList;
+
+/**
+ * Reconocimiento de voz continuo con resultados parciales, sin abrir la actividad de Google.
+ *
+ * Cada frase que el reconocedor da por terminada se añade a la transcripción y se vuelve a
+ * escuchar hasta que se llama a stop() o hay silencio dos veces seguidas. La transcripción que
+ * se entrega es siempre la completa (frases terminadas + hipótesis actual), para que quien la
+ * traduzca pueda reutilizar lo que ya no cambia.
+ *
+ * Se debe usar desde el hilo principal (lo exige SpeechRecognizer).
+ */
+public class StreamingSpeechRecognizer {
+
+    private static final String TAG = "StreamingSpeech";
+    private static final int MAX_SILENT_ROUNDS = 2;
+
+    public interface Callback {
+        /** Transcripción completa; utteranceFinished = el reconocedor cerró la última frase */
+        void onTranscript(String transcript, boolean utteranceFinished);
+
+        /** Se dejó de escuchar (stop(), silencio o error); transcript es el texto final */
+        void onStopped(String transcript);
+
+        /** Error del reconocedor (código SpeechRecognizer.ERROR_*) */
+        void onError(int error);
+    }
+
+    private final Context context;
+    private final Callback callback;
+    private SpeechRecognizer recognizer;
+
+    private final StringBuilder finishedText = new StringBuilder();
+    private String currentPartial;
+    private String languageTag;
+    private boolean listening;
+    private int silentRounds;
+
+    public StreamingSpeechRecognizer(Context context, Callback callback) {
+        this.context = context;
+        this.callback = callback;
+    }
+
+    public static boolean isAvailable(Context context) {
+        return SpeechRecognizer.isRecognitionAvailable(context);
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Empieza una transcripción nueva en el idioma indicado (p. ej. "es-ES")
+     */
+    public void start(String languageTag) {
+        if (recognizer == null) {
+            recognizer = SpeechRecognizer.createSpeechRecognizer(context);
+            recognizer.setRecognitionListener(listener);
+        }
+        this.languageTag = languageTag;
+        finishedText.setLength(0);
+        currentPartial = null;
+        silentRounds = 0;
+        listening = true;
+        listen();
+    }
+
+    /**
+     * Deja de escuchar; la última hipótesis parcial se da por buena y entra en la transcripción
+     * final (no se espera al resultado definitivo del reconocedor)
+     */
+    public void stop() {
+        if (!listening) return;
+        if (recognizer != null) {
+            recognizer.cancel();
+        }
+        finish();
+    }
+
+    /**
+     * Libera el reconocedor (onDestroy)
+     */
+    public void destroy() {
+        listening = false;
+        if (recognizer != null) {
+            recognizer.destroy();
+            recognizer = null;
+        }
+    }
+
+    private void listen() {
+        Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
+        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, languageTag);
+        intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
+        intent.putExtra(RecognizerIntent.EXTRA_PARTIAL_RESULTS, true);
+        intent.putExtra(RecognizerIntent.EXTRA_MAX_RESULTS, 1);
+        recognizer.startListening(intent);
+    }
+
+    private void finish() {
+        listening = false;
+        callback.onStopped(transcriptWith(currentPartial));
+        currentPartial = null;
+    }
+
+    private String transcriptWith(String current) {
+        if (current == null || current.trim().isEmpty()) return finishedText.toString();
+        if (finishedText.length() == 0) return current.trim();
+        return finishedText + " " + current.trim();
+    }
+
+    private static String firstResult(Bundle results) {
+        if (results == null) return null;
+        ArrayList<String> matches = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION);
+        return matches == null || matches.isEmpty() ? null : matches.get(0);
+    }
+
+    private final RecognitionListener listener = new RecognitionListener() {
+        @Override
+        public void onPartialResults(Bundle partialResults) {
+            if (!listening) return;
+            String partial = firstResult(partialResults);
+            if (partial != null && !partial.trim().isEmpty()) {
+                currentPartial = partial;
+                callback.onTranscript(transcriptWith(partial), false);
+            }
+        }
+
+        @Override
+        public void onResults(Bundle results) {
+            if (!listening) return;
+            String text = firstResult(results);
+            if (text != null && !text.trim().isEmpty()) {
+                String transcript = transcriptWith(text);
+                finishedText.setLength(0);
+                finishedText.append(transcript);
+                currentPartial = null;
+                silentRounds = 0;
+                callback.onTranscript(transcript, true);
+            }
+            // Modo continuo: seguir escuchando la siguiente frase
+            listen();
+        }
+
+        @Override
+        public void onError(int error) {
+            if (!listening) return;
+            if (error == SpeechRecognizer.ERROR_NO_MATCH || error == SpeechRecognizer.ERROR_SPEECH_TIMEOUT) {
+                if (++silentRounds < MAX_SILENT_ROUNDS) {
+                    listen();
+                } else {
+                    finish();
+                }
+                return;
+            }
+            Log.w(TAG, "Error del reconocedor: " + error);
+            callback.onError(error);
+            finish();
+        }
+
+        @Override public void onReadyForSpeech(Bundle params) { }
+        @Override public void onBeginningOfSpeech() { }
+        @Override public void onRmsChanged(float rmsdB) { }
+        @Override public void onBufferReceived(byte[] buffer) { }
+        @Override public void onEndOfSpeech() { }
+        @Override public void onEvent(int eventType, Bundle params) { }
+    };
+}
@@ -0,0 +1,186 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.snap.data.dao.TranslationCacheDao;
+import com.example.snap.data.database.AppDatabase;
+import com.example.snap.data.entities.TranslationCacheEntry;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de traducciones en dos niveles:
+ * 1. Memoria (LRU acotado) para los textos que la cámara repite frame a frame.
+ * 2. Disco (tabla translation_cache de Room) para sobrevivir entre sesiones.
+ *
+ * La clave es (texto normalizado, idioma origen, idioma destino).
+ * Las lecturas de disco son síncronas: llamar a get() fuera del hilo principal.
+ */
+public class TranslationCache {
+
+    private static final String TAG = "TranslationCache";
+
+    private static final int MEMORY_MAX_ENTRIES = 256;
+    private static final int DISK_MAX_ENTRIES = 5000;
+    private static final long TTL_MS = TimeUnit.DAYS.toMillis(7);
+    // Cada cuántas búsquedas se escriben las estadísticas en el log
+    private static final long LOG_STATS_EVERY = 100;
+
+    private static volatile TranslationCache INSTANCE;
+
+    private final LruCache<String, MemoryEntry> memoryCache;
+    private final TranslationCacheDao dao;
+    private final ExecutorService diskExecutor;
+
+    // Contadores para medir cuánta red nos ahorramos
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    private static class MemoryEntry {
+        final String translatedText;
+        final long createdAt;
+
+        MemoryEntry(String translatedText, long createdAt) {
+            this.translatedText = translatedText;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private TranslationCache(Context context) {
+        dao = AppDatabase.getDatabase(context).translationCacheDao();
+        diskExecutor = Executors.newSingleThreadExecutor();
+        memoryCache = new LruCache<String, MemoryEntry>(MEMORY_MAX_ENTRIES) {
+            @Override
+            protected void entryRemoved(boolean evicted, String key, MemoryEntry oldValue, MemoryEntry newValue) {
+                if (evicted) {
+                    memoryEvictions.incrementAndGet();
+                }
+            }
+        };
+
+        // Limpieza inicial de entradas caducadas
+        diskExecutor.execute(() -> {
+            int removed = dao.deleteExpired(System.currentTimeMillis() - TTL_MS);
+            diskEvictions.addAndGet(removed);
+        });
+    }
+
+    public static TranslationCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TranslationCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TranslationCache(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Busca una traducción en memoria y, si no está, en disco.
+     * @return la traducción o null si no existe o ha caducado
+     */
+    public String get(String text, String sourceLang, String targetLang) {
+        String key = buildKey(text, sourceLang, targetLang);
+        long now = System.currentTimeMillis();
+
+        MemoryEntry memoryEntry = memoryCache.get(key);
+        if (memoryEntry != null) {
+            if (now - memoryEntry.createdAt < TTL_MS) {
+                memoryHits.incrementAndGet();
+                logStatsPeriodically();
+                return memoryEntry.translatedText;
+            }
+            memoryCache.remove(key);
+        }
+
+        TranslationCacheEntry diskEntry = dao.get(key);
+        if (diskEntry != null && now - diskEntry.getCreatedAt() < TTL_MS) {
+            diskHits.incrementAndGet();
+            logStatsPeriodically();
+            // Promocionar a memoria y actualizar el último acceso en segundo plano
+            memoryCache.put(key, new MemoryEntry(diskEntry.getTranslatedText(), diskEntry.getCreatedAt()));
+            diskExecutor.execute(() -> dao.touch(key, now));
+            return diskEntry.getTranslatedText();
+        }
+
+        misses.incrementAndGet();
+        logStatsPeriodically();
+        return null;
+    }
+
+    // Deja en el log cuánta red y latencia ahorra la caché (aciertos, fallos y expulsiones)
+    private void logStatsPeriodically() {
+        long lookups = memoryHits.get() + diskHits.get() + misses.get();
+        if (lookups % LOG_STATS_EVERY == 0) {
+            Log.d(TAG, "Caché de traducciones: " + getStatsSummary());
+        }
+    }
+
+    /**
+     * Guarda una traducción en ambos niveles. La escritura en disco es asíncrona.
+     */
+    public void put(String text, String sourceLang, String targetLang, String translatedText) {
+        if (translatedText == null || translatedText.isEmpty()) {
+            return;
+        }
+        String key = buildKey(text, sourceLang, targetLang);
+        long now = System.currentTimeMillis();
+
+        memoryCache.put(key, new MemoryEntry(translatedText, now));
+        diskExecutor.execute(() -> {
+            try {
+                dao.insert(new TranslationCacheEntry(key, sourceLang, targetLang, translatedText, now, now));
+                diskEvictions.addAndGet(dao.trimToSize(DISK_MAX_ENTRIES));
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando en caché de disco", e);
+            }
+        });
+    }
+
+    public void clear() {
+        memoryCache.evictAll();
+        diskExecutor.execute(dao::clear);
+    }
+
+    // Estadísticas (aciertos / fallos / expulsiones)
+    public long getMemoryHits() { return memoryHits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getMemoryEvictions() { return memoryEvictions.get(); }
+    public long getDiskEvictions() { return diskEvictions.get(); }
+
+    public double getHitRate() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public String getStatsSummary() {
+        return String.format(Locale.US,
+                "mem_hits=%d disk_hits=%d misses=%d hit_rate=%.2f mem_evictions=%d disk_evictions=%d",
+                getMemoryHits(), getDiskHits(), getMisses(), getHitRate(),
+                getMemoryEvictions(), getDiskEvictions());
+    }
+
+    /**
+     * Normaliza el texto (espacios repetidos, saltos de línea) para que el mismo bloque OCR
+     * con ligeras diferencias de espaciado comparta entrada.
+     */
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+
+    static String buildKey(String text, String sourceLang, String targetLang) {
+        return sourceLang + "|" + targetLang + "|" + normalize(text);
+    }
+}
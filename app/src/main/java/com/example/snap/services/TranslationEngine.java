@@ -0,0 +1,479 @@
+package com.example.snap.services;
+
+import android.content.Context;
+
+import com.example.snap.models.TranslationResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import okhttp3.Dispatcher;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Motor de traducción asíncrono basado en CompletableFuture.
+ *
+ * - Las búsquedas en caché (que pueden tocar disco) se hacen en un pool acotado de workers.
+ * - Las peticiones HTTP van por el Dispatcher compartido de OkHttp, con límite global y por host.
+ * - Peticiones idénticas en vuelo comparten una sola llamada (single-flight).
+ * - Cada future tiene timeout; cancelarlo suelta la llamada HTTP si nadie más la espera.
+ */
+public class TranslationEngine {
+
+    // Longitud máxima de q por petición GET (la URL codificada crece bastante)
+    private static final int MAX_BATCH_CHARS = 1800;
+    // Separador entre segmentos de un lote: gtx conserva los saltos de línea
+    private static final String BATCH_SEPARATOR = "\n";
+
+    /**
+     * Parámetros de concurrencia del motor. Se aplican en init() antes del primer uso.
+     */
+    public static class Config {
+        private int workerThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int workerQueueSize = 128;
+        private int maxRequests = 32;
+        private int maxRequestsPerHost = 8;
+        private long timeoutMs = 10_000L;
+
+        public Config setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        public Config setWorkerQueueSize(int workerQueueSize) {
+            this.workerQueueSize = workerQueueSize;
+            return this;
+        }
+
+        public Config setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        public Config setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public Config setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+            return this;
+        }
+    }
+
+    // Una llamada HTTP compartida por todos los que piden lo mismo. Cancelar el future
+    // cancela la llamada (ver enqueue)
+    private static class InFlight {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        int waiters;
+    }
+
+    /**
+     * Lee la respuesta de un endpoint distinto de gtx (ver execute)
+     */
+    public interface ResponseParser {
+        String parse(ResponseBody body) throws Exception;
+    }
+
+    private static volatile TranslationEngine INSTANCE;
+
+    private final ThreadPoolExecutor workers;
+    private final TranslationApiService apiService;
+    private final TranslationCache cache;
+    private final long timeoutMs;
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    private TranslationEngine(Context context, Config config) {
+        workers = new ThreadPoolExecutor(
+                config.workerThreads, config.workerThreads,
+                30L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.workerQueueSize));
+        workers.allowCoreThreadTimeOut(true);
+
+        Dispatcher dispatcher = ApiClient.getHttpClient().dispatcher();
+        dispatcher.setMaxRequests(config.maxRequests);
+        dispatcher.setMaxRequestsPerHost(config.maxRequestsPerHost);
+
+        apiService = ApiClient.getApiService();
+        cache = TranslationCache.getInstance(context);
+        timeoutMs = config.timeoutMs;
+    }
+
+    /**
+     * Inicializa el motor con una configuración concreta. Solo tiene efecto la primera vez.
+     */
+    public static TranslationEngine init(Context context, Config config) {
+        if (INSTANCE == null) {
+            synchronized (TranslationEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TranslationEngine(context.getApplicationContext(), config);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public static TranslationEngine getInstance(Context context) {
+        return init(context, new Config());
+    }
+
+    public TranslationCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Executor acotado del motor, para trabajo de traducción que no es HTTP.
+     */
+    public Executor getExecutor() {
+        return workers;
+    }
+
+    /**
+     * Traduce un texto. El future se completa con el resultado o excepcionalmente con
+     * TranslationException (o TimeoutException si vence el plazo).
+     */
+    public CompletableFuture<TranslationResult> translate(String text, String sourceLang, String targetLang) {
+        long requestId = requestIds.incrementAndGet();
+        CompletableFuture<TranslationResult> result = new CompletableFuture<>();
+
+        if (text == null || text.trim().isEmpty()) {
+            result.completeExceptionally(new TranslationException("Texto vacío"));
+            return result;
+        }
+
+        submit(result, () -> {
+            // Consultar la caché (memoria + disco) antes de ir a la red
+            String cached = cache.get(text, sourceLang, targetLang);
+            if (cached != null) {
+                result.complete(TranslationResult.success(requestId, text, cached));
+                return;
+            }
+
+            String key = TranslationCache.buildKey(text, sourceLang, targetLang);
+            InFlight entry = acquire(key, future -> {
+                future.thenAccept(translated -> cache.put(text, sourceLang, targetLang, translated));
+                enqueue(apiService.translate("gtx", sourceLang, targetLang, "t", text), future);
+            });
+            entry.future.whenComplete((translated, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                } else {
+                    result.complete(TranslationResult.success(requestId, text, translated));
+                }
+            });
+            // Al terminar (bien, mal, timeout o cancelado) dejamos de esperar la llamada compartida
+            result.whenComplete((r, e) -> release(key, entry));
+        });
+
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Traduce varios segmentos (p. ej. todos los bloques OCR de un frame) con el menor número
+     * de peticiones posible. Los segmentos se unen con saltos de línea hasta MAX_BATCH_CHARS y
+     * la respuesta se vuelve a partir por líneas. Si el número de líneas no cuadra, ese lote se
+     * traduce segmento a segmento.
+     *
+     * @return un future por segmento, en el mismo orden que texts
+     */
+    public List<CompletableFuture<TranslationResult>> translateBatch(List<String> texts, String sourceLang,
+            String targetLang) {
+        List<CompletableFuture<TranslationResult>> results = new ArrayList<>();
+        List<Long> requestIdList = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            results.add(new CompletableFuture<>());
+            requestIdList.add(requestIds.incrementAndGet());
+        }
+
+        Runnable task = () -> {
+            List<Integer> pendingIndexes = new ArrayList<>();
+            List<String> pendingTexts = new ArrayList<>();
+
+            for (int i = 0; i < texts.size(); i++) {
+                String text = texts.get(i);
+                if (text == null || text.trim().isEmpty()) {
+                    results.get(i).completeExceptionally(new TranslationException("Texto vacío"));
+                    continue;
+                }
+                String cached = cache.get(text, sourceLang, targetLang);
+                if (cached != null) {
+                    results.get(i).complete(TranslationResult.success(requestIdList.get(i), text, cached));
+                    continue;
+                }
+                pendingIndexes.add(i);
+                // Los saltos internos se aplanan: el salto de línea es nuestro separador
+                pendingTexts.add(TranslationCache.normalize(text));
+            }
+
+            // Empaquetar en lotes respetando el límite de longitud
+            int start = 0;
+            int length = 0;
+            for (int i = 0; i < pendingTexts.size(); i++) {
+                int segmentLength = pendingTexts.get(i).length() + BATCH_SEPARATOR.length();
+                if (i > start && length + segmentLength > MAX_BATCH_CHARS) {
+                    sendBatch(texts, requestIdList, results, pendingIndexes.subList(start, i),
+                            pendingTexts.subList(start, i), sourceLang, targetLang);
+                    start = i;
+                    length = 0;
+                }
+                length += segmentLength;
+            }
+            if (start < pendingTexts.size()) {
+                sendBatch(texts, requestIdList, results, pendingIndexes.subList(start, pendingTexts.size()),
+                        pendingTexts.subList(start, pendingTexts.size()), sourceLang, targetLang);
+            }
+        };
+
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            for (CompletableFuture<TranslationResult> result : results) {
+                result.completeExceptionally(new TranslationException("Motor de traducción saturado", e));
+            }
+        }
+
+        for (CompletableFuture<TranslationResult> result : results) {
+            result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        return results;
+    }
+
+    private void sendBatch(List<String> originals, List<Long> requestIdList,
+            List<CompletableFuture<TranslationResult>> results, List<Integer> indexes, List<String> segments,
+            String sourceLang, String targetLang) {
+
+        // Copias propias: las sublistas dependen de listas que no nos pertenecen
+        List<Integer> batchIndexes = new ArrayList<>(indexes);
+        List<String> batchSegments = new ArrayList<>(segments);
+        String query = String.join(BATCH_SEPARATOR, batchSegments);
+
+        // Single-flight también para lotes: el mismo frame pedido dos veces comparte la llamada
+        String key = "batch|" + TranslationCache.buildKey(query, sourceLang, targetLang);
+        InFlight entry = acquire(key,
+                future -> enqueue(apiService.translate("gtx", sourceLang, targetLang, "t", query), future));
+
+        // Cuando todos los segmentos del lote han terminado (bien, mal o por timeout) se deja
+        // de esperar la llamada; si nadie más la espera, se cancela y libera la conexión
+        CompletableFuture<?>[] batchResults = new CompletableFuture<?>[batchIndexes.size()];
+        for (int i = 0; i < batchResults.length; i++) {
+            batchResults[i] = results.get(batchIndexes.get(i));
+        }
+        CompletableFuture.allOf(batchResults).whenComplete((r, e) -> release(key, entry));
+
+        entry.future.whenComplete((translatedText, error) -> {
+            if (error != null) {
+                for (int index : batchIndexes) {
+                    results.get(index).completeExceptionally(unwrap(error));
+                }
+                return;
+            }
+
+            String[] lines = translatedText.split(BATCH_SEPARATOR, -1);
+            if (lines.length != batchSegments.size()) {
+                // El servicio ha fusionado o partido líneas: traducir uno a uno
+                for (int index : batchIndexes) {
+                    CompletableFuture<TranslationResult> target = results.get(index);
+                    translate(originals.get(index), sourceLang, targetLang).whenComplete((r, e) -> {
+                        if (e != null) {
+                            target.completeExceptionally(unwrap(e));
+                        } else {
+                            target.complete(TranslationResult.success(requestIdList.get(index),
+                                    r.getSourceText(), r.getTranslatedText()));
+                        }
+                    });
+                }
+                return;
+            }
+
+            for (int i = 0; i < lines.length; i++) {
+                int index = batchIndexes.get(i);
+                String line = lines[i].trim();
+                cache.put(originals.get(index), sourceLang, targetLang, line);
+                results.get(index).complete(TranslationResult.success(requestIdList.get(index),
+                        originals.get(index), line));
+            }
+        });
+    }
+
+    /**
+     * Número de peticiones HTTP distintas en curso (útil para diagnóstico).
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Single-flight
+    // ------------------------------------------------------------------------
+
+    // Se une a la llamada en curso para key o, si no hay, la crea y la lanza con starter.
+    // Cada acquire debe ir seguido de un release cuando el llamante deje de esperar
+    private InFlight acquire(String key, Consumer<CompletableFuture<String>> starter) {
+        InFlight entry;
+        boolean start = false;
+        synchronized (inFlight) {
+            entry = inFlight.get(key);
+            if (entry == null) {
+                entry = new InFlight();
+                inFlight.put(key, entry);
+                start = true;
+            }
+            entry.waiters++;
+        }
+
+        if (start) {
+            InFlight started = entry;
+            started.future.whenComplete((translated, error) -> {
+                synchronized (inFlight) {
+                    inFlight.remove(key, started);
+                }
+            });
+            starter.accept(started.future);
+        }
+        return entry;
+    }
+
+    private void release(String key, InFlight entry) {
+        synchronized (inFlight) {
+            if (--entry.waiters > 0) return;
+            inFlight.remove(key, entry);
+        }
+        // Nadie espera ya esta llamada: si sigue en curso se cancela (y con ella la petición HTTP)
+        if (!entry.future.isDone()) {
+            entry.future.cancel(false);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // HTTP
+    // ------------------------------------------------------------------------
+
+    /**
+     * Petición a otro endpoint de traducción (p. ej. TranslateApiClient) con las mismas reglas
+     * que gtx: límites del Dispatcher, timeout, single-flight por key y cancelación de la
+     * llamada HTTP cuando nadie espera el resultado.
+     */
+    public CompletableFuture<String> execute(String key, Supplier<okhttp3.Call> callFactory, ResponseParser parser) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        InFlight entry = acquire(key, future -> enqueue(callFactory.get(), parser, future));
+        entry.future.whenComplete((translated, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                result.complete(translated);
+            }
+        });
+        result.whenComplete((r, e) -> release(key, entry));
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void enqueue(okhttp3.Call call, ResponseParser parser, CompletableFuture<String> future) {
+        future.whenComplete((r, e) -> {
+            if (future.isCancelled()) call.cancel();
+        });
+
+        call.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        future.completeExceptionally(new TranslationException("Error API: " + response.code()));
+                        return;
+                    }
+                    future.complete(parser.parse(body));
+                } catch (Exception e) {
+                    future.completeExceptionally(new TranslationException("Error parsing: " + e.getMessage(), e));
+                }
+            }
+
+            @Override
+            public void onFailure(okhttp3.Call call, IOException e) {
+                future.completeExceptionally(new TranslationException("Error de red: " + e.getMessage(), e));
+            }
+        });
+    }
+
+    // Encola la petición en el Dispatcher de OkHttp y completa el future con el texto traducido
+    private void enqueue(Call<ResponseBody> call, CompletableFuture<String> future) {
+        future.whenComplete((r, e) -> {
+            if (future.isCancelled()) call.cancel();
+        });
+
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    // Leemos el cuerpo en streaming: solo se extraen los segmentos traducidos
+                    try (ResponseBody body = response.body()) {
+                        String translated = GtxResponseParser.parse(body.charStream());
+                        if (translated != null) {
+                            future.complete(translated);
+                        } else {
+                            future.completeExceptionally(new TranslationException("Respuesta vacía"));
+                        }
+                    } catch (Exception e) {
+                        future.completeExceptionally(new TranslationException("Error parsing: " + e.getMessage(), e));
+                    }
+                } else {
+                    future.completeExceptionally(new TranslationException("Error API: " + response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                future.completeExceptionally(new TranslationException("Error de red: " + t.getMessage(), t));
+            }
+        });
+    }
+
+    private void submit(CompletableFuture<?> result, Runnable task) {
+        try {
+            workers.execute(() -> {
+                // Si ya se canceló o venció mientras esperaba en cola, no hacemos nada
+                if (!result.isDone()) task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new TranslationException("Motor de traducción saturado", e));
+        }
+    }
+
+    /**
+     * Mensaje legible de un error de future (quita el envoltorio CompletionException).
+     */
+    public static String describe(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof java.util.concurrent.TimeoutException) {
+            return "Tiempo de espera agotado";
+        }
+        if (cause instanceof java.util.concurrent.CancellationException) {
+            return "Cancelado";
+        }
+        return cause.getMessage();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
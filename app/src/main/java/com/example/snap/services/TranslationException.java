@@ -0,0 +1,14 @@
+package com.example.snap.services;
+
+/**
+ * Error de traducción (red, API o parseo) con el mismo texto que veían los callbacks.
+ */
+public class TranslationException extends Exception {
+    public TranslationException(String message) {
+        super(message);
+    }
+
+    public TranslationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.snap.services;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Backend de traducción (ML Kit en el dispositivo, gtx, endpoint propio...).
+ * TranslationRouter elige uno por petición según latencia, disponibilidad e idiomas.
+ */
+public interface TranslationProvider {
+
+    /**
+     * Nombre corto para logs y estadísticas (p. ej. "mlkit", "gtx").
+     */
+    String getName();
+
+    /**
+     * Si el backend sabe traducir este par de idiomas (códigos ISO: "es", "en"...).
+     */
+    boolean supports(String sourceLang, String targetLang);
+
+    /**
+     * Si el backend está en condiciones de atender peticiones (configurado, con red...).
+     */
+    boolean isAvailable();
+
+    /**
+     * Traduce el texto. El future falla con TranslationException si el backend no puede.
+     */
+    CompletableFuture<String> translate(String text, String sourceLang, String targetLang);
+}
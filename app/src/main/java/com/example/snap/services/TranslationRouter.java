@@ -0,0 +1,350 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import com.example.snap.api.TranslateApiClient;
+import com.example.snap.models.TranslationResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Elige el proveedor de traducción para cada petición:
+ * 1. Solo proveedores que soportan el par de idiomas y están disponibles.
+ * 2. Los que no han fallado seguidos recientemente van primero (cuarentena tras varios fallos).
+ * 3. Entre ellos, el de menor latencia medida (mezcla de p50 y p95). Los que aún no tienen
+ *    suficientes muestras se prueban primero, en el orden en que se registraron.
+ * Si el elegido falla, se prueba el siguiente.
+ *
+ * No depende de Android salvo getInstance() y el reloj por defecto, así que se puede probar en la JVM
+ * con proveedores falsos y un reloj manual.
+ */
+public class TranslationRouter {
+
+    private static final int MIN_SAMPLES = 3;
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final long COOLDOWN_MS = 30_000L;
+
+    // Plazo total de una traducción (todos los intentos); ML Kit no trae timeout propio
+    private volatile long timeoutMs = 15_000L;
+
+    // Hedging: plazo para lanzar el segundo proveedor = percentil de latencia del primero
+    private volatile int hedgePercentile = 95;
+    private volatile long defaultHedgeDelayMs = 400L;
+    private volatile long minHedgeDelayMs = 100L;
+    private volatile long maxHedgeDelayMs = 2_000L;
+
+    private static volatile TranslationRouter INSTANCE;
+
+    private final List<TranslationProvider> providers;
+    private final Map<String, LatencyStats> stats = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final AtomicLong requestIds = new AtomicLong();
+
+    public TranslationRouter(List<TranslationProvider> providers, LongSupplier clock) {
+        this.providers = new ArrayList<>(providers);
+        this.clock = clock;
+        for (TranslationProvider provider : providers) {
+            stats.put(provider.getName(), new LatencyStats());
+        }
+    }
+
+    public TranslationRouter(List<TranslationProvider> providers) {
+        // Reloj monótono: las latencias y la cuarentena no deben saltar con un cambio de hora
+        this(providers, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * Router por defecto de la app: ML Kit (on-device), gtx y el endpoint propio.
+     */
+    public static TranslationRouter getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TranslationRouter.class) {
+                if (INSTANCE == null) {
+                    Context appContext = context.getApplicationContext();
+                    INSTANCE = new TranslationRouter(Arrays.asList(
+                            new MlKitTranslationProvider(),
+                            new GtxTranslationProvider(TranslationEngine.getInstance(appContext)),
+                            new CustomApiTranslationProvider(TranslateApiClient.getInstance(appContext))));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public CompletableFuture<TranslationResult> translate(String text, String sourceLang, String targetLang) {
+        long requestId = requestIds.incrementAndGet();
+        CompletableFuture<TranslationResult> result = new CompletableFuture<>();
+
+        if (text == null || text.trim().isEmpty()) {
+            result.completeExceptionally(new TranslationException("Texto vacío"));
+            return result;
+        }
+
+        List<TranslationProvider> candidates = rank(sourceLang, targetLang);
+        if (candidates.isEmpty()) {
+            result.completeExceptionally(new TranslationException(
+                    "Ningún proveedor disponible para " + sourceLang + " → " + targetLang));
+            return result;
+        }
+
+        attempt(candidates, 0, requestId, text, sourceLang, targetLang, result, null);
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Igual que translate(), pero con hedging: si el proveedor principal no ha respondido
+     * en su percentil de latencia (hedgePercentile), se lanza también el segundo y gana el
+     * primero que responda; el perdedor se cancela. Si el principal falla antes del plazo,
+     * el segundo se lanza en el acto. Recorta la cola de latencia a costa de alguna petición extra.
+     */
+    public CompletableFuture<TranslationResult> translateHedged(String text, String sourceLang, String targetLang) {
+        long requestId = requestIds.incrementAndGet();
+        CompletableFuture<TranslationResult> result = new CompletableFuture<>();
+
+        if (text == null || text.trim().isEmpty()) {
+            result.completeExceptionally(new TranslationException("Texto vacío"));
+            return result;
+        }
+
+        List<TranslationProvider> candidates = rank(sourceLang, targetLang);
+        if (candidates.isEmpty()) {
+            result.completeExceptionally(new TranslationException(
+                    "Ningún proveedor disponible para " + sourceLang + " → " + targetLang));
+            return result;
+        }
+        if (candidates.size() == 1) {
+            attempt(candidates, 0, requestId, text, sourceLang, targetLang, result, null);
+            return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        TranslationProvider primary = candidates.get(0);
+        TranslationProvider secondary = candidates.get(1);
+        AtomicBoolean secondaryStarted = new AtomicBoolean(false);
+        AtomicReference<CompletableFuture<String>> secondaryRef = new AtomicReference<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        CompletableFuture<String> primaryFuture = launch(primary, text, sourceLang, targetLang);
+
+        // Al terminar el resultado por cualquier motivo (ganador, fallo o plazo total vencido)
+        // no debe quedar ninguna petición en marcha. Cancelar uno ya terminado no hace nada
+        result.whenComplete((ignored, error) -> {
+            primaryFuture.cancel(true);
+            CompletableFuture<String> secondaryFuture = secondaryRef.get();
+            if (secondaryFuture != null) {
+                secondaryFuture.cancel(true);
+            }
+        });
+
+        Runnable fireSecondary = () -> {
+            if (result.isDone() || !secondaryStarted.compareAndSet(false, true)) return;
+            CompletableFuture<String> secondaryFuture = launch(secondary, text, sourceLang, targetLang);
+            secondaryRef.set(secondaryFuture);
+            if (result.isDone()) {
+                // El principal ganó mientras lanzábamos el segundo
+                secondaryFuture.cancel(true);
+                return;
+            }
+            secondaryFuture.whenComplete((translated, error) -> onHedgeResult(secondary, translated, error,
+                    primaryFuture, failures, null, candidates, requestId, text, sourceLang, targetLang, result));
+        };
+
+        primaryFuture.whenComplete((translated, error) -> {
+            CompletableFuture<String> other = secondaryRef.get();
+            onHedgeResult(primary, translated, error, other, failures, fireSecondary,
+                    candidates, requestId, text, sourceLang, targetLang, result);
+        });
+
+        CompletableFuture.delayedExecutor(hedgeDelayMs(primary), TimeUnit.MILLISECONDS).execute(fireSecondary);
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Plazo total de translate() y translateHedged(); al vencer, el future termina con TimeoutException.
+     */
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Ajusta el hedging: percentil del principal usado como plazo y límites de ese plazo.
+     */
+    public void setHedgeOptions(int percentile, long defaultDelayMs, long minDelayMs, long maxDelayMs) {
+        this.hedgePercentile = percentile;
+        this.defaultHedgeDelayMs = defaultDelayMs;
+        this.minHedgeDelayMs = minDelayMs;
+        this.maxHedgeDelayMs = maxDelayMs;
+    }
+
+    /**
+     * Plazo antes de lanzar el segundo proveedor: percentil de latencia medido del principal,
+     * o un valor por defecto si aún no hay muestras suficientes.
+     */
+    long hedgeDelayMs(TranslationProvider primary) {
+        LatencyStats s = statsFor(primary);
+        long delay = s.getSampleCount() < MIN_SAMPLES ? defaultHedgeDelayMs : s.percentile(hedgePercentile);
+        return Math.max(minHedgeDelayMs, Math.min(maxHedgeDelayMs, delay));
+    }
+
+    /**
+     * Proveedores candidatos para este par, en el orden en que se probarían.
+     */
+    public List<TranslationProvider> rank(String sourceLang, String targetLang) {
+        long now = clock.getAsLong();
+        List<TranslationProvider> healthy = new ArrayList<>();
+        List<TranslationProvider> coolingDown = new ArrayList<>();
+
+        for (TranslationProvider provider : providers) {
+            if (!provider.supports(sourceLang, targetLang) || !provider.isAvailable()) continue;
+            if (statsFor(provider).isCoolingDown(now)) {
+                coolingDown.add(provider);
+            } else {
+                healthy.add(provider);
+            }
+        }
+
+        // Puntuaciones calculadas una vez: las estadísticas cambian en paralelo mientras ordenamos
+        Map<TranslationProvider, Long> scores = new HashMap<>();
+        for (TranslationProvider provider : healthy) {
+            scores.put(provider, score(provider));
+        }
+        // Orden estable: en empate se respeta el orden de registro
+        Collections.sort(healthy, (a, b) -> Long.compare(scores.get(a), scores.get(b)));
+        healthy.addAll(coolingDown);
+        return healthy;
+    }
+
+    public LatencyStats getStats(String providerName) {
+        return stats.get(providerName);
+    }
+
+    public List<TranslationProvider> getProviders() {
+        return Collections.unmodifiableList(providers);
+    }
+
+    /**
+     * Registra una medida tomada fuera del router (p. ej. por el modo hedging).
+     */
+    void recordSuccess(TranslationProvider provider, long latencyMs) {
+        statsFor(provider).recordSuccess(latencyMs);
+    }
+
+    void recordFailure(TranslationProvider provider) {
+        statsFor(provider).recordFailure(clock.getAsLong(), MAX_CONSECUTIVE_FAILURES, COOLDOWN_MS);
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    private void attempt(List<TranslationProvider> candidates, int index, long requestId, String text,
+            String sourceLang, String targetLang, CompletableFuture<TranslationResult> result, Throwable lastError) {
+        if (result.isDone()) return;
+        if (index >= candidates.size()) {
+            result.completeExceptionally(lastError != null ? lastError
+                    : new TranslationException("Ningún proveedor pudo traducir"));
+            return;
+        }
+
+        TranslationProvider provider = candidates.get(index);
+        long start = clock.getAsLong();
+        CompletableFuture<String> future;
+        try {
+            future = provider.translate(text, sourceLang, targetLang);
+        } catch (Exception e) {
+            recordFailure(provider);
+            attempt(candidates, index + 1, requestId, text, sourceLang, targetLang, result, e);
+            return;
+        }
+
+        future.whenComplete((translated, error) -> {
+            if (error == null && translated != null) {
+                recordSuccess(provider, clock.getAsLong() - start);
+                result.complete(TranslationResult.success(requestId, text, translated, provider.getName()));
+            } else {
+                recordFailure(provider);
+                attempt(candidates, index + 1, requestId, text, sourceLang, targetLang, result, unwrap(error));
+            }
+        });
+    }
+
+    private void onHedgeResult(TranslationProvider provider, String translated, Throwable error,
+            CompletableFuture<String> other, AtomicInteger failures, Runnable fireSecondary,
+            List<TranslationProvider> candidates, long requestId, String text, String sourceLang,
+            String targetLang, CompletableFuture<TranslationResult> result) {
+        if (error == null && translated != null) {
+            // El perdedor ya no hace falta. Se cancela antes de completar el resultado para que
+            // quien espera el resultado lo encuentre ya cancelado; su callback no hace nada
+            // porque solo ha fallado uno de los dos
+            if (!result.isDone() && other != null) {
+                other.cancel(true);
+            }
+            result.complete(TranslationResult.success(requestId, text, translated, provider.getName()));
+            return;
+        }
+        if (result.isDone()) return;
+
+        if (fireSecondary != null) {
+            // Falló el principal antes de tiempo: no esperamos al plazo
+            fireSecondary.run();
+        }
+        if (failures.incrementAndGet() == 2) {
+            // Fallaron los dos: seguimos con el resto de candidatos
+            attempt(candidates, 2, requestId, text, sourceLang, targetLang, result, unwrap(error));
+        }
+    }
+
+    // Lanza la petición y registra su latencia (las cancelaciones no cuentan como fallo)
+    private CompletableFuture<String> launch(TranslationProvider provider, String text, String sourceLang,
+            String targetLang) {
+        long start = clock.getAsLong();
+        CompletableFuture<String> future;
+        try {
+            future = provider.translate(text, sourceLang, targetLang);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((translated, error) -> {
+            if (error == null && translated != null) {
+                recordSuccess(provider, clock.getAsLong() - start);
+            } else if (!(unwrap(error) instanceof CancellationException)) {
+                recordFailure(provider);
+            }
+        });
+        return future;
+    }
+
+    // Menor es mejor. Sin muestras suficientes puntúa 0 para que se explore.
+    private long score(TranslationProvider provider) {
+        LatencyStats s = statsFor(provider);
+        if (s.getSampleCount() < MIN_SAMPLES) return 0;
+        return (s.getP50() + s.getP95()) / 2;
+    }
+
+    private LatencyStats statsFor(TranslationProvider provider) {
+        return stats.computeIfAbsent(provider.getName(), name -> new LatencyStats());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
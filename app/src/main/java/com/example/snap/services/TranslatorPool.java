@@ -0,0 +1,325 @@
+package com.example.snap.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.snap.SettingsActivity;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.TranslateLanguage;
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pool de traductores ML Kit a nivel de aplicación, compartido por cámara y voz.
+ *
+ * - Un Translator por par de idiomas, reutilizado entre pantallas (no se recarga el modelo
+ *   al cambiar de actividad).
+ * - Conteo de referencias: un traductor en uso nunca se cierra.
+ * - Expulsión LRU de los traductores libres cuando la huella estimada supera el presupuesto.
+ *
+ * La huella es una estimación por modelo de idioma, no por par: ML Kit traduce pivotando por
+ * inglés, así que un par sin inglés carga dos modelos, y un modelo que usan varios pares
+ * (es-en, es-fr...) solo cuenta una vez.
+ */
+public class TranslatorPool {
+
+    private static final String TAG = "TranslatorPool";
+
+    // Memoria nativa aproximada de un modelo de idioma cargado
+    static final long MODEL_FOOTPRINT_BYTES = 30L * 1024 * 1024;
+    private static final long DEFAULT_BUDGET_BYTES = 4 * MODEL_FOOTPRINT_BYTES;
+    // Texto de la traducción de precalentamiento (carga el modelo en memoria)
+    private static final String WARM_UP_TEXT = "ok";
+
+    private static volatile TranslatorPool INSTANCE;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(8, 0.75f, true);
+    // Modelos de idioma cargados -> cuántos traductores del pool los usan
+    private final Map<String, Integer> modelUsers = new HashMap<>();
+    private long budgetBytes;
+    private long footprintBytes;
+
+    private static class Entry {
+        final String key;
+        final Translator translator;
+        final List<String> models;
+        int refCount;
+        // Descarga/verificación del modelo, compartida por todos los que piden el par
+        CompletableFuture<Void> ready;
+
+        Entry(String key, Translator translator, List<String> models) {
+            this.key = key;
+            this.translator = translator;
+            this.models = models;
+        }
+    }
+
+    /**
+     * Préstamo de un traductor. Hay que cerrarlo al terminar para liberar la referencia.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Translator getTranslator() {
+            return entry.translator;
+        }
+
+        /**
+         * Completa cuando el modelo está descargado (solo se descarga con WiFi).
+         */
+        public CompletableFuture<Void> ready() {
+            return ensureReady(entry);
+        }
+
+        @Override
+        public void close() {
+            synchronized (TranslatorPool.this) {
+                if (released) return;
+                released = true;
+            }
+            release(entry);
+        }
+    }
+
+    TranslatorPool(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static TranslatorPool getInstance() {
+        if (INSTANCE == null) {
+            synchronized (TranslatorPool.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TranslatorPool(DEFAULT_BUDGET_BYTES);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Obtiene (o crea) el traductor del par. Devuelve null si ML Kit no soporta el par.
+     */
+    public Lease acquire(String sourceLang, String targetLang) {
+        String source = MlKitTranslationProvider.toMlKitLanguage(sourceLang);
+        String target = MlKitTranslationProvider.toMlKitLanguage(targetLang);
+        if (source == null || target == null) {
+            return null;
+        }
+
+        String key = sourceLang + "-" + targetLang;
+        List<Translator> toClose;
+        Lease lease;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                Translator translator = Translation.getClient(new TranslatorOptions.Builder()
+                        .setSourceLanguage(source)
+                        .setTargetLanguage(target)
+                        .build());
+                entry = new Entry(key, translator, modelsFor(source, target));
+                entries.put(key, entry);
+                addModelsLocked(entry);
+            }
+            entry.refCount++;
+            lease = new Lease(entry);
+            toClose = evictIdleLocked();
+        }
+        closeAll(toClose);
+        return lease;
+    }
+
+    /**
+     * Precarga el par por defecto del usuario activo (ajustes de SettingsActivity) para que
+     * la primera traducción no pague la carga del modelo: tras la descarga se hace una
+     * traducción de prueba, que es lo que lleva el modelo a memoria.
+     */
+    public void warmUp(Context context) {
+        SharedPreferences sessionPrefs = context.getSharedPreferences("session_prefs", Context.MODE_PRIVATE);
+        String userId = sessionPrefs.getString("active_user", "guest");
+        SharedPreferences prefs = context.getSharedPreferences(
+                SettingsActivity.PREFS_NAME + "_" + userId, Context.MODE_PRIVATE);
+        String sourceLang = prefs.getString(SettingsActivity.KEY_DEFAULT_SOURCE_LANG, "es");
+        String targetLang = prefs.getString(SettingsActivity.KEY_DEFAULT_TARGET_LANG, "en");
+
+        Lease lease = acquire(sourceLang, targetLang);
+        if (lease == null) {
+            Log.d(TAG, "Par por defecto no soportado por ML Kit: " + sourceLang + "-" + targetLang);
+            return;
+        }
+        // Se suelta al terminar: el traductor queda libre en el pool, listo para reutilizarse
+        lease.ready().whenComplete((unused, error) -> {
+            if (error != null) {
+                Log.w(TAG, "No se pudo precargar " + sourceLang + "-" + targetLang, error);
+                lease.close();
+                return;
+            }
+            lease.getTranslator().translate(WARM_UP_TEXT)
+                    .addOnSuccessListener(translated -> Log.d(TAG, "Modelo cargado: " + sourceLang + "-" + targetLang))
+                    .addOnFailureListener(e -> Log.w(TAG, "No se pudo cargar " + sourceLang + "-" + targetLang, e))
+                    .addOnCompleteListener(task -> lease.close());
+        });
+    }
+
+    /**
+     * Cambia el presupuesto de memoria y expulsa los traductores libres que sobren.
+     */
+    public void setBudgetBytes(long budgetBytes) {
+        List<Translator> toClose;
+        synchronized (this) {
+            this.budgetBytes = budgetBytes;
+            toClose = evictIdleLocked();
+        }
+        closeAll(toClose);
+    }
+
+    /**
+     * Cierra todos los traductores libres (p. ej. en onTrimMemory).
+     */
+    public void trimIdle() {
+        List<Translator> toClose = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.refCount == 0) {
+                    it.remove();
+                    removeModelsLocked(entry);
+                    toClose.add(entry.translator);
+                }
+            }
+        }
+        closeAll(toClose);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getFootprintBytes() {
+        return footprintBytes;
+    }
+
+    public String getStatsSummary() {
+        synchronized (this) {
+            return String.format(Locale.US, "translators=%d footprint_mb=%d budget_mb=%d",
+                    entries.size(), footprintBytes / (1024 * 1024), budgetBytes / (1024 * 1024));
+        }
+    }
+
+    private CompletableFuture<Void> ensureReady(Entry entry) {
+        CompletableFuture<Void> ready;
+        boolean start = false;
+        synchronized (this) {
+            if (entry.ready == null || entry.ready.isCompletedExceptionally()) {
+                // Si falló (p. ej. sin WiFi) se reintenta en el siguiente préstamo
+                entry.ready = new CompletableFuture<>();
+                start = true;
+            }
+            ready = entry.ready;
+        }
+        if (start) {
+            // Condiciones de descarga (solo wifi para no gastar datos)
+            DownloadConditions conditions = new DownloadConditions.Builder()
+                    .requireWifi()
+                    .build();
+            entry.translator.downloadModelIfNeeded(conditions)
+                    .addOnSuccessListener(unused -> ready.complete(null))
+                    .addOnFailureListener(e -> ready.completeExceptionally(
+                            new TranslationException("Modelo ML Kit no disponible", e)));
+        }
+        return ready;
+    }
+
+    private void release(Entry entry) {
+        List<Translator> toClose;
+        synchronized (this) {
+            entry.refCount--;
+            toClose = evictIdleLocked();
+        }
+        closeAll(toClose);
+    }
+
+    /**
+     * Expulsa, del menos al más recientemente usado, los traductores libres hasta quedar
+     * dentro del presupuesto. Los que están en uso se saltan aunque se supere temporalmente,
+     * y también los que solo usan modelos compartidos (cerrarlos no liberaría nada).
+     */
+    private List<Translator> evictIdleLocked() {
+        List<Translator> toClose = new ArrayList<>();
+        Iterator<Entry> it = entries.values().iterator();
+        while (footprintBytes > budgetBytes && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.refCount == 0 && ownsAnyModelLocked(entry)) {
+                it.remove();
+                removeModelsLocked(entry);
+                toClose.add(entry.translator);
+                Log.d(TAG, "Expulsado traductor " + entry.key);
+            }
+        }
+        return toClose;
+    }
+
+    // Cerrar fuera del lock: close() libera memoria nativa y puede tardar
+    private static void closeAll(List<Translator> translators) {
+        for (Translator translator : translators) {
+            translator.close();
+        }
+    }
+
+    private boolean ownsAnyModelLocked(Entry entry) {
+        for (String model : entry.models) {
+            Integer users = modelUsers.get(model);
+            if (users != null && users == 1) return true;
+        }
+        return false;
+    }
+
+    // La huella solo crece con el primer traductor que usa cada modelo
+    private void addModelsLocked(Entry entry) {
+        for (String model : entry.models) {
+            if (modelUsers.merge(model, 1, Integer::sum) == 1) {
+                footprintBytes += MODEL_FOOTPRINT_BYTES;
+            }
+        }
+    }
+
+    // ... y solo baja cuando ningún traductor del pool lo usa ya
+    private void removeModelsLocked(Entry entry) {
+        for (String model : entry.models) {
+            Integer users = modelUsers.get(model);
+            if (users == null) continue;
+            if (users <= 1) {
+                modelUsers.remove(model);
+                footprintBytes -= MODEL_FOOTPRINT_BYTES;
+            } else {
+                modelUsers.put(model, users - 1);
+            }
+        }
+    }
+
+    // Modelos que carga un par: los idiomas distintos del inglés (el pivote). en-en no existe,
+    // pero por si acaso cuenta como un modelo
+    static List<String> modelsFor(String source, String target) {
+        List<String> models = new ArrayList<>(2);
+        if (!TranslateLanguage.ENGLISH.equals(source)) models.add(source);
+        if (!TranslateLanguage.ENGLISH.equals(target) && !target.equals(source)) models.add(target);
+        if (models.isEmpty()) models.add(TranslateLanguage.ENGLISH);
+        return models;
+    }
+}
@@ -62,27 +62,7 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHold
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        TranslationHistory history = historyList.get(position);
-        String date = dateFormat.format(new Date(history.getTimestamp()));
-        
-        holder.tvDate.setText(date);
-        holder.tvSourceText.setText(history.getSourceText());
-        holder.tvTranslatedText.setText(history.getTranslatedText());
-        holder.tvLanguagePair.setText(history.getSourceLanguage() + " → " + history.getTargetLanguage());
-        
-        // Configurar click listener en el item
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onHistoryItemClick(history);
-            }
-        });
-        
-        // Configurar click listener en el botón eliminar
-        holder.btnDeleteHistory.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onHistoryItemDelete(history);
-            }
-        });
+        holder.bind(historyList.get(position), dateFormat, listener);
     }
     
     @Override
@@ -102,5 +82,29 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHold
             tvLanguagePair = itemView.findViewById(R.id.tvLanguagePair);
             btnDeleteHistory = itemView.findViewById(R.id.btnDeleteHistory);
         }
+
+        // Compartido con HistoryPagingAdapter
+        void bind(TranslationHistory history, SimpleDateFormat dateFormat, OnHistoryActionListener listener) {
+            String date = dateFormat.format(new Date(history.getTimestamp()));
+            
+            tvDate.setText(date);
+            tvSourceText.setText(history.getSourceText());
+            tvTranslatedText.setText(history.getTranslatedText());
+            tvLanguagePair.setText(history.getSourceLanguage() + " → " + history.getTargetLanguage());
+            
+            // Configurar click listener en el item
+            itemView.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onHistoryItemClick(history);
+                }
+            });
+            
+            // Configurar click listener en el botón eliminar
+            btnDeleteHistory.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onHistoryItemDelete(history);
+                }
+            });
+        }
     }
 }
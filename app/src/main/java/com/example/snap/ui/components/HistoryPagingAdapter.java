@@ -0,0 +1,70 @@
+package com.example.snap.ui.components;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.snap.R;
+import com.example.snap.data.entities.TranslationHistory;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Versión paginada de HistoryAdapter: recibe PagingData y solo tiene en memoria las páginas
+ * cercanas a lo que se ve. Misma vista (item_history) y mismas acciones.
+ */
+public class HistoryPagingAdapter extends PagingDataAdapter<TranslationHistory, HistoryAdapter.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<TranslationHistory> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<TranslationHistory>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull TranslationHistory oldItem, @NonNull TranslationHistory newItem) {
+                    return oldItem.getId() == newItem.getId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull TranslationHistory oldItem, @NonNull TranslationHistory newItem) {
+                    return oldItem.getTimestamp() == newItem.getTimestamp()
+                            && Objects.equals(oldItem.getSourceText(), newItem.getSourceText())
+                            && Objects.equals(oldItem.getTranslatedText(), newItem.getTranslatedText())
+                            && Objects.equals(oldItem.getSourceLanguage(), newItem.getSourceLanguage())
+                            && Objects.equals(oldItem.getTargetLanguage(), newItem.getTargetLanguage());
+                }
+            };
+
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM HH:mm", Locale.getDefault());
+    private HistoryAdapter.OnHistoryActionListener listener;
+
+    public HistoryPagingAdapter() {
+        super(DIFF_CALLBACK);
+    }
+
+    /**
+     * Establece el listener para acciones en items
+     */
+    public void setOnHistoryActionListener(HistoryAdapter.OnHistoryActionListener listener) {
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public HistoryAdapter.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_history, parent, false);
+        return new HistoryAdapter.ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HistoryAdapter.ViewHolder holder, int position) {
+        TranslationHistory history = getItem(position);
+        if (history != null) {
+            holder.bind(history, dateFormat, listener);
+        }
+    }
+}
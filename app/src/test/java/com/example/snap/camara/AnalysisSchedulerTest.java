@@ -0,0 +1,98 @@
+package com.example.snap.camara;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del planificador de análisis con un reloj manual.
+ */
+public class AnalysisSchedulerTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    // Simula un frame completo: ocr, traducción y dibujado con las duraciones dadas
+    private void runFrame(AnalysisScheduler scheduler, long ocr, long translate, long render) {
+        AnalysisScheduler.Frame frame = scheduler.beginFrame();
+        clock.addAndGet(ocr);
+        frame.ocrFinished();
+        clock.addAndGet(translate);
+        frame.translationFinished();
+        clock.addAndGet(render);
+        frame.finish();
+    }
+
+    @Test
+    public void startsWithTheClassicDelay() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        assertEquals(AnalysisScheduler.INITIAL_INTERVAL_MS, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void fastDeviceAnalyzesMoreOften() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        for (int i = 0; i < 20; i++) {
+            runFrame(scheduler, 120, 150, 30);
+        }
+        // 300 ms por frame + margen
+        assertEquals(330, scheduler.getIntervalMs());
+        assertEquals(120, scheduler.getOcrMs(), 0.5);
+        assertEquals(150, scheduler.getTranslateMs(), 0.5);
+        assertEquals(30, scheduler.getRenderMs(), 0.5);
+    }
+
+    @Test
+    public void slowDeviceIsCappedAtMaximum() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        for (int i = 0; i < 20; i++) {
+            runFrame(scheduler, 2000, 5000, 100);
+        }
+        assertEquals(AnalysisScheduler.MAX_INTERVAL_MS, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void thermalPressureBacksOff() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        for (int i = 0; i < 20; i++) {
+            runFrame(scheduler, 120, 150, 30);
+        }
+        long cool = scheduler.getIntervalMs();
+        scheduler.setThermalStatus(AnalysisScheduler.THERMAL_MODERATE);
+        assertEquals(cool * 3, scheduler.getIntervalMs());
+        scheduler.setThermalStatus(AnalysisScheduler.THERMAL_SEVERE);
+        assertEquals(AnalysisScheduler.MAX_INTERVAL_MS, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void doesNotStartWhileAFrameIsInFlight() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        assertTrue(scheduler.isDue(FrameChangeDetector.Decision.CHANGED));
+        AnalysisScheduler.Frame frame = scheduler.beginFrame();
+
+        clock.addAndGet(5000);
+        assertFalse(scheduler.isDue(FrameChangeDetector.Decision.CHANGED));
+        frame.finish();
+        assertTrue(scheduler.isDue(FrameChangeDetector.Decision.CHANGED));
+    }
+
+    @Test
+    public void lostFramesExpire() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        scheduler.beginFrame();
+        clock.addAndGet(11_000);
+        assertTrue(scheduler.isDue(FrameChangeDetector.Decision.CHANGED));
+    }
+
+    @Test
+    public void staticSceneOnlyRefreshesOccasionally() {
+        AnalysisScheduler scheduler = new AnalysisScheduler(clock::get);
+        runFrame(scheduler, 100, 100, 10);
+        clock.addAndGet(1000);
+        assertTrue(scheduler.isDue(FrameChangeDetector.Decision.CHANGED));
+        assertFalse(scheduler.isDue(FrameChangeDetector.Decision.UNCHANGED));
+        clock.addAndGet(AnalysisScheduler.STATIC_REFRESH_MS);
+        assertTrue(scheduler.isDue(FrameChangeDetector.Decision.UNCHANGED));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.snap.camara;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del seguimiento de bloques entre frames (coordenadas y textos sintéticos).
+ */
+public class BlockTrackerTest {
+
+    private static BlockTracker.Block block(int left, int top, String text) {
+        return new BlockTracker.Block(left, top, left + 200, top + 50, text);
+    }
+
+    private static void translateAll(BlockTracker tracker, List<BlockTracker.TrackedBlock> tracked) {
+        for (BlockTracker.TrackedBlock block : tracked) {
+            if (block.needsTranslation) {
+                tracker.setTranslation(block.trackId, block.text, "T(" + block.text + ")");
+            }
+        }
+    }
+
+    @Test
+    public void stableBlocksReuseTheirTranslation() {
+        BlockTracker tracker = new BlockTracker();
+        translateAll(tracker, tracker.update(Arrays.asList(block(10, 10, "Salida"), block(10, 200, "Entrada"))));
+
+        // Ligero movimiento de la cámara y ruido del OCR
+        List<BlockTracker.TrackedBlock> next = tracker.update(
+                Arrays.asList(block(14, 12, "Salida"), block(12, 205, "Entrada.")));
+
+        assertFalse(next.get(0).needsTranslation);
+        assertEquals("T(Salida)", next.get(0).translation);
+        assertFalse(next.get(1).needsTranslation);
+        assertEquals("T(Entrada)", next.get(1).translation);
+    }
+
+    @Test
+    public void onlyNewBlocksAreTranslated() {
+        BlockTracker tracker = new BlockTracker();
+        translateAll(tracker, tracker.update(Collections.singletonList(block(10, 10, "Salida"))));
+
+        List<BlockTracker.TrackedBlock> next = tracker.update(
+                Arrays.asList(block(10, 10, "Salida"), block(10, 300, "Prohibido fumar")));
+
+        assertFalse(next.get(0).needsTranslation);
+        assertTrue(next.get(1).needsTranslation);
+        assertNull(next.get(1).translation);
+    }
+
+    @Test
+    public void changedTextInSamePlaceIsRetranslated() {
+        BlockTracker tracker = new BlockTracker();
+        translateAll(tracker, tracker.update(Collections.singletonList(block(10, 10, "Precio 10 euros"))));
+
+        List<BlockTracker.TrackedBlock> next = tracker.update(
+                Collections.singletonList(block(10, 10, "Precio 25 euros")));
+
+        assertTrue(next.get(0).needsTranslation);
+        assertNull(next.get(0).translation);
+    }
+
+    @Test
+    public void pendingTranslationIsNotRequestedTwice() {
+        BlockTracker tracker = new BlockTracker();
+        List<BlockTracker.TrackedBlock> first = tracker.update(Collections.singletonList(block(10, 10, "Salida")));
+        assertTrue(first.get(0).needsTranslation);
+
+        List<BlockTracker.TrackedBlock> second = tracker.update(Collections.singletonList(block(10, 10, "Salida")));
+        assertFalse(second.get(0).needsTranslation);
+        assertNull(second.get(0).translation);
+    }
+
+    @Test
+    public void failedTranslationIsRetried() {
+        BlockTracker tracker = new BlockTracker();
+        BlockTracker.TrackedBlock first = tracker.update(Collections.singletonList(block(10, 10, "Salida"))).get(0);
+        tracker.markFailed(first.trackId, first.text);
+
+        assertTrue(tracker.update(Collections.singletonList(block(10, 10, "Salida"))).get(0).needsTranslation);
+    }
+
+    @Test
+    public void resetDropsAllTranslations() {
+        BlockTracker tracker = new BlockTracker();
+        translateAll(tracker, tracker.update(Collections.singletonList(block(10, 10, "Salida"))));
+        tracker.reset();
+
+        assertTrue(tracker.update(Collections.singletonList(block(10, 10, "Salida"))).get(0).needsTranslation);
+    }
+
+    @Test
+    public void similarityIgnoresCaseAndSpacing() {
+        assertEquals(1f, BlockTracker.similarity("Hola  Mundo", "hola mundo"), 0.0001f);
+        assertTrue(BlockTracker.similarity("Salida", "Entrada") < 0.6f);
+    }
+}
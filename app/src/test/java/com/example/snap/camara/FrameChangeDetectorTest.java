@@ -0,0 +1,76 @@
+package com.example.snap.camara;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del filtro por cambio de escena sobre planos Y sintéticos.
+ */
+public class FrameChangeDetectorTest {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+    // Fila con relleno, como los planos reales de la cámara
+    private static final int ROW_STRIDE = 336;
+
+    // Patrón de bandas verticales desplazado offsetX píxeles y con brillo extra
+    private static ByteBuffer frame(int offsetX, int brightness) {
+        byte[] data = new byte[ROW_STRIDE * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int value = ((x + offsetX) / 40) % 2 == 0 ? 40 : 200;
+                data[y * ROW_STRIDE + x] = (byte) Math.min(255, value + brightness);
+            }
+        }
+        return ByteBuffer.wrap(data);
+    }
+
+    private static FrameChangeDetector.Decision evaluate(FrameChangeDetector detector, ByteBuffer frame) {
+        return detector.evaluate(frame, WIDTH, HEIGHT, ROW_STRIDE, 1);
+    }
+
+    @Test
+    public void firstFrameIsAlwaysAnalyzed() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        assertEquals(FrameChangeDetector.Decision.CHANGED, evaluate(detector, frame(0, 0)));
+    }
+
+    @Test
+    public void staticSceneIsSkipped() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        evaluate(detector, frame(0, 0));
+        detector.markAnalyzed();
+        assertEquals(FrameChangeDetector.Decision.UNCHANGED, evaluate(detector, frame(0, 0)));
+    }
+
+    @Test
+    public void exposureChangeIsNotASceneChange() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        evaluate(detector, frame(0, 0));
+        detector.markAnalyzed();
+        assertEquals(FrameChangeDetector.Decision.UNCHANGED, evaluate(detector, frame(0, 30)));
+    }
+
+    @Test
+    public void panningIsReportedAsMovingThenChangedOnceStable() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        evaluate(detector, frame(0, 0));
+        detector.markAnalyzed();
+
+        assertEquals(FrameChangeDetector.Decision.MOVING, evaluate(detector, frame(20, 0)));
+        // La cámara se detiene en la nueva posición
+        assertEquals(FrameChangeDetector.Decision.CHANGED, evaluate(detector, frame(20, 0)));
+    }
+
+    @Test
+    public void resetForcesNextFrameToBeAnalyzed() {
+        FrameChangeDetector detector = new FrameChangeDetector();
+        evaluate(detector, frame(0, 0));
+        detector.markAnalyzed();
+        detector.requestReset();
+        assertEquals(FrameChangeDetector.Decision.CHANGED, evaluate(detector, frame(0, 0)));
+    }
+}
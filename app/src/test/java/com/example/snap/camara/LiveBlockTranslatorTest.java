@@ -0,0 +1,138 @@
+package com.example.snap.camara;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Etapa de traducción en vivo: reparto entre bloque a bloque y lote, y que funciona cuando la
+ * tubería la llama desde el hilo de análisis (el backend falso falla en el hilo "principal",
+ * como LiveData.observeForever).
+ */
+public class LiveBlockTranslatorTest {
+
+    private final List<String> single = new ArrayList<>();
+    private final List<List<String>> batches = new ArrayList<>();
+    private boolean onDevice;
+    private Thread mainThread;
+    private ExecutorService analysis;
+
+    private final LiveBlockTranslator.Backend backend = new LiveBlockTranslator.Backend() {
+        @Override
+        public boolean prefersOnDevice(String sourceLang, String targetLang) {
+            return onDevice;
+        }
+
+        @Override
+        public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+            checkNotMain();
+            synchronized (single) {
+                single.add(text);
+            }
+            return CompletableFuture.completedFuture("T(" + text + ")");
+        }
+
+        @Override
+        public List<CompletableFuture<String>> translateBatch(List<String> texts, String sourceLang,
+                                                              String targetLang) {
+            checkNotMain();
+            synchronized (batches) {
+                batches.add(texts);
+            }
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (String text : texts) {
+                futures.add(CompletableFuture.completedFuture("B(" + text + ")"));
+            }
+            return futures;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        analysis = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        analysis.shutdownNow();
+    }
+
+    private void checkNotMain() {
+        if (Thread.currentThread() == mainThread) {
+            throw new IllegalStateException("Cannot invoke observeForever on a background thread");
+        }
+    }
+
+    @Test
+    public void onDevicePairTranslatesBlockByBlock() {
+        onDevice = true;
+        LiveBlockTranslator translator = new LiveBlockTranslator(backend, () -> "es", () -> "en");
+        List<CompletableFuture<String>> futures = translator.translate(Arrays.asList("Salida", "Entrada"));
+
+        assertEquals(Arrays.asList("Salida", "Entrada"), single);
+        assertTrue(batches.isEmpty());
+        assertEquals("T(Entrada)", futures.get(1).join());
+    }
+
+    @Test
+    public void networkPairTranslatesInOneBatch() {
+        LiveBlockTranslator translator = new LiveBlockTranslator(backend, () -> "es", () -> "en");
+        List<CompletableFuture<String>> futures = translator.translate(Arrays.asList("Salida", "Entrada"));
+
+        assertTrue(single.isEmpty());
+        assertEquals(1, batches.size());
+        assertEquals("B(Salida)", futures.get(0).join());
+    }
+
+    @Test
+    public void sameLanguageIsNotTranslated() {
+        LiveBlockTranslator translator = new LiveBlockTranslator(backend, () -> "es", () -> "es");
+        assertEquals("Salida", translator.translate(Collections.singletonList("Salida")).get(0).join());
+        assertTrue(single.isEmpty());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void pipelineTranslatesOnTheAnalysisThread() throws Exception {
+        onDevice = true;
+        mainThread = Thread.currentThread();
+        CompletableFuture<LiveTranslationPipeline.OcrResult> ocr = new CompletableFuture<>();
+        List<LiveTranslationPipeline.FrameResult> rendered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch renderedLatch = new CountDownLatch(1);
+
+        LiveTranslationPipeline<String> pipeline = new LiveTranslationPipeline<>(
+                input -> ocr,
+                new LiveBlockTranslator(backend, () -> "es", () -> "en"),
+                result -> {
+                    rendered.add(result);
+                    renderedLatch.countDown();
+                },
+                Runnable::run,
+                analysis,
+                input -> { },
+                new BlockTracker(),
+                2);
+
+        pipeline.submit("frame", null);
+        // El OCR completa en el hilo "principal", como los listeners de ML Kit
+        ocr.complete(new LiveTranslationPipeline.OcrResult(
+                Collections.singletonList(new BlockTracker.Block(0, 0, 200, 50, "Salida")), 720, 1280));
+
+        assertTrue(renderedLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("Salida"), single);
+        assertTrue(rendered.get(0).blocks.get(0).translated);
+        assertEquals("T(Salida)", rendered.get(0).fullText);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.snap.camara;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la tubería en vivo con OCR, traducción y UI falsos (sin Android).
+ * Las etapas devuelven futures que el test completa a mano para forzar el orden de llegada.
+ */
+public class LiveTranslationPipelineTest {
+
+    // OCR falso: la entrada es la lista de textos del frame; se completa a mano
+    private final Map<List<String>, CompletableFuture<LiveTranslationPipeline.OcrResult>> ocrCalls = new HashMap<>();
+    // Traducción falsa: un future por texto pedido, en orden de llegada
+    private final Map<String, CompletableFuture<String>> translateCalls = new HashMap<>();
+    private final List<String> requested = new ArrayList<>();
+    private final List<LiveTranslationPipeline.FrameResult> rendered = new ArrayList<>();
+    private final List<List<String>> released = new ArrayList<>();
+    // UI falsa: las tareas se acumulan hasta runUi()
+    private final List<Runnable> uiQueue = new ArrayList<>();
+
+    private LiveTranslationPipeline<List<String>> pipeline(int maxFramesTranslating) {
+        return new LiveTranslationPipeline<>(
+                texts -> {
+                    CompletableFuture<LiveTranslationPipeline.OcrResult> future = new CompletableFuture<>();
+                    ocrCalls.put(texts, future);
+                    return future;
+                },
+                texts -> {
+                    List<CompletableFuture<String>> futures = new ArrayList<>();
+                    for (String text : texts) {
+                        CompletableFuture<String> future = new CompletableFuture<>();
+                        translateCalls.put(text, future);
+                        requested.add(text);
+                        futures.add(future);
+                    }
+                    return futures;
+                },
+                rendered::add,
+                uiQueue::add,
+                Runnable::run,
+                released::add,
+                new BlockTracker(),
+                maxFramesTranslating);
+    }
+
+    private void finishOcr(List<String> texts) {
+        List<BlockTracker.Block> blocks = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            blocks.add(new BlockTracker.Block(0, i * 100, 200, i * 100 + 50, texts.get(i)));
+        }
+        ocrCalls.get(texts).complete(new LiveTranslationPipeline.OcrResult(blocks, 720, 1280));
+    }
+
+    private void translate(String text) {
+        translateCalls.get(text).complete("T(" + text + ")");
+    }
+
+    private void runUi() {
+        List<Runnable> tasks = new ArrayList<>(uiQueue);
+        uiQueue.clear();
+        for (Runnable task : tasks) task.run();
+    }
+
+    @Test
+    public void rendersOnceWhenAllBlocksOfAFrameAreTranslated() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> frame = Arrays.asList("Salida", "Entrada");
+        pipeline.submit(frame, null);
+        finishOcr(frame);
+
+        translate("Salida");
+        runUi();
+        assertTrue(rendered.isEmpty());
+
+        translate("Entrada");
+        runUi();
+        assertEquals(1, rendered.size());
+        assertEquals("T(Salida)\nT(Entrada)", rendered.get(0).fullText);
+        assertEquals(Collections.singletonList(frame), released);
+    }
+
+    @Test
+    public void lateResultOfOldFrameNeverPaintsOverNewerOne() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> first = Collections.singletonList("Prohibido fumar");
+        List<String> second = Collections.singletonList("Salida");
+
+        pipeline.submit(first, null);
+        finishOcr(first);
+        pipeline.submit(second, null);
+        finishOcr(second);
+
+        // El frame nuevo termina antes
+        translate("Salida");
+        runUi();
+        translate("Prohibido fumar");
+        runUi();
+
+        assertEquals(1, rendered.size());
+        assertEquals("T(Salida)", rendered.get(0).fullText);
+        assertEquals(1, pipeline.getDroppedStaleCount());
+    }
+
+    @Test
+    public void framesFinishedBeforeTheUiRunsAreCoalesced() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> first = Collections.singletonList("Salida");
+        List<String> second = Collections.singletonList("Entrada");
+
+        pipeline.submit(first, null);
+        finishOcr(first);
+        translate("Salida");
+        pipeline.submit(second, null);
+        finishOcr(second);
+        translate("Entrada");
+
+        runUi();
+        assertEquals(1, rendered.size());
+        assertEquals("T(Entrada)", rendered.get(0).fullText);
+    }
+
+    @Test
+    public void busyOcrKeepsOnlyTheNewestWaitingFrame() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> running = Collections.singletonList("A");
+        List<String> old = Collections.singletonList("B");
+        List<String> newest = Collections.singletonList("C");
+
+        pipeline.submit(running, null);
+        pipeline.submit(old, null);
+        pipeline.submit(newest, null);
+
+        // El frame viejo se libera sin pasar por el OCR
+        assertEquals(Collections.singletonList(old), released);
+        assertFalse(ocrCalls.containsKey(old));
+        finishOcr(running);
+        assertTrue(ocrCalls.containsKey(newest));
+        assertEquals(1, pipeline.getDroppedBeforeOcrCount());
+    }
+
+    @Test
+    public void stableBlocksAreNotTranslatedAgain() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> first = Collections.singletonList("Salida");
+        pipeline.submit(first, null);
+        finishOcr(first);
+        translate("Salida");
+        runUi();
+
+        List<String> second = Arrays.asList("Salida", "Entrada");
+        pipeline.submit(second, null);
+        finishOcr(second);
+        translate("Entrada");
+        runUi();
+
+        assertEquals(Arrays.asList("Salida", "Entrada"), requested);
+        assertEquals("T(Salida)\nT(Entrada)", rendered.get(1).fullText);
+    }
+
+    @Test
+    public void blockStillTranslatingIsAwaitedNotRequestedTwice() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> first = Collections.singletonList("Salida");
+        List<String> second = Collections.singletonList("Salida");
+        pipeline.submit(first, null);
+        finishOcr(first);
+        pipeline.submit(second, null);
+        finishOcr(second);
+
+        translate("Salida");
+        runUi();
+        assertEquals(Collections.singletonList("Salida"), requested);
+        assertEquals(1, rendered.size());
+        assertEquals("T(Salida)", rendered.get(0).fullText);
+    }
+
+    @Test
+    public void failedTranslationShowsOriginalText() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> frame = Collections.singletonList("Salida");
+        pipeline.submit(frame, null);
+        finishOcr(frame);
+        translateCalls.get("Salida").completeExceptionally(new RuntimeException("sin red"));
+        runUi();
+
+        assertEquals("Salida", rendered.get(0).fullText);
+        assertFalse(rendered.get(0).blocks.get(0).translated);
+    }
+
+    @Test
+    public void resetDropsFramesInProgress() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> frame = Collections.singletonList("Salida");
+        pipeline.submit(frame, null);
+        finishOcr(frame);
+        pipeline.reset();
+        translate("Salida");
+        runUi();
+
+        assertTrue(rendered.isEmpty());
+    }
+
+    @Test
+    public void shutdownCancelsTranslationsAndReleasesFrames() {
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> first = Collections.singletonList("Salida");
+        List<String> inOcr = Collections.singletonList("Entrada");
+        List<String> waiting = Collections.singletonList("Andén");
+        List<String> late = Collections.singletonList("Vía");
+        pipeline.submit(first, null);
+        finishOcr(first);
+        pipeline.submit(inOcr, null);
+        pipeline.submit(waiting, null);
+
+        pipeline.shutdown();
+        assertTrue(translateCalls.get("Salida").isCancelled());
+        assertTrue(released.contains(waiting));
+
+        pipeline.submit(late, null);
+        assertTrue(released.contains(late));
+        assertFalse(ocrCalls.containsKey(late));
+
+        finishOcr(inOcr);
+        runUi();
+        assertTrue(released.contains(inOcr));
+        assertFalse(requested.contains("Entrada"));
+        assertTrue(rendered.isEmpty());
+    }
+
+    @Test
+    public void timingsAreReportedToTheScheduler() {
+        long[] now = {0};
+        AnalysisScheduler scheduler = new AnalysisScheduler(() -> now[0]);
+        LiveTranslationPipeline<List<String>> pipeline = pipeline(2);
+        List<String> frame = Collections.singletonList("Salida");
+
+        pipeline.submit(frame, scheduler.beginFrame());
+        now[0] += 100;
+        finishOcr(frame);
+        now[0] += 200;
+        translate("Salida");
+        now[0] += 20;
+        runUi();
+
+        assertEquals(100, scheduler.getOcrMs(), 0.5);
+        assertEquals(200, scheduler.getTranslateMs(), 0.5);
+        assertEquals(20, scheduler.getRenderMs(), 0.5);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.snap.camara;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la elección de región de OCR y del recorte YUV con su mapeo de coordenadas.
+ */
+public class RoiSelectorTest {
+
+    @Test
+    public void fullFrameWithinLimitIsPassedThrough() {
+        RoiSelector selector = new RoiSelector();
+        selector.setMode(RoiSelector.Mode.FULL);
+        RoiSelector.Region region = selector.select(720, 1280);
+        assertTrue(region.isIdentity());
+        assertEquals(100, region.mapX(100));
+    }
+
+    @Test
+    public void largeFrameIsDownscaled() {
+        RoiSelector selector = new RoiSelector();
+        selector.setMode(RoiSelector.Mode.FULL);
+        selector.setMaxOcrSide(960);
+        RoiSelector.Region region = selector.select(1080, 1920);
+        assertEquals(2, region.step);
+        assertFalse(region.isIdentity());
+        // Un punto de la imagen reducida vuelve a su posición en el frame completo
+        assertEquals(200, region.mapX(100));
+    }
+
+    @Test
+    public void centerModeCropsAReticle() {
+        RoiSelector selector = new RoiSelector();
+        selector.setMode(RoiSelector.Mode.CENTER);
+        RoiSelector.Region region = selector.select(720, 1280);
+        assertTrue(region.width() <= 720 * RoiSelector.CENTER_WIDTH);
+        assertTrue(region.height() <= 1280 * RoiSelector.CENTER_HEIGHT);
+        assertEquals(0, region.left % 2);
+        assertEquals(0, region.width() % (2 * region.step));
+        assertEquals(640, (region.top + region.bottom) / 2, 2);
+    }
+
+    @Test
+    public void autoModeFollowsLastTextAndPeriodicallyScansFullFrame() {
+        RoiSelector selector = new RoiSelector();
+        assertTrue(selector.select(720, 1280).fullFrame);
+
+        selector.onFrameResult(Collections.singletonList(new BlockTracker.Block(100, 500, 300, 560, "Salida")));
+        for (int i = 0; i < RoiSelector.AUTO_FULL_FRAME_EVERY - 1; i++) {
+            RoiSelector.Region region = selector.select(720, 1280);
+            assertFalse(region.fullFrame);
+            assertTrue(region.left <= 100 && region.right >= 300);
+            assertTrue(region.top <= 500 && region.bottom >= 560);
+        }
+        assertTrue(selector.select(720, 1280).fullFrame);
+    }
+
+    @Test
+    public void autoModeWithoutTextScansFullFrame() {
+        RoiSelector selector = new RoiSelector();
+        selector.onFrameResult(Arrays.asList());
+        assertTrue(selector.select(720, 1280).fullFrame);
+    }
+
+    @Test
+    public void userRegionStaysInsideTheFrame() {
+        RoiSelector selector = new RoiSelector();
+        selector.setUserRegion(1f, 0f);
+        RoiSelector.Region region = selector.select(720, 1280);
+        assertEquals(RoiSelector.Mode.USER, selector.getMode());
+        assertTrue(region.right <= 720);
+        assertEquals(0, region.top);
+    }
+
+    @Test
+    public void cropCopiesTheRotatedRegion() {
+        // Sensor 8x4 apaisado, rotación 90: la imagen derecha es 4x8
+        int sensorW = 8, sensorH = 4;
+        byte[] y = new byte[sensorW * sensorH];
+        for (int i = 0; i < y.length; i++) y[i] = (byte) i;
+        byte[] u = new byte[sensorW * sensorH / 4];
+        byte[] v = new byte[sensorW * sensorH / 4];
+        Arrays.fill(u, (byte) 7);
+        Arrays.fill(v, (byte) 9);
+
+        RoiSelector.Region region = new RoiSelector.Region(0, 2, 2, 6, 1, false);
+        int[] sensorRect = YuvCropper.toSensorRect(region, 90, sensorW, sensorH);
+        assertEquals(Arrays.asList(2, 2, 6, 4), Arrays.asList(sensorRect[0], sensorRect[1], sensorRect[2], sensorRect[3]));
+
+        YuvCropper cropper = new YuvCropper();
+        byte[] nv21 = cropper.crop(region, 90, sensorW, sensorH,
+                ByteBuffer.wrap(y), sensorW, 1, ByteBuffer.wrap(u), ByteBuffer.wrap(v), sensorW / 2, 1);
+        assertEquals(4, cropper.getOutputWidth());
+        assertEquals(2, cropper.getOutputHeight());
+        assertEquals(4 * 2 * 3 / 2, nv21.length);
+        // Primera fila del recorte = fila 2 del sensor desde la columna 2
+        assertEquals(18, nv21[0]);
+        assertEquals(21, nv21[3]);
+        assertEquals(26, nv21[4]);
+        assertEquals(9, nv21[8]);
+        assertEquals(7, nv21[9]);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.snap.data.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ContentHashTest {
+
+    @Test
+    public void sameFieldsSameHash() {
+        assertEquals(ContentHash.of("u", "hola", "hello", "es", "en"),
+                ContentHash.of("u", "hola", "hello", "es", "en"));
+        assertEquals(64, ContentHash.of("u").length());
+    }
+
+    @Test
+    public void fieldBoundariesMatter() {
+        assertNotEquals(ContentHash.of("ab", "c"), ContentHash.of("a", "bc"));
+    }
+
+    @Test
+    public void anyFieldChangesHash() {
+        String base = ContentHash.of("u", "hola", "hello", "es", "en");
+        assertNotEquals(base, ContentHash.of("v", "hola", "hello", "es", "en"));
+        assertNotEquals(base, ContentHash.of("u", "hola", "hello", "es", "fr"));
+        assertNotEquals(base, ContentHash.of("u", "Hola", "hello", "es", "en"));
+    }
+
+    @Test
+    public void nullCountsAsEmpty() {
+        assertEquals(ContentHash.of("u", null), ContentHash.of("u", ""));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.snap.data.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FtsQueryTest {
+
+    @Test
+    public void wordsBecomePrefixTerms() {
+        assertEquals("hol* mun*", FtsQuery.build("  Hol   mun "));
+    }
+
+    @Test
+    public void quotedTextBecomesPhrase() {
+        assertEquals("\"buenos días\" amig*", FtsQuery.build("\"Buenos días\" amig"));
+    }
+
+    @Test
+    public void quotedWordIsExact() {
+        assertEquals("\"casa\" perr*", FtsQuery.build("\"Casa\" perr"));
+    }
+
+    @Test
+    public void unclosedQuoteRunsToEnd() {
+        assertEquals("cas* \"good morning\"", FtsQuery.build("cas \"good morning"));
+    }
+
+    @Test
+    public void stripsFtsSyntax() {
+        assertEquals("not* a* b* c*", FtsQuery.build("NOT a* -b (c:)"));
+    }
+
+    @Test
+    public void emptyWhenNothingToSearch() {
+        assertEquals("", FtsQuery.build(null));
+        assertEquals("", FtsQuery.build("  \"\" *** "));
+    }
+
+    @Test
+    public void keepsNonLatinScripts() {
+        assertEquals("こんにちは*", FtsQuery.build("こんにちは"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.snap.services;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class DiskLruIndexTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedWhenOverLimit() {
+        DiskLruIndex index = new DiskLruIndex(100);
+        assertEquals(Collections.emptyList(), index.put("a", 40));
+        assertEquals(Collections.emptyList(), index.put("b", 40));
+        assertTrue(index.touch("a"));
+
+        // "b" es ahora la menos usada
+        assertEquals(Arrays.asList("b"), index.put("c", 40));
+        assertTrue(index.contains("a"));
+        assertTrue(index.contains("c"));
+        assertEquals(80, index.getTotalBytes());
+    }
+
+    @Test
+    public void replacingAnEntryUpdatesTheTotal() {
+        DiskLruIndex index = new DiskLruIndex(100);
+        index.put("a", 30);
+        index.put("a", 50);
+        assertEquals(1, index.size());
+        assertEquals(50, index.getTotalBytes());
+    }
+
+    @Test
+    public void entryLargerThanLimitIsNotKept() {
+        DiskLruIndex index = new DiskLruIndex(100);
+        index.put("a", 10);
+        assertEquals(Arrays.asList("a", "big"), index.put("big", 150));
+        assertEquals(0, index.getTotalBytes());
+    }
+
+    @Test
+    public void loweringTheLimitEvictsOldestFirst() {
+        DiskLruIndex index = new DiskLruIndex(100);
+        index.put("a", 30);
+        index.put("b", 30);
+        index.put("c", 30);
+        assertEquals(Arrays.asList("a", "b"), index.setMaxBytes(40));
+        assertFalse(index.touch("a"));
+        assertTrue(index.remove("c"));
+        assertEquals(0, index.getTotalBytes());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.snap.services;
+
+import org.json.JSONArray;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Microbenchmark: parser en streaming (GtxResponseParser) frente al parser anterior
+ * basado en org.json (String completo + árbol JSONArray).
+ * Imprime tiempo medio y bytes asignados por respuesta para un párrafo grande.
+ * No forma parte de ./gradlew test (la corrección está en GtxResponseParserTest): quitar
+ * el @Ignore para ejecutarlo a mano.
+ */
+@Ignore("Benchmark: ejecutar a mano")
+public class GtxResponseParserBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Test
+    public void benchmarkLargeParagraph() throws Exception {
+        String body = buildResponse(400);
+        // Los dos parsers deben dar lo mismo para que la comparación valga
+        assertEquals(parseLegacy(body), GtxResponseParser.parse(new StringReader(body)));
+
+        for (int i = 0; i < WARMUP; i++) {
+            parseLegacy(body);
+            GtxResponseParser.parse(new StringReader(body));
+        }
+
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+
+        long legacyAlloc = allocatedBytes(mx);
+        long legacyStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            parseLegacy(body);
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+        legacyAlloc = allocatedBytes(mx) - legacyAlloc;
+
+        long streamAlloc = allocatedBytes(mx);
+        long streamStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            GtxResponseParser.parse(new StringReader(body));
+        }
+        long streamNanos = System.nanoTime() - streamStart;
+        streamAlloc = allocatedBytes(mx) - streamAlloc;
+
+        System.out.printf("gtx body %d chars%n", body.length());
+        System.out.printf("org.json : %8.1f us/op %10d B/op%n",
+                legacyNanos / 1000.0 / ITERATIONS, legacyAlloc / ITERATIONS);
+        System.out.printf("streaming: %8.1f us/op %10d B/op%n",
+                streamNanos / 1000.0 / ITERATIONS, streamAlloc / ITERATIONS);
+    }
+
+    // Parser anterior de NetworkTranslationService (body.string() + JSONArray)
+    private static String parseLegacy(String jsonResponse) throws Exception {
+        JSONArray jsonArray = new JSONArray(jsonResponse);
+        if (jsonArray.length() == 0) return null;
+        JSONArray sentences = jsonArray.getJSONArray(0);
+        StringBuilder translatedBuilder = new StringBuilder();
+        for (int i = 0; i < sentences.length(); i++) {
+            JSONArray sentence = sentences.getJSONArray(i);
+            if (sentence.length() > 0) {
+                translatedBuilder.append(sentence.getString(0));
+            }
+        }
+        return translatedBuilder.toString();
+    }
+
+    // Respuesta con la forma de translate_a/single: frases + secciones extra que no usamos
+    private static String buildResponse(int sentences) {
+        StringBuilder sb = new StringBuilder("[[");
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("[\"Esta es la frase traducida número ").append(i)
+                    .append(" del párrafo. \",\"This is translated sentence number ").append(i)
+                    .append(" of the paragraph. \",null,null,3,null,null,[[]],[[[\"abc\",\"def\"]]]]");
+        }
+        sb.append("],null,\"en\",null,null,null,1.0,[],[[\"en\"],null,[1.0],[\"en\"]]]");
+        return sb.toString();
+    }
+
+    private static long allocatedBytes(ThreadMXBean mx) {
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.snap.services;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class GtxResponseParserTest {
+
+    @Test
+    public void joinsAllTranslatedSentences() throws Exception {
+        StringBuilder body = new StringBuilder("[[");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            if (i > 0) body.append(',');
+            String translated = "Frase número " + i + " con \\\"comillas\\\" y \\u00e1. ";
+            body.append("[\"").append(translated).append("\",\"Sentence ").append(i)
+                    .append(". \",null,null,3,null,null,[[]],[[[\"abc\",\"def\"]]]]");
+            expected.append("Frase número ").append(i).append(" con \"comillas\" y á. ");
+        }
+        body.append("],null,\"en\",null,null,null,1.0,[],[[\"en\"],null,[1.0],[\"en\"]]]");
+
+        assertEquals(expected.toString(), GtxResponseParser.parse(new StringReader(body.toString())));
+    }
+
+    @Test
+    public void skipsNullSentencesAndTrailingSections() throws Exception {
+        String body = "[[[\"Hola \",\"Hello \",null,null,1],[null,null,\"ola\"]],null,\"en\",null,null,null,1.0]";
+        assertEquals("Hola ", GtxResponseParser.parse(new StringReader(body)));
+    }
+
+    @Test
+    public void returnsNullWithoutSentences() throws Exception {
+        assertNull(GtxResponseParser.parse(new StringReader("[null,null,\"en\"]")));
+    }
+}
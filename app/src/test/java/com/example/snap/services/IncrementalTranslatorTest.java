@@ -0,0 +1,155 @@
+package com.example.snap.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas de la traducción incremental con un traductor falso. La espera de agrupado es
+ * muy larga y las pruebas la fuerzan con flushPending(), así no dependen del tiempo.
+ */
+public class IncrementalTranslatorTest {
+
+    private ScheduledExecutorService scheduler;
+    private final List<String> requested = new ArrayList<>();
+    private final Map<String, CompletableFuture<String>> hanging = new HashMap<>();
+    private final List<String> delivered = new ArrayList<>();
+    private final List<Throwable> errors = new ArrayList<>();
+    private boolean hang;
+    private boolean fail;
+
+    private IncrementalTranslator translator;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        translator = new IncrementalTranslator(segment -> {
+            requested.add(segment);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            if (hang) {
+                hanging.put(segment, future);
+            } else if (fail) {
+                future.completeExceptionally(new TranslationException("sin red"));
+            } else {
+                future.complete(segment.toUpperCase());
+            }
+            return future;
+        }, new IncrementalTranslator.Listener() {
+            @Override
+            public void onTranslation(String sourceText, String translatedText, boolean isFinal) {
+                delivered.add((isFinal ? "F:" : "P:") + translatedText);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                errors.add(error);
+            }
+        }, scheduler, 60_000);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void segmentsSplitAtSentenceEndAndEveryEightWords() {
+        assertEquals(Arrays.asList("hola.", "qué tal"), IncrementalTranslator.segment("hola. qué tal"));
+        assertEquals(Arrays.asList("uno dos tres cuatro cinco seis siete ocho", "nueve"),
+                IncrementalTranslator.segment("uno dos tres cuatro cinco seis siete ocho nueve"));
+    }
+
+    @Test
+    public void partialsAreCoalescedIntoOneRequest() {
+        translator.onPartial("hola");
+        translator.onPartial("hola qué");
+        translator.onPartial("hola qué tal");
+        translator.flushPending();
+
+        assertEquals(Arrays.asList("hola qué tal"), requested);
+        assertEquals(Arrays.asList("P:HOLA QUÉ TAL"), delivered);
+    }
+
+    @Test
+    public void onlyTheChangedSuffixIsTranslatedAgain() {
+        translator.onPartial("uno dos tres cuatro cinco seis siete ocho nueve");
+        translator.flushPending();
+        translator.onPartial("uno dos tres cuatro cinco seis siete ocho nueve diez");
+        translator.flushPending();
+
+        assertEquals(Arrays.asList(
+                "uno dos tres cuatro cinco seis siete ocho", "nueve", "nueve diez"), requested);
+        assertEquals(1, translator.getSegmentReuses());
+        assertEquals("P:UNO DOS TRES CUATRO CINCO SEIS SIETE OCHO NUEVE DIEZ",
+                delivered.get(delivered.size() - 1));
+    }
+
+    @Test
+    public void finalIsTranslatedImmediatelyAndCancelsPendingPartial() {
+        translator.onPartial("buenos");
+        translator.onFinal("buenos días");
+        translator.flushPending();
+
+        assertEquals(Arrays.asList("buenos días"), requested);
+        assertEquals(Arrays.asList("F:BUENOS DÍAS"), delivered);
+    }
+
+    @Test
+    public void slowOlderResultNeverOverwritesNewerOne() {
+        hang = true;
+        translator.onPartial("hola");
+        translator.flushPending();
+        translator.onPartial("hola amigo");
+        translator.flushPending();
+
+        hanging.get("hola amigo").complete("hello friend");
+        hanging.get("hola").complete("hello");
+
+        assertEquals(Arrays.asList("P:hello friend"), delivered);
+    }
+
+    @Test
+    public void resetDropsInFlightResults() {
+        hang = true;
+        translator.onPartial("hola");
+        translator.flushPending();
+        translator.reset();
+        hanging.get("hola").complete("hello");
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void resetBeforeScheduledFlushDropsThePartial() {
+        translator.onPartial("hola");
+        translator.reset();
+        translator.flushPending();
+
+        assertTrue(requested.isEmpty());
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void failedClosedSegmentIsRequestedAgain() {
+        fail = true;
+        translator.onFinal("hola.");
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof TranslationException);
+
+        fail = false;
+        translator.onFinal("hola. adiós");
+        assertEquals(Arrays.asList("hola.", "hola.", "adiós"), requested);
+        assertEquals(Arrays.asList("F:HOLA. ADIÓS"), delivered);
+    }
+}
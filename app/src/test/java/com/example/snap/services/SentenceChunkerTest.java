@@ -0,0 +1,56 @@
+package com.example.snap.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class SentenceChunkerTest {
+
+    private static List<String> texts(List<SentenceChunker.Chunk> chunks) {
+        List<String> texts = new ArrayList<>();
+        for (SentenceChunker.Chunk chunk : chunks) texts.add(chunk.text);
+        return texts;
+    }
+
+    @Test
+    public void splitsAtSentenceBoundaries() {
+        String text = "Hello there. How are you? I am fine!";
+        List<SentenceChunker.Chunk> chunks = SentenceChunker.split(text, Locale.ENGLISH, 300);
+        assertEquals(Arrays.asList("Hello there.", "How are you?", "I am fine!"), texts(chunks));
+    }
+
+    @Test
+    public void rangesPointIntoOriginalText() {
+        String text = "  Uno.   Dos.  ";
+        for (SentenceChunker.Chunk chunk : SentenceChunker.split(text, new Locale("es"), 300)) {
+            assertEquals(chunk.text, text.substring(chunk.start, chunk.end));
+        }
+    }
+
+    @Test
+    public void splitsJapaneseSentences() {
+        List<SentenceChunker.Chunk> chunks = SentenceChunker.split("こんにちは。元気ですか？", Locale.JAPANESE, 300);
+        assertEquals(Arrays.asList("こんにちは。", "元気ですか？"), texts(chunks));
+    }
+
+    @Test
+    public void longSentenceIsCutAtCommaOrSpace() {
+        String text = "one two three, four five six seven eight";
+        List<String> parts = texts(SentenceChunker.split(text, Locale.ENGLISH, 20));
+        assertEquals(Arrays.asList("one two three,", "four five six seven", "eight"), parts);
+        for (String part : parts) {
+            assertTrue(part.length() <= 20);
+        }
+    }
+
+    @Test
+    public void emptyTextHasNoChunks() {
+        assertTrue(SentenceChunker.split("   ", Locale.ENGLISH, 300).isEmpty());
+        assertTrue(SentenceChunker.split(null, Locale.ENGLISH, 300).isEmpty());
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.snap.services;
+
+import com.example.snap.models.TranslationResult;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pruebas del router con proveedores falsos y un reloj manual (sin Android ni red).
+ */
+public class TranslationRouterTest {
+
+    // Proveedor falso: "tarda" latencyMs avanzando el reloj y puede fallar a demanda
+    private static class FakeProvider implements TranslationProvider {
+        final String name;
+        final AtomicLong clock;
+        long latencyMs;
+        boolean fail;
+        boolean available = true;
+        boolean hang;
+        String onlyPair;
+        int calls;
+        CompletableFuture<String> last;
+
+        FakeProvider(String name, AtomicLong clock, long latencyMs) {
+            this.name = name;
+            this.clock = clock;
+            this.latencyMs = latencyMs;
+        }
+
+        @Override public String getName() { return name; }
+
+        @Override
+        public boolean supports(String sourceLang, String targetLang) {
+            return onlyPair == null || onlyPair.equals(sourceLang + "-" + targetLang);
+        }
+
+        @Override public boolean isAvailable() { return available; }
+
+        @Override
+        public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+            calls++;
+            clock.addAndGet(latencyMs);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            last = future;
+            if (hang) {
+                return future;
+            }
+            if (fail) {
+                future.completeExceptionally(new TranslationException(name + " falló"));
+            } else {
+                future.complete(name + ":" + text);
+            }
+            return future;
+        }
+    }
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    public void prefersFasterProviderOnceMeasured() {
+        FakeProvider slow = new FakeProvider("slow", clock, 500);
+        FakeProvider fast = new FakeProvider("fast", clock, 50);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(slow, fast), clock::get);
+
+        // Exploración: los dos acumulan muestras
+        for (int i = 0; i < 6; i++) {
+            router.translate("hola", "es", "en").join();
+        }
+
+        List<TranslationProvider> ranked = router.rank("es", "en");
+        assertEquals("fast", ranked.get(0).getName());
+        assertEquals("fast", router.translate("hola", "es", "en").join().getProvider());
+    }
+
+    @Test
+    public void translateTimesOutWhenProviderHangs() throws Exception {
+        FakeProvider stuck = new FakeProvider("stuck", clock, 0);
+        stuck.hang = true;
+        TranslationRouter router = new TranslationRouter(Arrays.asList(stuck), clock::get);
+        router.setTimeoutMs(50);
+
+        try {
+            router.translate("hola", "es", "en").get(5, TimeUnit.SECONDS);
+            fail("Debería vencer el plazo");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void skipsProvidersThatDoNotSupportThePair() {
+        FakeProvider onDevice = new FakeProvider("mlkit", clock, 10);
+        onDevice.onlyPair = "es-en";
+        FakeProvider network = new FakeProvider("gtx", clock, 100);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(onDevice, network), clock::get);
+
+        TranslationResult result = router.translate("こんにちは", "ja", "es").join();
+        assertEquals("gtx", result.getProvider());
+        assertEquals(0, onDevice.calls);
+    }
+
+    @Test
+    public void fallsBackToNextProviderOnFailure() {
+        FakeProvider broken = new FakeProvider("broken", clock, 10);
+        broken.fail = true;
+        FakeProvider backup = new FakeProvider("backup", clock, 100);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(broken, backup), clock::get);
+
+        TranslationResult result = router.translate("hola", "es", "en").join();
+        assertEquals("backup:hola", result.getTranslatedText());
+        assertEquals(1, router.getStats("broken").getFailures());
+    }
+
+    @Test
+    public void repeatedFailuresPutProviderInCooldown() {
+        FakeProvider flaky = new FakeProvider("flaky", clock, 10);
+        flaky.fail = true;
+        FakeProvider backup = new FakeProvider("backup", clock, 100);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(flaky, backup), clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            router.translate("hola", "es", "en").join();
+        }
+        assertEquals("backup", router.rank("es", "en").get(0).getName());
+
+        // Pasada la cuarentena vuelve a ser candidato en su posición normal
+        clock.addAndGet(60_000);
+        flaky.fail = false;
+        assertEquals("flaky", router.rank("es", "en").get(0).getName());
+    }
+
+    @Test
+    public void unavailableProvidersAreNeverChosen() {
+        FakeProvider custom = new FakeProvider("custom", clock, 1);
+        custom.available = false;
+        TranslationRouter router = new TranslationRouter(Arrays.asList(custom), clock::get);
+
+        assertTrue(router.rank("es", "en").isEmpty());
+        assertTrue(router.translate("hola", "es", "en").isCompletedExceptionally());
+    }
+
+    @Test
+    public void hedgeFiresSecondaryWhenPrimaryIsLate() throws Exception {
+        FakeProvider primary = new FakeProvider("mlkit", clock, 0);
+        primary.hang = true;
+        FakeProvider secondary = new FakeProvider("gtx", clock, 0);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(primary, secondary), clock::get);
+        router.setHedgeOptions(95, 20, 0, 50);
+
+        TranslationResult result = router.translateHedged("hola", "es", "en")
+                .get(2, java.util.concurrent.TimeUnit.SECONDS);
+
+        assertEquals("gtx", result.getProvider());
+        // El perdedor se cancela y no cuenta como fallo
+        assertTrue(primary.last.isCancelled());
+        assertEquals(0, router.getStats("mlkit").getFailures());
+    }
+
+    @Test
+    public void hedgeDoesNotFireWhenPrimaryAnswersInTime() throws Exception {
+        FakeProvider primary = new FakeProvider("mlkit", clock, 0);
+        FakeProvider secondary = new FakeProvider("gtx", clock, 0);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(primary, secondary), clock::get);
+        router.setHedgeOptions(95, 50, 0, 100);
+
+        assertEquals("mlkit", router.translateHedged("hola", "es", "en").get().getProvider());
+        Thread.sleep(150);
+        assertEquals(0, secondary.calls);
+    }
+
+    @Test
+    public void hedgeFallsBackImmediatelyWhenPrimaryFails() throws Exception {
+        FakeProvider primary = new FakeProvider("mlkit", clock, 0);
+        primary.fail = true;
+        FakeProvider secondary = new FakeProvider("gtx", clock, 0);
+        TranslationRouter router = new TranslationRouter(Arrays.asList(primary, secondary), clock::get);
+        // Plazo largo: si esperase al plazo, el get() vencería
+        router.setHedgeOptions(95, 10_000, 10_000, 10_000);
+
+        TranslationResult result = router.translateHedged("hola", "es", "en")
+                .get(1, java.util.concurrent.TimeUnit.SECONDS);
+        assertEquals("gtx", result.getProvider());
+    }
+
+    @Test
+    public void hedgeCancelsBothProvidersOnTimeout() throws Exception {
+        FakeProvider primary = new FakeProvider("mlkit", clock, 0);
+        primary.hang = true;
+        FakeProvider secondary = new FakeProvider("gtx", clock, 0);
+        secondary.hang = true;
+        TranslationRouter router = new TranslationRouter(Arrays.asList(primary, secondary), clock::get);
+        router.setHedgeOptions(95, 10, 0, 10);
+        router.setTimeoutMs(200);
+
+        try {
+            router.translateHedged("hola", "es", "en").get(2, TimeUnit.SECONDS);
+            fail("Debería vencer el plazo total");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        // Ninguna petición queda en marcha y las cancelaciones no cuentan como fallo
+        assertEquals(1, secondary.calls);
+        assertTrue(primary.last.isCancelled());
+        assertTrue(secondary.last.isCancelled());
+        assertEquals(0, router.getStats("mlkit").getFailures());
+        assertEquals(0, router.getStats("gtx").getFailures());
+    }
+}